@@ -18,12 +18,17 @@ import com.google.inject.Module;
 import com.google.inject.Provider;
 import org.json.JSONObject;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This is the main entry point to the Orchid build process. It does little more than create a OrchidContextImpl for Orchid to runTask
@@ -365,12 +370,31 @@ public final class Orchid {
         /**
          * Files have been changed and the site is about to be rebuilt. Orchid is usually in the
          * {@link Orchid.State#IDLE } state at the time this event if first fired, and internally Orchid catches this
-         * event to start a build.
+         * event to start a build. When the changed files are known they are included with the event so that only the
+         * affected parts of the site need to be rebuilt; an empty set of changed files means any file may have changed.
          */
         public static class FilesChanged extends OrchidEvent {
-            private FilesChanged(Object sender) { super(sender); }
+            private final Set<Path> changedFiles;
+            private FilesChanged(Object sender, Set<Path> changedFiles) {
+                super(sender);
+                this.changedFiles = Collections.unmodifiableSet(changedFiles);
+            }
+
+            public Set<Path> getChangedFiles() {
+                return changedFiles;
+            }
+
+            @Override
+            public String toString() {
+                JSONObject data = new JSONObject();
+
+                data.put("changedFiles", changedFiles.stream().map(Path::toString).collect(Collectors.toList()));
+
+                return data.toString();
+            }
 
-            public static FilesChanged fire(Object sender) { return new FilesChanged(sender); }
+            public static FilesChanged fire(Object sender) { return new FilesChanged(sender, new HashSet<>()); }
+            public static FilesChanged fire(Object sender, Collection<Path> changedFiles) { return new FilesChanged(sender, new HashSet<>(changedFiles)); }
         }
 
         /**
@@ -4,6 +4,8 @@ import com.eden.common.util.EdenPair;
 import com.eden.orchid.api.OrchidService;
 import com.google.inject.ImplementedBy;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -123,6 +125,24 @@ public interface CompilerService extends OrchidService {
         return getService(CompilerService.class).compile(extension, input, data);
     }
 
+    /**
+     * Compiles input against a given Compiler identified by file extension, writing the output directly to `output`
+     * instead of returning it as a String.
+     *
+     * @param extension the extension to find a Compiler for
+     * @param input the input to compile
+     * @param data additional data to pass to the OrchidCompiler
+     * @param output the Writer to write the compiled output to. The unprocessed input is written if no appropriate
+     *               Compiler could be found.
+     * @throws IOException if the output could not be written
+     *
+     * @since v1.0.0
+     * @see OrchidCompiler
+     */
+    default void compile(String extension, String input, Object data, Writer output) throws IOException {
+        getService(CompilerService.class).compile(extension, input, data, output);
+    }
+
     /**
      * Compiles input against a given Parser identified by file extension.
      *
@@ -11,6 +11,8 @@ import com.eden.orchid.api.options.annotations.StringDefault;
 import org.json.JSONObject;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -19,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @since v1.0.0
@@ -55,6 +58,7 @@ public final class CompilerServiceImpl implements CompilerService {
     private Map<String, OrchidCompiler> compilerMap;
     private Map<String, OrchidParser> parserMap;
     private Map<String, OrchidCompiler> customCompilerMap;
+    private final Map<OrchidCompiler, ThreadLocal<OrchidCompiler>> threadCompilers = new ConcurrentHashMap<>();
 
     @Inject
     public CompilerServiceImpl(Set<OrchidCompiler> compilers, Set<OrchidParser> parsers, OrchidPrecompiler precompiler) {
@@ -144,6 +148,15 @@ public final class CompilerServiceImpl implements CompilerService {
     public String compile(String extension, String input, Object data) {
         OrchidCompiler compiler = compilerFor(extension);
         if (compiler != null) {
+            if (compiler.isThreadSafe()) {
+                return compiler.compile(extension, input, context.getSiteData(data));
+            }
+
+            OrchidCompiler threadCompiler = getThreadCompiler(compiler);
+            if (threadCompiler != compiler) {
+                return threadCompiler.compile(extension, input, context.getSiteData(data));
+            }
+
             synchronized (compiler) {
                 return compiler.compile(extension, input, context.getSiteData(data));
             }
@@ -152,6 +165,43 @@ public final class CompilerServiceImpl implements CompilerService {
         }
     }
 
+    public void compile(String extension, String input, Object data, Writer output) throws IOException {
+        OrchidCompiler compiler = compilerFor(extension);
+        if (compiler != null) {
+            if (compiler.isThreadSafe()) {
+                compiler.compile(extension, input, context.getSiteData(data), output);
+                return;
+            }
+
+            OrchidCompiler threadCompiler = getThreadCompiler(compiler);
+            if (threadCompiler != compiler) {
+                threadCompiler.compile(extension, input, context.getSiteData(data), output);
+                return;
+            }
+
+            synchronized (compiler) {
+                compiler.compile(extension, input, context.getSiteData(data), output);
+            }
+        } else if (input != null) {
+            output.write(input);
+        }
+    }
+
+    /**
+     * Get an instance of a non-thread-safe compiler that is owned by the current thread. Compilers bound as Singletons
+     * resolve back to the shared instance, in which case the caller must fall back to calling it one thread at a time.
+     */
+    private OrchidCompiler getThreadCompiler(OrchidCompiler compiler) {
+        ThreadLocal<OrchidCompiler> threadCompiler = threadCompilers.computeIfAbsent(compiler, sharedCompiler ->
+                ThreadLocal.withInitial(() -> {
+                    OrchidCompiler resolved = context.resolve(sharedCompiler.getClass());
+                    return (resolved != null) ? resolved : sharedCompiler;
+                })
+        );
+
+        return threadCompiler.get();
+    }
+
     public Map<String, Object> parse(String extension, String input) {
         OrchidParser parser = parserFor(extension);
         return (parser != null) ? parser.parse(extension, input) : null;
@@ -2,6 +2,8 @@ package com.eden.orchid.api.compilers;
 
 import com.eden.orchid.api.registration.Prioritized;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
 
 /**
@@ -38,6 +40,28 @@ public abstract class OrchidCompiler extends Prioritized {
      */
     public abstract String compile(String extension, String input, Map<String, Object> data);
 
+    /**
+     * Compile content with a particular file extension using the optional provided data, writing the compiled content
+     * to `output` rather than returning it. By default, the content is compiled to a String and then written, but
+     * compilers that produce their output incrementally should override this so large pages can be written to their
+     * destination without being held in memory all at once.
+     *
+     * @param extension the file extension that represents the type of data to compile
+     * @param input     the content to be compiled
+     * @param data      optional data to be passed to the compiler
+     * @param output    the Writer to write the compiled content to
+     * @throws IOException if the compiled content could not be written, or a {@link CompilationFailedException} if
+     *                     the content failed to compile partway through
+     *
+     * @since v1.0.0
+     */
+    public void compile(String extension, String input, Map<String, Object> data, Writer output) throws IOException {
+        String compiledContent = compile(extension, input, data);
+        if (compiledContent != null) {
+            output.write(compiledContent);
+        }
+    }
+
     /**
      * Gets the file extension representing the type of the output content.
      *
@@ -56,4 +80,37 @@ public abstract class OrchidCompiler extends Prioritized {
      */
     public abstract String[] getSourceExtensions();
 
+    /**
+     * Whether this OrchidCompiler may be called from multiple threads at once. Compilers that are not thread-safe are
+     * given a separate instance for each thread when they are not bound as a Singleton, and are otherwise called by one
+     * thread at a time.
+     *
+     * @return true if this OrchidCompiler can compile content concurrently, false otherwise
+     *
+     * @since v1.0.0
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Thrown from {@link #compile(String, String, Map, Writer)} when content fails to compile after some of its output
+     * may already have been written. The error has already been reported, and renderers should discard the partial
+     * output and write the uncompiled source in its place.
+     *
+     * @since v1.0.0
+     */
+    public static class CompilationFailedException extends IOException {
+        private final String source;
+
+        public CompilationFailedException(String source, Throwable cause) {
+            super("Content failed to compile", cause);
+            this.source = source;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+
 }
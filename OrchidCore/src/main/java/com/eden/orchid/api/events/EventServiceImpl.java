@@ -6,33 +6,76 @@ import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.options.annotations.Description;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Singleton
 @Description(value = "The Orchid event broadcast system.", name = "Events")
 public final class EventServiceImpl implements EventService {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, OrchidEvent.class);
+
     private OrchidContext context;
     private Set<OrchidEventListener> eventListeners;
-    private Set<EventServiceImpl.EventHandler> eventHandlers;
-    private Stack<Class<? extends OrchidEvent>> eventsInProgress;
+    // all handlers, in the order they were registered
+    private List<EventServiceImpl.EventHandler> eventHandlers;
+    // the handlers which are called for each class of event that has been broadcast, in the order they are called
+    private Map<Class<?>, List<EventServiceImpl.EventHandler>> handlersByEventClass;
+    // the events being broadcast by each thread, so an event cannot be broadcast again by its own handlers
+    private ThreadLocal<Deque<Class<? extends OrchidEvent>>> eventsInProgress;
+    // a single thread, so asynchronous handlers receive events in the order they were broadcast
+    private ExecutorService asyncExecutor;
 
 
     static class EventHandler {
         public Class<? extends OrchidEvent> eventClass;
         public boolean allowSubclasses;
+        public int priority;
+        public boolean async;
         public Object acceptor;
         public Method callback;
+        public MethodHandle invoker;
+
+        boolean accepts(Class<?> eventClass) {
+            Class<?> paramClass = callback.getParameterTypes()[0];
+            if (allowSubclasses) {
+                return paramClass.isAssignableFrom(eventClass);
+            } else {
+                return paramClass.equals(eventClass);
+            }
+        }
+
+        void invoke(OrchidEvent event) throws Throwable {
+            invoker.invokeExact(acceptor, event);
+        }
     }
 
     @Inject
     public EventServiceImpl(Set<OrchidEventListener> eventListeners) {
-        this.eventHandlers = new HashSet<>();
-        this.eventsInProgress = new Stack<>();
+        this.eventHandlers = new CopyOnWriteArrayList<>();
+        this.handlersByEventClass = new ConcurrentHashMap<>();
+        this.eventsInProgress = ThreadLocal.withInitial(ArrayDeque::new);
         this.eventListeners = eventListeners;
+        this.asyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "orchid-events");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -44,13 +87,15 @@ public final class EventServiceImpl implements EventService {
     }
 
     @Override
-    public void registerEventListeners(OrchidEventListener listener) {
+    public synchronized void registerEventListeners(OrchidEventListener listener) {
         Arrays.stream(listener.getClass().getDeclaredMethods()).filter(method -> method.isAnnotationPresent(On.class)).forEach(method -> {
             On methodAnnotation = method.getAnnotation(On.class);
             Class<? extends OrchidEvent> eventType = methodAnnotation.value();
             EventHandler handler = new EventHandler();
             handler.eventClass = methodAnnotation.value();
             handler.allowSubclasses = methodAnnotation.subclasses();
+            handler.priority = methodAnnotation.priority();
+            handler.async = methodAnnotation.async();
             handler.acceptor = listener;
             handler.callback = method;
             boolean addHandler = true;
@@ -73,54 +118,110 @@ public final class EventServiceImpl implements EventService {
                     Clog.e("Event handler [{}.{}] must accept a single parameter of type [{}]", listener.getClass().getSimpleName(), method.getName(), eventType.getSimpleName());
                 }
             }
+            if (addHandler) {
+                try {
+                    handler.invoker = createInvoker(method);
+                } catch (Exception e) {
+                    addHandler = false;
+                    Clog.e("Event handler [{}.{}] cannot be accessed: {}", listener.getClass().getSimpleName(), method.getName(), e.getMessage());
+                }
+            }
             if (addHandler) {
                 this.eventHandlers.add(handler);
             }
         });
+        handlersByEventClass.clear();
     }
 
     @Override
-    public void deregisterEventListeners(OrchidEventListener listener) {
+    public synchronized void deregisterEventListeners(OrchidEventListener listener) {
         eventHandlers.removeIf(eventHandler -> eventHandler.acceptor == listener);
+        handlersByEventClass.clear();
     }
 
     @Override
-    public synchronized void broadcast(OrchidEvent event) {
-        for (Class<? extends OrchidEvent> inProgress : eventsInProgress) {
-            if (event.getClass().equals(inProgress)) {
-                throw new IllegalStateException(Clog.format("The event \'#{$1}\' is already in progress, it cannot be emitted again until this cycle has finished.", event.getClass().toString()));
+    public void broadcast(OrchidEvent event) {
+        Deque<Class<? extends OrchidEvent>> inProgress = eventsInProgress.get();
+        if (inProgress.contains(event.getClass())) {
+            throw new IllegalStateException(Clog.format("The event \'#{$1}\' is already in progress, it cannot be emitted again until this cycle has finished.", event.getClass().toString()));
+        }
+        inProgress.push(event.getClass());
+        try {
+            for (EventHandler handler : getHandlers(event.getClass())) {
+                if (handler.async) {
+                    callMethodAsync(event, handler);
+                } else {
+                    callMethod(event, handler);
+                }
             }
+        } finally {
+            inProgress.pop();
+        }
+    }
+
+    private void callMethod(OrchidEvent event, EventHandler handler) {
+        try {
+            handler.invoke(event);
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
         }
-        eventsInProgress.push(event.getClass());
-        for (EventHandler handler : this.eventHandlers) {
+    }
+
+    private void callMethodAsync(OrchidEvent event, EventHandler handler) {
+        asyncExecutor.execute(() -> {
             try {
-                callMethod(event, handler);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+                handler.invoke(event);
+            } catch (Throwable e) {
+                Clog.e("Event handler [{}.{}] failed", e, handler.acceptor.getClass().getSimpleName(), handler.callback.getName());
             }
-        }
-        eventsInProgress.pop();
+        });
     }
 
-    private void callMethod(OrchidEvent event, EventHandler handler) throws Exception {
-        Class<?> paramClass = handler.callback.getParameterTypes()[0];
-        boolean callMethod = false;
-        if (handler.allowSubclasses) {
-            if (paramClass.isAssignableFrom(event.getClass())) {
-                callMethod = true;
+// Helpers
+//----------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Get the handlers to call for a class of event. The matching handlers are found and sorted the first time each class
+     * of event is broadcast, and after that only when listeners are registered or deregistered.
+     */
+    private List<EventHandler> getHandlers(Class<?> eventClass) {
+        List<EventHandler> handlers = handlersByEventClass.get(eventClass);
+        if (handlers == null) {
+            // synchronized with registration, so handlers are never cached for listeners which were just removed
+            synchronized (this) {
+                handlers = handlersByEventClass.computeIfAbsent(eventClass, this::findHandlers);
             }
-        } else {
-            if (paramClass.equals(event.getClass())) {
-                callMethod = true;
+        }
+        return handlers;
+    }
+
+    private List<EventHandler> findHandlers(Class<?> eventClass) {
+        List<EventHandler> handlers = new ArrayList<>();
+        for (EventHandler handler : eventHandlers) {
+            if (handler.accepts(eventClass)) {
+                handlers.add(handler);
             }
         }
-        if (callMethod) {
-            handler.callback.invoke(handler.acceptor, event);
+        // stable sort, so handlers with the same priority stay in the order they were registered
+        handlers.sort(Comparator.comparingInt((EventHandler handler) -> handler.priority).reversed());
+        return handlers;
+    }
+
+    /**
+     * Create a MethodHandle which calls the callback method with the listener and the event, so that broadcasting an
+     * event avoids the access checks and argument boxing of reflective calls.
+     */
+    private static MethodHandle createInvoker(Method method) throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle invoker = MethodHandles.lookup().unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            invoker = MethodHandles.dropArguments(invoker, 0, Object.class);
         }
+        return invoker.asType(INVOKER_TYPE);
     }
 
     @java.lang.SuppressWarnings("all")
     public Set<EventServiceImpl.EventHandler> getEventHandlers() {
-        return this.eventHandlers;
+        return new LinkedHashSet<>(this.eventHandlers);
     }
 }
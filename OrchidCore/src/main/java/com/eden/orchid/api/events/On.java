@@ -32,4 +32,27 @@ public @interface On {
      * @since v1.0.0
      */
     boolean subclasses() default false;
+
+    /**
+     * The order in which this method is called relative to other methods listening for the same Event. Methods with a
+     * higher priority are called first, and methods with the same priority are called in the order they were
+     * registered.
+     *
+     * @return the priority of this callback
+     *
+     * @since v1.0.0
+     */
+    int priority() default 0;
+
+    /**
+     * If true, this method is called on a background thread after the Event is broadcast, rather than before
+     * `broadcast()` returns. Asynchronous callbacks receive Events in the order they were broadcast, and exceptions they
+     * throw are logged rather than returned to the caller. This is intended for observers, such as forwarding Events to
+     * a websocket, which should not slow down the build.
+     *
+     * @return whether to call this method asynchronously
+     *
+     * @since v1.0.0
+     */
+    boolean async() default false;
 }
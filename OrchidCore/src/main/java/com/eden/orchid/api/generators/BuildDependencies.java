@@ -0,0 +1,115 @@
+package com.eden.orchid.api.generators;
+
+import com.eden.common.util.EdenUtils;
+
+import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which parts of the index were looked up by each page while it was rendered, and by each generator while it
+ * was indexed. Lookups are recorded by the generator key or collection type they were made against, so that when a
+ * file changes only the generators and pages that could have seen that change need to be built again.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class BuildDependencies {
+
+    /**
+     * The key recorded for lookups that could have matched anything in the index, such as an unqualified search or
+     * iterating over all pages.
+     */
+    public static final String ALL = "*";
+
+    private final ThreadLocal<Object> currentDependent = new ThreadLocal<>();
+    private final Map<Object, Set<String>> dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * Start recording lookups made on the current thread against the given page or generator, replacing anything
+     * previously recorded for it.
+     *
+     * @param dependent the page or generator that is about to be rendered or indexed
+     * @return the dependent that was being tracked on this thread before, which must be passed to `stopTracking`
+     */
+    public Object startTracking(Object dependent) {
+        Object previousDependent = currentDependent.get();
+        currentDependent.set(dependent);
+        dependencies.put(dependent, ConcurrentHashMap.newKeySet());
+        return previousDependent;
+    }
+
+    public void stopTracking(Object previousDependent) {
+        if (previousDependent != null) {
+            currentDependent.set(previousDependent);
+        }
+        else {
+            currentDependent.remove();
+        }
+    }
+
+    /**
+     * Record that whatever is currently being tracked on this thread looked up pages from the generator or collection
+     * type `key`. An empty key is recorded as {@link #ALL}.
+     *
+     * @param key the generator key or collection type that was looked up
+     */
+    public void dependOn(String key) {
+        Object dependent = currentDependent.get();
+        if (dependent != null) {
+            dependencies
+                    .computeIfAbsent(dependent, it -> ConcurrentHashMap.newKeySet())
+                    .add(EdenUtils.isEmpty(key) ? ALL : key);
+        }
+    }
+
+    public void dependOnAll() {
+        dependOn(ALL);
+    }
+
+    /**
+     * Check whether a page or generator may be affected by changes to the given generators and collection types.
+     * Anything that has never been tracked is assumed to be affected.
+     *
+     * @param dependent the page or generator to check
+     * @param changedKeys the generator keys and collection types that have changed
+     * @return true if the dependent needs to be built again
+     */
+    public boolean isAffected(Object dependent, Set<String> changedKeys) {
+        Set<String> dependentKeys = dependencies.get(dependent);
+        if (dependentKeys == null || dependentKeys.contains(ALL)) {
+            return true;
+        }
+
+        for (String key : dependentKeys) {
+            if (changedKeys.contains(key)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the generator keys and collection types a page or generator looked up the last time it was tracked.
+     *
+     * @param dependent the page or generator
+     * @return the keys it depends on, or null if it has never been tracked
+     */
+    public Set<String> getDependencies(Object dependent) {
+        Set<String> dependentKeys = dependencies.get(dependent);
+        return (dependentKeys != null) ? Collections.unmodifiableSet(dependentKeys) : null;
+    }
+
+    public void forget(Collection<?> dependents) {
+        dependents.forEach(dependencies::remove);
+    }
+
+    public void clear() {
+        dependencies.clear();
+    }
+
+}
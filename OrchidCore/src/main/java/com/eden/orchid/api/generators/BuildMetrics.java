@@ -8,12 +8,15 @@ import com.eden.orchid.Orchid;
 import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.theme.pages.OrchidPage;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Singleton
 public class BuildMetrics {
     private final OrchidContext context;
 
@@ -27,15 +30,25 @@ public class BuildMetrics {
     private int totalPageCount;
     private Map<String, GeneratorMetrics> generatorMetricsMap;
     private GeneratorMetrics compositeMetrics;
+    private final AtomicLong templateCacheHits = new AtomicLong();
+    private final AtomicLong templateCacheMisses = new AtomicLong();
+    private final AtomicLong assetCount = new AtomicLong();
+    private final AtomicLong assetRenderingTime = new AtomicLong();
+    private final AtomicLong pageContentRecompilations = new AtomicLong();
 
 // Measure Indexing Phase
 //----------------------------------------------------------------------------------------------------------------------
     public void startIndexing(Set<OrchidGenerator> generators) {
-        generatorMetricsMap = new HashMap<>();
+        generatorMetricsMap = new ConcurrentHashMap<>();
         compositeMetrics = null;
         progress = 0;
         totalPageCount = 0;
         maxProgress = generators.size();
+        templateCacheHits.set(0);
+        templateCacheMisses.set(0);
+        assetCount.set(0);
+        assetRenderingTime.set(0);
+        pageContentRecompilations.set(0);
     }
 
     public void startIndexingGenerator(String generator) {
@@ -74,8 +87,11 @@ public class BuildMetrics {
 
     public void onPageGenerated(OrchidPage page, long millis) {
         if (page.isIndexed()) {
-            progress++;
-            context.broadcast(Orchid.Lifecycle.ProgressEvent.fire(this, "building", progress, maxProgress, millis));
+            int currentProgress;
+            synchronized (this) {
+                currentProgress = ++progress;
+            }
+            context.broadcast(Orchid.Lifecycle.ProgressEvent.fire(this, "building", currentProgress, maxProgress, millis));
             if (page.getGenerator() != null) {
                 ensureMetricsExist(page.getGenerator().getKey());
                 generatorMetricsMap.get(page.getGenerator().getKey()).addPageGenerationTime(millis);
@@ -88,13 +104,66 @@ public class BuildMetrics {
         generatorMetricsMap.values().stream().peek(compositeMetrics::compose).forEach(this::setColumnWidths);
         setColumnWidths(compositeMetrics);
         context.broadcast(Orchid.Lifecycle.ProgressEvent.fire(this, "building", maxProgress, maxProgress, 0));
+        Clog.d("Template cache: {} hits, {} misses", templateCacheHits.get() + "", templateCacheMisses.get() + "");
+        if (pageContentRecompilations.get() > 0) {
+            Clog.d("Page content compiled again {} times after being dropped from memory", pageContentRecompilations.get() + "");
+        }
+    }
+
+// Measure Assets
+//----------------------------------------------------------------------------------------------------------------------
+    public void onAssetRendered(long millis) {
+        assetCount.incrementAndGet();
+        assetRenderingTime.addAndGet(millis);
+    }
+
+    public void stopRenderingAssets() {
+        long count = assetCount.get();
+        long millis = assetRenderingTime.get();
+        if (count > 0) {
+            Clog.d("Rendered {} assets in {}ms ({} assets/s)", count + "", millis + "", ((millis > 0) ? (count * 1000 / millis) : count) + "");
+        }
+    }
+
+    public long getAssetCount() {
+        return assetCount.get();
+    }
+
+    public long getAssetRenderingTime() {
+        return assetRenderingTime.get();
+    }
+
+// Measure Caches
+//----------------------------------------------------------------------------------------------------------------------
+    public void onTemplateCacheHit() {
+        templateCacheHits.incrementAndGet();
+    }
+
+    public void onTemplateCacheMiss() {
+        templateCacheMisses.incrementAndGet();
+    }
+
+    public void onPageContentRecompiled() {
+        pageContentRecompilations.incrementAndGet();
+    }
+
+    public long getPageContentRecompilations() {
+        return pageContentRecompilations.get();
+    }
+
+    public long getTemplateCacheHits() {
+        return templateCacheHits.get();
+    }
+
+    public long getTemplateCacheMisses() {
+        return templateCacheMisses.get();
     }
 
 // Print Metrics
 //----------------------------------------------------------------------------------------------------------------------
     private void ensureMetricsExist(String generator) {
-        if (generator != null && !generatorMetricsMap.containsKey(generator)) {
-            generatorMetricsMap.put(generator, new GeneratorMetrics(generator));
+        if (generator != null) {
+            generatorMetricsMap.computeIfAbsent(generator, GeneratorMetrics::new);
         }
     }
 
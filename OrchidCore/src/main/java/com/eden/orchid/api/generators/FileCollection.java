@@ -21,9 +21,7 @@ public class FileCollection extends OrchidCollection<OrchidPage> {
     }
 
     public Stream<OrchidPage> find(String id) {
-        return getItems()
-                .stream()
-                .filter(page -> page.getTitle().equals(id));
+        return lookup("title", id, OrchidPage::getTitle).stream();
     }
 
 }
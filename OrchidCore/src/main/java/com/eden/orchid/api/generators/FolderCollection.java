@@ -25,7 +25,7 @@ public class FolderCollection extends OrchidCollection<OrchidPage> {
     }
 
     public Stream<OrchidPage> find(String id) {
-        return getItems().stream().filter(page -> page.getTitle().equals(id));
+        return lookup("title", id, OrchidPage::getTitle).stream();
     }
 
     @java.lang.SuppressWarnings("all")
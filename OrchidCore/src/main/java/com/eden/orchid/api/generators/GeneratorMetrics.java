@@ -39,7 +39,7 @@ public class GeneratorMetrics {
         generatingEndTime = System.currentTimeMillis();
     }
 
-    void addPageGenerationTime(long millis) {
+    synchronized void addPageGenerationTime(long millis) {
         pageGenerationTimes.add(millis);
     }
 
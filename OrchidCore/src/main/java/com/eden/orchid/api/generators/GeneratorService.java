@@ -5,6 +5,9 @@ import com.eden.orchid.api.OrchidService;
 import com.eden.orchid.api.theme.pages.OrchidPage;
 import com.google.inject.ImplementedBy;
 
+import java.nio.file.Path;
+import java.util.Collection;
+
 /**
  * @since v1.0.0
  * @orchidApi services
@@ -16,6 +19,29 @@ public interface GeneratorService extends OrchidService {
         getService(GeneratorService.class).startIndexing();
     }
 
+    /**
+     * Index again only the generators whose pages were created from one of the changed files, along with any
+     * generators that looked up those pages while they were indexed. If the changed files cannot all be traced back to
+     * indexed pages, nothing is indexed and a full build is needed instead. The following call to `startGeneration()`
+     * will then only render the pages that may have been affected by the changes.
+     *
+     * @param changedFiles the files that have changed since the last build
+     * @return true if the index was updated incrementally, false if a full build is needed
+     */
+    default boolean startIndexing(Collection<Path> changedFiles) {
+        return getService(GeneratorService.class).startIndexing(changedFiles);
+    }
+
+    /**
+     * Whether the current or most recent build only indexed and rendered the generators and pages affected by changed
+     * files, rather than the whole site.
+     *
+     * @return true if the build is incremental, false if it is a full build
+     */
+    default boolean isIncrementalBuild() {
+        return getService(GeneratorService.class).isIncrementalBuild();
+    }
+
     default void startGeneration() {
         getService(GeneratorService.class).startGeneration();
     }
@@ -10,7 +10,9 @@ import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.indexing.OrchidIndex;
 import com.eden.orchid.api.options.annotations.BooleanDefault;
 import com.eden.orchid.api.options.annotations.Description;
+import com.eden.orchid.api.options.annotations.IntDefault;
 import com.eden.orchid.api.options.annotations.Option;
+import com.eden.orchid.api.resources.resource.FileResource;
 import com.eden.orchid.api.theme.Theme;
 import com.eden.orchid.api.theme.pages.OrchidPage;
 import com.eden.orchid.utilities.OrchidUtils;
@@ -18,13 +20,22 @@ import org.apache.commons.io.FilenameUtils;
 import org.json.JSONObject;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -37,6 +48,10 @@ public final class GeneratorServiceImpl implements GeneratorService {
     private final Set<OrchidGenerator> allGenerators;
     private OrchidContext context;
     private BuildMetrics metrics;
+    private BuildDependencies dependencies;
+    private final Map<Path, String> sourceFiles;
+    private final Map<String, List<? extends OrchidCollection>> collectionsByGenerator;
+    private Set<String> changedKeys;
     @Option
     @Description("Whitelist the generators in this array, only indexing and generating these generators.")
     private String[] enabled;
@@ -54,11 +69,18 @@ public final class GeneratorServiceImpl implements GeneratorService {
     @BooleanDefault(false)
     @Description("By default Generators run serially in priority order, but this flag will allow all generators to render in parallel for improved performance (the pages from that generator are still rendered serially by default). Not suitable for builds where later generators depend on the pages rendered by higher-priority generators.")
     private boolean parallelGeneration;
+    @Option
+    @IntDefault(0)
+    @Description("When greater than 0, pages are rendered on a shared work-stealing pool with this many threads, in place of `parallelGeneration`. The pages of all generators with the same priority are rendered together, so idle threads pick up pages from whichever generator still has work, but a generator only starts once every generator with a higher priority has finished. Generators that use their own theme are started one at a time, and generators whose `parallel` flag is off still render their own pages one at a time.")
+    private int renderThreads;
 
     @Inject
-    public GeneratorServiceImpl(Set<OrchidGenerator> generators, BuildMetrics metrics) {
+    public GeneratorServiceImpl(Set<OrchidGenerator> generators, BuildMetrics metrics, BuildDependencies dependencies) {
         this.allGenerators = new TreeSet<>(generators);
         this.metrics = metrics;
+        this.dependencies = dependencies;
+        this.sourceFiles = new ConcurrentHashMap<>();
+        this.collectionsByGenerator = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -76,6 +98,10 @@ public final class GeneratorServiceImpl implements GeneratorService {
     @Override
     public void startIndexing() {
         metrics.startIndexing(allGenerators);
+        dependencies.clear();
+        sourceFiles.clear();
+        collectionsByGenerator.clear();
+        changedKeys = null;
         context.clearIndex();
         buildInternalIndex();
         buildExternalIndex();
@@ -87,7 +113,104 @@ public final class GeneratorServiceImpl implements GeneratorService {
         getFilteredGenerators(parallelIndexing).forEach(this::indexGenerator);
     }
 
+    @Override
+    public boolean startIndexing(Collection<Path> changedFiles) {
+        Set<String> changedGenerators = getChangedGenerators(changedFiles);
+        if (changedGenerators == null) {
+            return false;
+        }
+        metrics.startIndexing(allGenerators);
+        changedKeys = new HashSet<>(changedGenerators);
+        // generators are checked in priority order, so any generator that looked up the pages of one that was just
+        // indexed again will see the updated pages when it is indexed again itself
+        getFilteredGenerators(false).forEachOrdered(generator -> {
+            if (changedKeys.contains(generator.getKey()) || dependencies.isAffected(generator, changedKeys)) {
+                reindexGenerator(generator);
+            }
+        });
+        if (context.getCollections() != null) {
+            context.getCollections().stream().filter(collection -> collection instanceof GlobalCollection).map(OrchidCollection::getCollectionType).forEach(changedKeys::add);
+        }
+        context.buildCompositeIndex();
+        metrics.stopIndexing();
+        return true;
+    }
+
+    private Set<String> getChangedGenerators(Collection<Path> changedFiles) {
+        if (EdenUtils.isEmpty(changedFiles) || sourceFiles.isEmpty()) {
+            return null;
+        }
+        Set<String> changedGenerators = new HashSet<>();
+        for (Path changedFile : changedFiles) {
+            Path path = changedFile.toAbsolutePath().normalize();
+            String generatorKey = sourceFiles.get(path);
+            if (generatorKey != null) {
+                changedGenerators.add(generatorKey);
+            } else if (Files.isDirectory(path)) {
+                // a directory of pages changed, so the generators which own those pages are indexed again. A directory
+                // without any indexed pages, such as one just created or moved into place, may hold pages for any
+                // generator
+                Set<String> directoryGenerators = getGeneratorsInDirectory(path);
+                if (directoryGenerators.isEmpty()) {
+                    Clog.d("[{}] does not contain any indexed pages, running a full build", path);
+                    return null;
+                }
+                changedGenerators.addAll(directoryGenerators);
+            } else {
+                // templates, config, data files, and new pages can affect anything, so the whole site must be rebuilt
+                Clog.d("[{}] is not the source of an indexed page, running a full build", path);
+                return null;
+            }
+        }
+        return changedGenerators;
+    }
+
+    private Set<String> getGeneratorsInDirectory(Path directory) {
+        Set<String> generatorKeys = new HashSet<>();
+        for (Map.Entry<Path, String> sourceFile : sourceFiles.entrySet()) {
+            if (sourceFile.getKey().startsWith(directory)) {
+                generatorKeys.add(sourceFile.getValue());
+            }
+        }
+        return generatorKeys;
+    }
+
+    @Override
+    public boolean isIncrementalBuild() {
+        return changedKeys != null;
+    }
+
+    private void reindexGenerator(OrchidGenerator generator) {
+        String key = generator.getKey();
+        OrchidIndex previousIndex = context.getInternalIndex().removeChildIndex(key);
+        if (previousIndex != null) {
+            dependencies.forget(previousIndex.getAllPages());
+        }
+        List<? extends OrchidCollection> previousCollections = collectionsByGenerator.remove(key);
+        if (previousCollections != null) {
+            context.removeCollections(previousCollections);
+            previousCollections.forEach(collection -> changedKeys.add(collection.getCollectionType()));
+        }
+        sourceFiles.values().removeIf(key::equals);
+        indexGenerator(generator);
+        changedKeys.add(key);
+        List<? extends OrchidCollection> newCollections = collectionsByGenerator.get(key);
+        if (newCollections != null) {
+            newCollections.forEach(collection -> changedKeys.add(collection.getCollectionType()));
+        }
+    }
+
     private void indexGenerator(OrchidGenerator generator) {
+        // keep track of anything the generator looks up from the index, so it can be indexed again when that changes
+        Object previousDependent = dependencies.startTracking(generator);
+        try {
+            indexGeneratorPages(generator);
+        } finally {
+            dependencies.stopTracking(previousDependent);
+        }
+    }
+
+    private void indexGeneratorPages(OrchidGenerator generator) {
         Clog.i("Indexing [{}: {}]", generator.getPriority(), generator.getKey());
         context.broadcast(Orchid.Lifecycle.IndexGeneratorStart.fire(generator));
         metrics.startIndexingGenerator(generator.getKey());
@@ -108,6 +231,9 @@ public final class GeneratorServiceImpl implements GeneratorService {
                 page.setGenerator(generator);
                 page.setIndexed(true);
                 index.addToIndex(generator.getKey() + "/" + page.getReference().getPath(), page);
+                if (page.getResource() instanceof FileResource && ((FileResource) page.getResource()).getFile() != null) {
+                    sourceFiles.put(((FileResource) page.getResource()).getFile().toPath().toAbsolutePath().normalize(), generator.getKey());
+                }
                 page.free();
             });
             context.getInternalIndex().addChildIndex(generator.getKey(), index);
@@ -116,6 +242,7 @@ public final class GeneratorServiceImpl implements GeneratorService {
         List<? extends OrchidCollection> generatorCollections = generator.getCollections();
         if (generatorCollections != null && generatorCollections.size() > 0) {
             context.addCollections(generatorCollections);
+            collectionsByGenerator.put(generator.getKey(), generatorCollections);
         }
         // notify the generator is finished indexing
         if (generatorPages != null && generatorPages.size() > 0) {
@@ -144,12 +271,50 @@ public final class GeneratorServiceImpl implements GeneratorService {
     @Override
     public void startGeneration() {
         metrics.startGeneration();
-        getFilteredGenerators(parallelGeneration).forEach(this::useGenerator);
+        if (renderThreads > 0) {
+            scheduleGenerators();
+        } else {
+            getFilteredGenerators(parallelGeneration).forEach(generator -> useGenerator(generator, generator.isParallel()));
+        }
         metrics.stopGeneration();
+        changedKeys = null;
+    }
+
+    /**
+     * Run generators on a dedicated ForkJoinPool, one priority at a time. Parallel page streams started from within the
+     * pool are split across the same pool, so the pages from every generator in a priority level share its threads.
+     * The theme stack is global, so generators with their own theme can't run alongside other generators.
+     */
+    private void scheduleGenerators() {
+        Map<Integer, List<OrchidGenerator>> generatorsByPriority = getFilteredGenerators(false)
+                .collect(Collectors.groupingBy(OrchidGenerator::getPriority, LinkedHashMap::new, Collectors.toList()));
+        ForkJoinPool pool = new ForkJoinPool(renderThreads);
+        try {
+            for (List<OrchidGenerator> generators : generatorsByPriority.values()) {
+                List<OrchidGenerator> sharedThemeGenerators = generators.stream().filter(generator -> generator.getTheme() == null).collect(Collectors.toList());
+                List<OrchidGenerator> customThemeGenerators = generators.stream().filter(generator -> generator.getTheme() != null).collect(Collectors.toList());
+                pool.submit(() -> sharedThemeGenerators.parallelStream().forEach(generator -> useGenerator(generator, generator.isParallel()))).get();
+                for (OrchidGenerator generator : customThemeGenerators) {
+                    pool.submit(() -> useGenerator(generator, generator.isParallel())).get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating pages", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Error while generating pages", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
     }
 
-    private void useGenerator(OrchidGenerator generator) {
-        Clog.i("Generating [{}: {}]{}", generator.getPriority(), generator.getKey(), (generator.isParallel()) ? " in parallel" : "");
+    private void useGenerator(OrchidGenerator generator, boolean parallel) {
+        Clog.i("Generating [{}: {}]{}", generator.getPriority(), generator.getKey(), (parallel) ? " in parallel" : "");
         metrics.startGeneratingGenerator(generator.getKey());
         List<? extends OrchidPage> generatorPages = null;
         if (!EdenUtils.isEmpty(generator.getKey())) {
@@ -158,7 +323,17 @@ public final class GeneratorServiceImpl implements GeneratorService {
         if (generatorPages == null) {
             generatorPages = new ArrayList<>();
         }
-        Stream<? extends OrchidPage> generatorPagesStream = generator.isParallel() ? generatorPages.parallelStream() : generatorPages.stream();
+        // in an incremental build, only render the pages which could have been affected by the changed files. Generators
+        // without indexed pages create their output entirely during generation, and so always run.
+        if (changedKeys != null && !changedKeys.contains(generator.getKey()) && !generatorPages.isEmpty()) {
+            generatorPages = generatorPages.stream().filter(page -> dependencies.isAffected(page, changedKeys)).collect(Collectors.toList());
+            if (generatorPages.isEmpty()) {
+                Clog.d("[{}] No pages affected by changes, skipping.", generator.getKey());
+                metrics.stopGeneratingGenerator(generator.getKey());
+                return;
+            }
+        }
+        Stream<? extends OrchidPage> generatorPagesStream = parallel ? generatorPages.parallelStream() : generatorPages.stream();
         Theme customTheme = context.doWithTheme(generator.getTheme(), () -> generator.startGeneration(generatorPagesStream));
         if (customTheme != null) {
             Clog.d("[{}] Generator pages rendered with [{}] Theme.", generator.getKey(), customTheme.getKey());
@@ -259,4 +434,14 @@ public final class GeneratorServiceImpl implements GeneratorService {
     public void setParallelGeneration(final boolean parallelGeneration) {
         this.parallelGeneration = parallelGeneration;
     }
+
+    @java.lang.SuppressWarnings("all")
+    public int getRenderThreads() {
+        return this.renderThreads;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setRenderThreads(final int renderThreads) {
+        this.renderThreads = renderThreads;
+    }
 }
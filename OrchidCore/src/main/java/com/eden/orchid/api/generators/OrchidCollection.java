@@ -5,8 +5,14 @@ import com.eden.orchid.api.options.Descriptive;
 import com.eden.orchid.utilities.OrchidExtensionsKt;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -23,6 +29,9 @@ public abstract class OrchidCollection<T> implements Descriptive {
 
     private List<T> items;
 
+    // the items by the value of each named key, built the first time items are looked up by that key
+    private final Map<String, ItemLookup<T>> lookups = new ConcurrentHashMap<>();
+
     public OrchidCollection(String collectionType, String collectionId, List<T> items) {
         this.collectionType = collectionType;
         this.collectionId = collectionId;
@@ -63,10 +72,79 @@ public abstract class OrchidCollection<T> implements Descriptive {
 
     public void setItems(List<T> items) {
         this.items = (items != null) ? Collections.unmodifiableList(items) : null;
+        this.lookups.clear();
     }
 
     public void clear() {
         this.items = null;
+        this.lookups.clear();
+    }
+
+    /**
+     * Find the items whose value for a key is equal to `value`. The first time items are looked up by a key, every item
+     * is grouped by its value for that key, so later lookups do not need to check every item. The values are read when
+     * the items are grouped, and are grouped again when this collection's items change.
+     *
+     * @param keyName a name for the key, unique within this collection
+     * @param value the value to find
+     * @param key gets the item's value for the key. The value is compared by its String representation.
+     * @return the matching items, in the same order as they are in this collection
+     */
+    protected final List<T> lookup(String keyName, String value, Function<T, Object> key) {
+        return lookupAll(keyName, value, item -> Collections.singletonList(key.apply(item)));
+    }
+
+    /**
+     * Find the items with any of their values for a key equal to `value`, such as a page that may be matched by either
+     * its title or its key.
+     *
+     * @param keyName a name for the key, unique within this collection
+     * @param value the value to find
+     * @param keys gets all the item's values for the key. Each value is compared by its String representation.
+     * @return the matching items, in the same order as they are in this collection
+     * @see #lookup(String, String, Function)
+     */
+    protected final List<T> lookupAll(String keyName, String value, Function<T, Collection<?>> keys) {
+        List<T> currentItems = this.items;
+        if (currentItems == null || value == null) {
+            return Collections.emptyList();
+        }
+
+        ItemLookup<T> lookup = lookups.get(keyName);
+        // items may also be changed through the list given to this collection, rather than with setItems()
+        if (lookup == null || lookup.items != currentItems || lookup.size != currentItems.size()) {
+            lookup = new ItemLookup<>(currentItems, keys);
+            lookups.put(keyName, lookup);
+        }
+
+        return lookup.itemsByValue.getOrDefault(value, Collections.emptyList());
+    }
+
+    private static final class ItemLookup<T> {
+        private final List<T> items;
+        private final int size;
+        private final Map<String, List<T>> itemsByValue;
+
+        private ItemLookup(List<T> items, Function<T, Collection<?>> keys) {
+            this.items = items;
+            this.size = items.size();
+            this.itemsByValue = new HashMap<>();
+            for (T item : items) {
+                Collection<?> values = keys.apply(item);
+                if (values == null) {
+                    continue;
+                }
+                for (Object value : values) {
+                    if (value != null) {
+                        List<T> valueItems = itemsByValue.computeIfAbsent(value.toString(), k -> new ArrayList<>(1));
+                        // an item with several equal values is only matched once
+                        if (valueItems.isEmpty() || valueItems.get(valueItems.size() - 1) != item) {
+                            valueItems.add(item);
+                        }
+                    }
+                }
+            }
+        }
     }
 
     public String getCollectionType() {
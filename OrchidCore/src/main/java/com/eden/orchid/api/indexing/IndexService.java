@@ -40,6 +40,15 @@ public interface IndexService extends OrchidService {
         getService(IndexService.class).addCollections(collections);
     }
 
+    /**
+     * Remove collections which were previously added, such as when the generator that created them is indexed again.
+     *
+     * @param collections the collections to remove
+     */
+    default void removeCollections(List<? extends OrchidCollection> collections) {
+        getService(IndexService.class).removeCollections(collections);
+    }
+
     default List<? extends OrchidCollection> getCollections() {
         return getService(IndexService.class).getCollections();
     }
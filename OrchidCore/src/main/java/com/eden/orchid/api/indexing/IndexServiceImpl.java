@@ -6,18 +6,24 @@ import com.eden.orchid.Orchid;
 import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.events.On;
 import com.eden.orchid.api.events.OrchidEventListener;
+import com.eden.orchid.api.generators.BuildDependencies;
 import com.eden.orchid.api.generators.GlobalCollection;
 import com.eden.orchid.api.generators.OrchidCollection;
 import com.eden.orchid.api.options.annotations.Description;
+import com.eden.orchid.api.options.annotations.IntDefault;
+import com.eden.orchid.api.options.annotations.Option;
 import com.eden.orchid.api.theme.pages.OrchidPage;
-import com.eden.orchid.utilities.CacheKt;
-import com.eden.orchid.utilities.LRUCache;
+import com.eden.orchid.utilities.ConcurrentLRUCache;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -31,29 +37,43 @@ import java.util.stream.Stream;
 @Description(value = "How Orchid organizes the data it collects.", name = "Index")
 public final class IndexServiceImpl implements IndexService, OrchidEventListener {
     private final Set<GlobalCollection> globalCollections;
+    private final BuildDependencies dependencies;
     private OrchidRootIndex internalIndex;
     private OrchidRootIndex externalIndex;
     private OrchidRootIndex compositeIndex;
     private List<OrchidCollection> collections;
-    private final LRUCache<CollectionSearchCacheKey, Object> collectionSearchCache;
+    // the collections of each type and id, built the first time they are looked up after collections change
+    private volatile CollectionLookup collectionLookup;
+    private final ConcurrentLRUCache<CollectionSearchCacheKey, Object> collectionSearchCache;
+    @Option
+    @IntDefault(250)
+    @Description("The maximum number of `find()` results to keep cached during a build. Sites that look up many different pages from templates may want to increase this.")
+    private int cacheSize;
 
     @Inject
-    public IndexServiceImpl(Set<GlobalCollection> globalCollections) {
+    public IndexServiceImpl(Set<GlobalCollection> globalCollections, BuildDependencies dependencies) {
         this.globalCollections = Collections.unmodifiableSet(globalCollections);
-        this.collectionSearchCache = new LRUCache<>();
+        this.dependencies = dependencies;
+        this.collectionSearchCache = new ConcurrentLRUCache<>();
     }
 
     @Override
     public void initialize(OrchidContext context) {
     }
 
+    @Override
+    public void onPostExtraction() {
+        collectionSearchCache.setMaxSize(cacheSize);
+    }
+
     @Override
     public void clearIndex() {
-        internalIndex = new OrchidRootIndex("internal");
-        externalIndex = new OrchidRootIndex("external");
-        compositeIndex = new OrchidRootIndex("composite");
+        internalIndex = new OrchidRootIndex("internal", dependencies);
+        externalIndex = new OrchidRootIndex("external", dependencies);
+        compositeIndex = new OrchidRootIndex("composite", dependencies);
         globalCollections.forEach(GlobalCollection::clear);
         collections = new ArrayList<>(globalCollections);
+        collectionLookup = null;
     }
 
     @Override
@@ -67,14 +87,30 @@ public final class IndexServiceImpl implements IndexService, OrchidEventListener
     @Override
     public void addCollections(List<? extends OrchidCollection> collections) {
         this.collections.addAll(collections);
+        this.collectionLookup = null;
+    }
+
+    @Override
+    public void removeCollections(List<? extends OrchidCollection> collections) {
+        this.collections.removeAll(collections);
+        this.collectionLookup = null;
+        // global collections are built from everything else that was indexed, so they must be loaded again
+        globalCollections.forEach(GlobalCollection::clear);
     }
 
     @Override
     public Object find(String collectionType, String collectionId, String itemId) {
         final CollectionSearchCacheKey key = new CollectionSearchCacheKey(collectionType, collectionId, itemId);
-        return CacheKt.computeIfAbsent(collectionSearchCache, key, () -> {
+        Object result = collectionSearchCache.computeIfAbsent(key, () -> {
             return filterCollections(getCollections(collectionType, collectionId), itemId).findFirst().orElse(null);
         });
+        // an unqualified search only depends on the generator of the page it found, unless nothing was found at all
+        if (EdenUtils.isEmpty(collectionType) && result instanceof OrchidPage && ((OrchidPage) result).getGenerator() != null) {
+            dependencies.dependOn(((OrchidPage) result).getGenerator().getKey());
+        } else {
+            dependencies.dependOn(collectionType);
+        }
+        return result;
     }
 
     @Override
@@ -99,17 +135,23 @@ public final class IndexServiceImpl implements IndexService, OrchidEventListener
 
     @Override
     public List<?> findAll(String collectionType, String collectionId, String itemId) {
+        dependencies.dependOn(collectionType);
         return optionallyFilterCollections(getCollections(collectionType, collectionId), itemId).collect(Collectors.toList());
     }
 
     @Override
     public List<?> findAll(String collectionType, String collectionId, String itemId, int page, int pageSize) {
-        return optionallyFilterCollections(getCollections(collectionType, collectionId), itemId).skip((page - 1) * pageSize).limit(pageSize).collect(Collectors.toList());
+        dependencies.dependOn(collectionType);
+        return getPageOfItems(getCollections(collectionType, collectionId), itemId, page, pageSize);
     }
 
     @Override
     public List<? extends OrchidCollection> getCollections(List<String> whitelist) {
-        if (EdenUtils.isEmpty(whitelist)) return collections;
+        if (EdenUtils.isEmpty(whitelist)) {
+            dependencies.dependOnAll();
+            return collections;
+        }
+        whitelist.forEach(filter -> dependencies.dependOn(filter.split(":")[0]));
         return collections.stream().filter(Objects::nonNull).filter(collection -> {
             boolean passes = false;
             for (String filter : whitelist) {
@@ -139,14 +181,57 @@ public final class IndexServiceImpl implements IndexService, OrchidEventListener
 // Helpers
 //----------------------------------------------------------------------------------------------------------------------
     private Stream<? extends OrchidCollection> getCollections(String collectionType, String collectionId) {
-        Stream<? extends OrchidCollection> stream = collections.stream().filter(Objects::nonNull);
-        if (!EdenUtils.isEmpty(collectionType)) {
-            stream = stream.filter(collection -> collectionType.equals(collection.getCollectionType()));
+        return getCollectionList(collectionType, collectionId).stream();
+    }
+
+    private List<OrchidCollection> getCollectionList(String collectionType, String collectionId) {
+        CollectionLookup lookup = collectionLookup;
+        if (lookup == null) {
+            lookup = new CollectionLookup(collections);
+            collectionLookup = lookup;
+        }
+        return lookup.get(collectionType, collectionId);
+    }
+
+    /**
+     * Get one page of the items from these collections, without getting any items after the end of that page.
+     */
+    private List<?> getPageOfItems(Stream<? extends OrchidCollection> collections, String itemId, int page, int pageSize) {
+        long skip = Math.max(page - 1, 0) * (long) pageSize;
+        List<Object> pageItems = new ArrayList<>();
+        if (pageSize <= 0) {
+            return pageItems;
         }
-        if (!EdenUtils.isEmpty(collectionId)) {
-            stream = stream.filter(collection -> collectionId.equals(collection.getCollectionId()));
+        Set<Object> seenItems = new HashSet<>();
+        Iterator<? extends OrchidCollection> collectionIterator = collections.iterator();
+        while (collectionIterator.hasNext()) {
+            OrchidCollection<?> collection = collectionIterator.next();
+            final Iterator<?> items;
+            if (!EdenUtils.isEmpty(itemId)) {
+                Stream<?> matches = collection.findMatches(itemId);
+                items = (matches != null) ? matches.iterator() : null;
+            } else {
+                items = (collection.getItems() != null) ? collection.getItems().iterator() : null;
+            }
+            if (items == null) {
+                continue;
+            }
+            while (items.hasNext()) {
+                Object item = items.next();
+                // items are only counted the first time they are found, as with `distinct()`
+                if (seenItems.add(item)) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        pageItems.add(item);
+                        if (pageItems.size() >= pageSize) {
+                            return pageItems;
+                        }
+                    }
+                }
+            }
         }
-        return stream;
+        return pageItems;
     }
 
     private Stream<?> filterCollections(Stream<? extends OrchidCollection> collections, String itemId) {
@@ -163,6 +248,54 @@ public final class IndexServiceImpl implements IndexService, OrchidEventListener
 
 // Cache Implementation
 //----------------------------------------------------------------------------------------------------------------------
+    /**
+     * The registered collections, grouped by type, by id, and by both, in the order they were registered.
+     */
+    private static final class CollectionLookup {
+        private final List<OrchidCollection> all;
+        private final Map<String, List<OrchidCollection>> byType;
+        private final Map<String, List<OrchidCollection>> byId;
+        private final Map<String, Map<String, List<OrchidCollection>>> byTypeAndId;
+
+        private CollectionLookup(List<OrchidCollection> collections) {
+            this.all = new ArrayList<>();
+            this.byType = new HashMap<>();
+            this.byId = new HashMap<>();
+            this.byTypeAndId = new HashMap<>();
+            for (OrchidCollection collection : collections) {
+                if (collection == null) {
+                    continue;
+                }
+                all.add(collection);
+                String type = collection.getCollectionType();
+                String id = collection.getCollectionId();
+                if (type != null) {
+                    byType.computeIfAbsent(type, k -> new ArrayList<>()).add(collection);
+                }
+                if (id != null) {
+                    byId.computeIfAbsent(id, k -> new ArrayList<>()).add(collection);
+                }
+                if (type != null && id != null) {
+                    byTypeAndId.computeIfAbsent(type, k -> new HashMap<>()).computeIfAbsent(id, k -> new ArrayList<>()).add(collection);
+                }
+            }
+        }
+
+        private List<OrchidCollection> get(String collectionType, String collectionId) {
+            boolean hasType = !EdenUtils.isEmpty(collectionType);
+            boolean hasId = !EdenUtils.isEmpty(collectionId);
+            if (hasType && hasId) {
+                return byTypeAndId.getOrDefault(collectionType, Collections.emptyMap()).getOrDefault(collectionId, Collections.emptyList());
+            } else if (hasType) {
+                return byType.getOrDefault(collectionType, Collections.emptyList());
+            } else if (hasId) {
+                return byId.getOrDefault(collectionId, Collections.emptyList());
+            } else {
+                return all;
+            }
+        }
+    }
+
     public static class CollectionSearchCacheKey {
         private final String collectionType;
         private final String collectionId;
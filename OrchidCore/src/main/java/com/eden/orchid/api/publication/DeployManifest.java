@@ -0,0 +1,270 @@
+package com.eden.orchid.api.publication;
+
+import com.caseyjbrooks.clog.Clog;
+import com.eden.orchid.utilities.OrchidUtils;
+import org.json.JSONObject;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A listing of every file in the site's destination directory, with the size, modification time, and SHA-1 hash of
+ * each file. The manifest is computed once when it is first needed during publication, hashing files in parallel, and
+ * is shared by all publishers so that each one does not need to walk and hash the site on its own.
+ *
+ * Publishers which change the files in the destination directory should call {@link #invalidate()} when they are
+ * done. The next time the manifest is needed, the directory is walked again, but only files whose size or modification
+ * time changed are hashed again.
+ *
+ * The manifest can also be persisted next to the destination directory with {@link #setPersistent(boolean)}, so that
+ * the hashes of files that have not changed are reused between deploys.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class DeployManifest {
+
+    private static final String VERSION = "1";
+
+    private final Path root;
+
+    private Map<String, Entry> entries;
+    private Map<String, Entry> previousEntries = Collections.emptyMap();
+    private boolean persistent;
+
+    @Inject
+    public DeployManifest(@Named("dest") String destinationDir) {
+        this.root = Paths.get(destinationDir);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Get the file where the manifest is persisted between deploys. It is kept next to the destination directory,
+     * rather than in it, so that it is not deployed along with the site.
+     *
+     * @return the file where the manifest is persisted
+     */
+    public Path getManifestFile() {
+        return root.toAbsolutePath().resolveSibling(root.toAbsolutePath().getFileName() + "-manifest.json");
+    }
+
+    public synchronized boolean isPersistent() {
+        return persistent;
+    }
+
+    public synchronized void setPersistent(boolean persistent) {
+        if (persistent && !this.persistent && entries != null) {
+            save(entries);
+        }
+        this.persistent = persistent;
+    }
+
+    /**
+     * Get the files in the destination directory.
+     *
+     * @return the files in the destination directory, keyed and ordered by their path relative to that directory, using
+     * forward slashes
+     */
+    public synchronized Map<String, Entry> getEntries() {
+        if (entries == null) {
+            entries = computeEntries();
+        }
+        return entries;
+    }
+
+    /**
+     * Get the files in the destination directory, grouped by the hash of their content.
+     *
+     * @return the files in the destination directory, keyed by their SHA-1 hash
+     */
+    public Map<String, List<Entry>> getEntriesByHash() {
+        Map<String, List<Entry>> entriesByHash = new HashMap<>();
+        for (Entry entry : getEntries().values()) {
+            entriesByHash.computeIfAbsent(entry.getSha1(), sha1 -> new ArrayList<>()).add(entry);
+        }
+        return entriesByHash;
+    }
+
+    /**
+     * Mark the manifest as out-of-date, so that it is computed again the next time it is needed.
+     */
+    public synchronized void invalidate() {
+        if (entries != null) {
+            previousEntries = entries;
+            entries = null;
+        }
+    }
+
+    private Map<String, Entry> computeEntries() {
+        if (!Files.isDirectory(root)) {
+            return Collections.emptyMap();
+        }
+
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (persistent && previousEntries.isEmpty()) {
+            previousEntries = load();
+        }
+
+        final Map<String, Entry> previous = previousEntries;
+        List<Entry> computedEntries = files
+                .parallelStream()
+                .map(file -> computeEntry(file, previous))
+                .collect(Collectors.toList());
+
+        Map<String, Entry> newEntries = new LinkedHashMap<>();
+        for (Entry entry : computedEntries) {
+            newEntries.put(entry.getRelativePath(), entry);
+        }
+        previousEntries = Collections.emptyMap();
+
+        Clog.d("Deploy manifest contains {} files", newEntries.size());
+        if (persistent) {
+            save(newEntries);
+        }
+        return Collections.unmodifiableMap(newEntries);
+    }
+
+    private Entry computeEntry(Path file, Map<String, Entry> previous) {
+        try {
+            String relativePath = root.relativize(file).toString().replace(File.separatorChar, '/');
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            // reuse the hash of files which have not changed since the manifest was last computed
+            Entry previousEntry = previous.get(relativePath);
+            if (previousEntry != null && previousEntry.getSize() == size && previousEntry.getLastModified() == lastModified) {
+                return previousEntry;
+            }
+
+            return new Entry(relativePath, file, size, lastModified, OrchidUtils.sha1(file.toFile()));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Could not hash file " + file, e);
+        }
+    }
+
+// Load and save manifest
+//----------------------------------------------------------------------------------------------------------------------
+
+    private Map<String, Entry> load() {
+        Path manifestFile = getManifestFile();
+        if (!Files.exists(manifestFile)) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            JSONObject manifestJson = new JSONObject(new String(Files.readAllBytes(manifestFile), Charset.forName("UTF-8")));
+            if (!VERSION.equals(manifestJson.optString("version"))) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, Entry> loadedEntries = new HashMap<>();
+            JSONObject filesJson = manifestJson.getJSONObject("files");
+            for (String relativePath : filesJson.keySet()) {
+                JSONObject fileJson = filesJson.getJSONObject(relativePath);
+                loadedEntries.put(relativePath, new Entry(
+                        relativePath,
+                        root.resolve(relativePath),
+                        fileJson.getLong("size"),
+                        fileJson.getLong("lastModified"),
+                        fileJson.getString("sha1")
+                ));
+            }
+            return loadedEntries;
+        }
+        catch (Exception e) {
+            Clog.w("Could not read deploy manifest, all files will be hashed: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private void save(Map<String, Entry> entries) {
+        JSONObject filesJson = new JSONObject();
+        for (Entry entry : entries.values()) {
+            JSONObject fileJson = new JSONObject();
+            fileJson.put("size", entry.getSize());
+            fileJson.put("lastModified", entry.getLastModified());
+            fileJson.put("sha1", entry.getSha1());
+            filesJson.put(entry.getRelativePath(), fileJson);
+        }
+
+        JSONObject manifestJson = new JSONObject();
+        manifestJson.put("version", VERSION);
+        manifestJson.put("files", filesJson);
+
+        try {
+            Files.write(getManifestFile(), manifestJson.toString().getBytes(Charset.forName("UTF-8")));
+        }
+        catch (IOException e) {
+            Clog.w("Could not write deploy manifest: {}", e.getMessage());
+        }
+    }
+
+    public static final class Entry {
+        private final String relativePath;
+        private final Path file;
+        private final long size;
+        private final long lastModified;
+        private final String sha1;
+
+        public Entry(String relativePath, Path file, long size, long lastModified, String sha1) {
+            this.relativePath = relativePath;
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha1 = sha1;
+        }
+
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+    }
+
+}
@@ -35,7 +35,8 @@ import java.util.Map;
  * OrchidPublishers are prioritized, and they are executed in order from highest priority to low. This means that
  * Publishers implement a complete _post-processing pipeline_ rather than just deploying code, and can be reliably used
  * to do any kind of post-processing or deployment on the generated site. Any failed validation or exceptions thrown by
- * a publisher terminate the entire publication phase.
+ * a publisher terminate the entire publication phase. Neighbouring publishers which are marked as `concurrent` are run
+ * at the same time, and may share the {@link DeployManifest} rather than each walking the site's files on their own.
  *
  * @since v1.0.0
  * @orchidApi extensible
@@ -53,6 +54,10 @@ public abstract class OrchidPublisher extends Prioritized implements OptionsHold
     @IntDefault(0)
     @Description("Manually set the order in which this publisher executes")
     protected int order;
+    @Option
+    @BooleanDefault(false)
+    @Description("Run this publisher at the same time as the concurrent publishers next to it. Only set this for publishers which do not change the site's files.")
+    private boolean concurrent;
     @AllOptions
     private Map<String, Object> allData;
 
@@ -119,6 +124,16 @@ public abstract class OrchidPublisher extends Prioritized implements OptionsHold
         this.order = order;
     }
 
+    @java.lang.SuppressWarnings("all")
+    public boolean isConcurrent() {
+        return this.concurrent;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setConcurrent(final boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
     @java.lang.SuppressWarnings("all")
     public Map<String, Object> getAllData() {
         return this.allData;
@@ -6,7 +6,12 @@ import com.eden.orchid.api.theme.components.ModularList;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 
 public final class PublicationPipeline extends ModularList<PublicationPipeline, OrchidPublisher> {
@@ -60,33 +65,35 @@ public final class PublicationPipeline extends ModularList<PublicationPipeline,
             success = false;
         }
         else {
-            for (OrchidPublisher publisher : allPublishers) {
-                boolean publisherIsDry = dryDeploy || publisher.isDry();
-                Clog.d("{}Publishing [{}: {}]", (publisherIsDry) ? "Dry " : "", publisher.getPriority(), publisher.getType());
+            DeployManifest manifest = context.resolve(DeployManifest.class);
+            if (manifest != null) {
+                manifest.invalidate();
+            }
+
+            for (List<OrchidPublisher> group : groupPublishers(allPublishers)) {
+                List<Boolean> results = publishGroup(group, dryDeploy);
+
+                // publishers may have changed the site's files, so make sure later publishers see those changes
+                if (manifest != null) {
+                    manifest.invalidate();
+                }
 
-                boolean publisherSuccess = true;
-                if (!publisherIsDry) {
-                    try {
-                        publisher.publish();
+                for (boolean publisherSuccess : results) {
+                    if (publisherSuccess) {
+                        progress++;
+                        if (update != null) {
+                            update.accept(progress, maxProgress);
+                        }
                     }
-                    catch (Exception e) {
-                        Clog.e("Something went wrong publishing [{}]", e, publisher.getType());
-                        publisherSuccess = false;
+                    else {
+                        success = false;
                     }
                 }
 
-                if (!publisherSuccess) {
-                    success = false;
+                if (!success) {
                     break;
                 }
-                else {
-                    progress++;
-                    if (update != null) {
-                        update.accept(progress, maxProgress);
-                    }
-                }
             }
-
         }
 
         if (!success && update != null) {
@@ -95,4 +102,76 @@ public final class PublicationPipeline extends ModularList<PublicationPipeline,
         return success;
     }
 
+    /**
+     * Split publishers into the groups that are run together. Neighbouring concurrent publishers are grouped together,
+     * and every other publisher runs in a group of its own.
+     */
+    private List<List<OrchidPublisher>> groupPublishers(List<OrchidPublisher> publishers) {
+        List<List<OrchidPublisher>> groups = new ArrayList<>();
+        List<OrchidPublisher> concurrentGroup = null;
+        for (OrchidPublisher publisher : publishers) {
+            if (publisher.isConcurrent()) {
+                if (concurrentGroup == null) {
+                    concurrentGroup = new ArrayList<>();
+                    groups.add(concurrentGroup);
+                }
+                concurrentGroup.add(publisher);
+            }
+            else {
+                concurrentGroup = null;
+                groups.add(Collections.singletonList(publisher));
+            }
+        }
+        return groups;
+    }
+
+    private List<Boolean> publishGroup(List<OrchidPublisher> group, boolean dryDeploy) {
+        if (group.size() == 1) {
+            return Collections.singletonList(publish(group.get(0), dryDeploy));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(group.size());
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (OrchidPublisher publisher : group) {
+                futures.add(executor.submit(() -> publish(publisher, dryDeploy)));
+            }
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                try {
+                    results.add(future.get());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.add(false);
+                }
+                catch (ExecutionException e) {
+                    results.add(false);
+                }
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean publish(OrchidPublisher publisher, boolean dryDeploy) {
+        boolean publisherIsDry = dryDeploy || publisher.isDry();
+        Clog.d("{}Publishing [{}: {}]", (publisherIsDry) ? "Dry " : "", publisher.getPriority(), publisher.getType());
+
+        if (!publisherIsDry) {
+            try {
+                publisher.publish();
+            }
+            catch (Exception e) {
+                Clog.e("Something went wrong publishing [{}]", e, publisher.getType());
+                return false;
+            }
+        }
+
+        return true;
+    }
+
 }
@@ -0,0 +1,374 @@
+package com.eden.orchid.api.render;
+
+import com.caseyjbrooks.clog.Clog;
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.events.On;
+import com.eden.orchid.api.events.OrchidEventListener;
+import com.eden.orchid.api.generators.BuildDependencies;
+import com.eden.orchid.api.indexing.OrchidIndex;
+import com.eden.orchid.api.resources.resource.FileResource;
+import com.eden.orchid.api.resources.resource.JarResource;
+import com.eden.orchid.api.resources.resource.OrchidResource;
+import com.eden.orchid.api.theme.Theme;
+import com.eden.orchid.api.theme.pages.OrchidPage;
+import com.eden.orchid.utilities.OrchidUtils;
+import com.google.inject.name.Named;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A record of the inputs used to render each page, kept on disk between builds so that pages whose inputs have not
+ * changed don't need to be rendered again. A page's fingerprint combines the site's config and data, the local
+ * templates and the plugins on the classpath, the page's own source file (including its front matter), its layout,
+ * templates, and theme, and the source files of every generator the page looked up while it was last rendered.
+ *
+ * Only pages created from files on disk or in plugin jars can be fingerprinted; pages generated from other sources
+ * are always rendered.
+ *
+ * Pages which are no longer rendered are removed from the record after each full build.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class BuildCache implements OrchidEventListener {
+
+    private static final String CACHE_FILE = "build-cache.json";
+    private static final String VERSION = "1";
+
+    private final Provider<OrchidContext> contextProvider;
+    private final BuildDependencies dependencies;
+    private final String resourcesDir;
+    private final String destination;
+
+    private final Map<String, CacheEntry> entries;
+    private final Map<String, String> dependencyHashes;
+    private final Set<String> seenPages;
+    private Path cacheDir;
+    private String siteHash;
+    private boolean loaded;
+    private boolean dirty;
+
+    @Inject
+    public BuildCache(Provider<OrchidContext> contextProvider, BuildDependencies dependencies, @Named("src") String resourcesDir, @Named("dest") String destination) {
+        this.contextProvider = contextProvider;
+        this.dependencies = dependencies;
+        this.resourcesDir = resourcesDir;
+        this.destination = destination;
+        this.entries = new ConcurrentHashMap<>();
+        this.dependencyHashes = new ConcurrentHashMap<>();
+        this.seenPages = ConcurrentHashMap.newKeySet();
+    }
+
+    public void setCacheDir(Path cacheDir) {
+        if (this.cacheDir == null || !this.cacheDir.equals(cacheDir)) {
+            this.cacheDir = cacheDir;
+            this.loaded = false;
+            this.entries.clear();
+        }
+    }
+
+// Check and update pages
+//----------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Check whether a page was already rendered with exactly the same inputs, and its output is still in place.
+     *
+     * @param page the page about to be rendered
+     * @return true if rendering this page can be skipped
+     */
+    public boolean isUpToDate(OrchidPage page) {
+        load();
+        seenPages.add(getPageKey(page));
+        CacheEntry entry = entries.get(getPageKey(page));
+        if (entry == null || !Files.exists(FileRenderer.getOutputFile(destination, page))) {
+            return false;
+        }
+
+        String fingerprint = getFingerprint(page, entry.dependencies);
+        return fingerprint != null && fingerprint.equals(entry.fingerprint);
+    }
+
+    /**
+     * Record the fingerprint of a page that was just rendered, along with the lookups it made while rendering.
+     *
+     * @param page the page that was rendered
+     */
+    public void update(OrchidPage page) {
+        load();
+        Set<String> pageDependencies = dependencies.getDependencies(page);
+        Set<String> sortedDependencies = (pageDependencies != null) ? new TreeSet<>(pageDependencies) : new TreeSet<>();
+        String fingerprint = getFingerprint(page, sortedDependencies);
+        seenPages.add(getPageKey(page));
+        if (fingerprint != null) {
+            entries.put(getPageKey(page), new CacheEntry(fingerprint, sortedDependencies));
+        }
+        else {
+            entries.remove(getPageKey(page));
+        }
+        dirty = true;
+    }
+
+// Fingerprints
+//----------------------------------------------------------------------------------------------------------------------
+
+    private String getPageKey(OrchidPage page) {
+        return FileRenderer.getOutputFile("", page).toString();
+    }
+
+    private String getFingerprint(OrchidPage page, Set<String> pageDependencies) {
+        String resourceHash = hashResource(page.getResource());
+        if (resourceHash == null) {
+            return null;
+        }
+
+        OrchidContext context = contextProvider.get();
+        Theme theme = context.getTheme();
+
+        StringBuilder fingerprint = new StringBuilder()
+                .append(getSiteHash()).append('\n')
+                .append(page.getClass().getName()).append('\n')
+                .append(page.getReference().toString()).append('\n')
+                .append(resourceHash).append('\n')
+                .append(page.getLayout()).append('\n')
+                .append(page.getTemplates()).append('\n')
+                .append((theme != null) ? theme.getKey() : "").append('\n');
+
+        for (String key : pageDependencies) {
+            String dependencyHash = dependencyHashes.computeIfAbsent(key, this::hashDependency);
+            if (dependencyHash.isEmpty()) {
+                return null;
+            }
+            fingerprint.append(key).append('=').append(dependencyHash).append('\n');
+        }
+
+        return sha1(fingerprint.toString());
+    }
+
+    private synchronized String getSiteHash() {
+        if (siteHash == null) {
+            OrchidContext context = contextProvider.get();
+            StringBuilder site = new StringBuilder()
+                    .append(new JSONObject(context.getConfig()).toString()).append('\n')
+                    .append(new JSONObject(context.getData()).toString()).append('\n');
+
+            try {
+                appendClasspath(site);
+                appendTemplates(site);
+            }
+            catch (Exception e) {
+                // without the classpath or templates the site can't be compared to the last build, so a unique hash is
+                // used to make sure no page is skipped
+                Clog.e("Could not fingerprint the site, every page will be rendered", e);
+                siteHash = UUID.randomUUID().toString();
+                return siteHash;
+            }
+
+            siteHash = sha1(site.toString());
+        }
+
+        return siteHash;
+    }
+
+    // jars such as snapshot dependencies may be rebuilt in place without changing their name, so their size and
+    // modification time are included along with their path
+    private void appendClasspath(StringBuilder site) throws IOException {
+        for (String classpathEntry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            site.append(classpathEntry);
+            Path file = Paths.get(classpathEntry);
+            if (Files.isRegularFile(file)) {
+                site.append('=').append(Files.size(file)).append(':').append(Files.getLastModifiedTime(file).toMillis());
+            }
+            site.append('\n');
+        }
+    }
+
+    private void appendTemplates(StringBuilder site) throws Exception {
+        Path templatesDir = Paths.get(resourcesDir, "templates");
+        if (Files.isDirectory(templatesDir)) {
+            try (Stream<Path> templates = Files.walk(templatesDir)) {
+                for (Path template : templates.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                    site.append(templatesDir.relativize(template)).append('=').append(OrchidUtils.sha1(template.toFile())).append('\n');
+                }
+            }
+        }
+    }
+
+    // returns an empty string when the pages from the dependency can't be fingerprinted, since the map can't hold nulls
+    private String hashDependency(String key) {
+        Map<String, OrchidIndex> generatorIndices = contextProvider.get().getInternalIndex().getAllIndexedPages();
+
+        List<OrchidPage> pages;
+        if (generatorIndices.containsKey(key)) {
+            pages = generatorIndices.get(key).getAllPages();
+        }
+        else {
+            // anything other than a single generator's pages could have come from anywhere in the index
+            pages = generatorIndices.values().stream().flatMap(index -> index.getAllPages().stream()).collect(Collectors.toList());
+        }
+
+        StringBuilder dependency = new StringBuilder();
+        for (OrchidPage page : pages) {
+            String resourceHash = hashResource(page.getResource());
+            if (resourceHash == null) {
+                return "";
+            }
+            dependency.append(page.getReference().toString()).append('=').append(resourceHash).append('\n');
+        }
+
+        return sha1(dependency.toString());
+    }
+
+    private String hashResource(OrchidResource resource) {
+        try {
+            if (resource instanceof FileResource && ((FileResource) resource).getFile() != null) {
+                return OrchidUtils.sha1(((FileResource) resource).getFile());
+            }
+            else if (resource instanceof JarResource) {
+                return OrchidUtils.sha1(resource.getContentStream());
+            }
+        }
+        catch (Exception e) {
+            Clog.d("Could not fingerprint resource {}: {}", resource.getReference(), e.getMessage());
+        }
+
+        return null;
+    }
+
+    private String sha1(String value) {
+        try {
+            return OrchidUtils.sha1(value);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+// Load and save cache
+//----------------------------------------------------------------------------------------------------------------------
+
+    private synchronized void load() {
+        if (loaded || cacheDir == null) {
+            return;
+        }
+        loaded = true;
+        entries.clear();
+
+        Path cacheFile = cacheDir.resolve(CACHE_FILE);
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+
+        try {
+            JSONObject cacheJson = new JSONObject(new String(Files.readAllBytes(cacheFile), Charset.forName("UTF-8")));
+            if (!VERSION.equals(cacheJson.optString("version"))) {
+                return;
+            }
+
+            JSONObject pagesJson = cacheJson.getJSONObject("pages");
+            for (String key : pagesJson.keySet()) {
+                JSONObject pageJson = pagesJson.getJSONObject(key);
+                Set<String> pageDependencies = new TreeSet<>();
+                JSONArray dependenciesJson = pageJson.getJSONArray("dependencies");
+                for (int i = 0; i < dependenciesJson.length(); i++) {
+                    pageDependencies.add(dependenciesJson.getString(i));
+                }
+                entries.put(key, new CacheEntry(pageJson.getString("fingerprint"), pageDependencies));
+            }
+        }
+        catch (Exception e) {
+            Clog.w("Could not read build cache, all pages will be rendered: {}", e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private synchronized void save() {
+        if (!dirty || cacheDir == null) {
+            return;
+        }
+
+        JSONObject pagesJson = new JSONObject();
+        for (Map.Entry<String, CacheEntry> entry : entries.entrySet()) {
+            JSONObject pageJson = new JSONObject();
+            pageJson.put("fingerprint", entry.getValue().fingerprint);
+            pageJson.put("dependencies", new JSONArray(entry.getValue().dependencies));
+            pagesJson.put(entry.getKey(), pageJson);
+        }
+
+        JSONObject cacheJson = new JSONObject();
+        cacheJson.put("version", VERSION);
+        cacheJson.put("pages", pagesJson);
+
+        try {
+            Files.createDirectories(cacheDir);
+            Files.write(cacheDir.resolve(CACHE_FILE), cacheJson.toString().getBytes(Charset.forName("UTF-8")));
+            dirty = false;
+        }
+        catch (IOException e) {
+            Clog.w("Could not write build cache: {}", e.getMessage());
+        }
+    }
+
+    @On(Orchid.Lifecycle.ClearCache.class)
+    public void onClearCache(Orchid.Lifecycle.ClearCache event) {
+        siteHash = null;
+        dependencyHashes.clear();
+    }
+
+    /**
+     * Remove the entries of pages which were not rendered during a full build, since they have been deleted or renamed.
+     * Incremental builds only render the pages affected by their changes, and builds which rendered no pages through
+     * the cache, such as dry builds, say nothing about which pages still exist, so they are never pruned.
+     */
+    private synchronized void prune() {
+        OrchidContext context = contextProvider.get();
+        if (seenPages.isEmpty() || (context != null && context.isIncrementalBuild())) {
+            return;
+        }
+
+        if (entries.keySet().retainAll(seenPages)) {
+            dirty = true;
+        }
+    }
+
+    @On(Orchid.Lifecycle.BuildStart.class)
+    public void onBuildStart(Orchid.Lifecycle.BuildStart event) {
+        seenPages.clear();
+    }
+
+    @On(Orchid.Lifecycle.BuildFinish.class)
+    public void onBuildFinish(Orchid.Lifecycle.BuildFinish event) {
+        prune();
+        save();
+        seenPages.clear();
+    }
+
+    private static class CacheEntry {
+        private final String fingerprint;
+        private final Set<String> dependencies;
+
+        private CacheEntry(String fingerprint, Set<String> dependencies) {
+            this.fingerprint = fingerprint;
+            this.dependencies = dependencies;
+        }
+    }
+
+}
@@ -1,6 +1,10 @@
 package com.eden.orchid.api.render;
 
 import com.eden.common.util.EdenUtils;
+import com.eden.orchid.api.compilers.OrchidCompiler;
+import com.eden.orchid.api.resources.resource.FileResource;
+import com.eden.orchid.api.resources.resource.JarResource;
+import com.eden.orchid.api.resources.resource.OrchidResource;
 import com.eden.orchid.api.theme.pages.OrchidPage;
 import com.eden.orchid.utilities.OrchidUtils;
 import com.google.inject.name.Named;
@@ -8,10 +12,18 @@ import org.apache.commons.io.IOUtils;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import java.util.jar.JarEntry;
 
 public final class FileRenderer implements OrchidRenderer {
 
@@ -25,23 +37,116 @@ public final class FileRenderer implements OrchidRenderer {
     public boolean render(OrchidPage page, InputStream content) {
         boolean success;
 
-        String outputPath = OrchidUtils.normalizePath(page.getReference().getPath());
-        String outputName;
-        if(EdenUtils.isEmpty(OrchidUtils.normalizePath(page.getReference().getOutputExtension()))) {
-            outputName = OrchidUtils.normalizePath(page.getReference().getFileName());
+        Path destinationFile = prepareOutputFile(page);
+
+        try (InputStream is = content) {
+            Files.copy(is, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+            success = true;
         }
-        else {
-            outputName = OrchidUtils.normalizePath(page.getReference().getFileName()) + "." + OrchidUtils.normalizePath(page.getReference().getOutputExtension());
+        catch (Exception e) {
+            e.printStackTrace();
+            success = false;
         }
 
-        File outputFile = new File(this.destination + "/" + outputPath);
-        if (!outputFile.exists()) {
-            outputFile.mkdirs();
+        return success;
+    }
+
+    @Override
+    public boolean render(OrchidPage page, ContentWriter content) {
+        boolean success;
+
+        Path destinationFile = prepareOutputFile(page);
+
+        // render to a temporary file first, so a page which fails to render doesn't replace its last good output
+        Path tempFile = destinationFile.resolveSibling("." + destinationFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, Charset.forName("UTF-8"))) {
+                content.writeTo(writer);
+            }
+            moveIntoPlace(tempFile, destinationFile);
+            success = true;
+        }
+        catch (Exception e) {
+            try {
+                Files.deleteIfExists(tempFile);
+            }
+            catch (IOException deleteException) {
+                deleteException.printStackTrace();
+            }
+
+            // the compiler has already reported the error, so the page is written with its uncompiled source instead
+            if (e instanceof OrchidCompiler.CompilationFailedException) {
+                String source = ((OrchidCompiler.CompilationFailedException) e).getSource();
+                return render(page, IOUtils.toInputStream(source, Charset.forName("UTF-8")));
+            }
+
+            e.printStackTrace();
+            success = false;
+        }
+
+        return success;
+    }
+
+    private void moveIntoPlace(Path tempFile, Path destinationFile) throws IOException {
+        try {
+            Files.move(tempFile, destinationFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Files on disk and in jars are copied without reading them into memory. The copy keeps the modification time of
+     * its source, so a file is only copied again once its size or modification time change.
+     */
+    @Override
+    public boolean copy(OrchidPage page, OrchidResource resource) {
+        if (resource instanceof FileResource && ((FileResource) resource).getFile() != null) {
+            return copyFile(page, ((FileResource) resource).getFile().toPath());
+        }
+        else if (resource instanceof JarResource && ((JarResource) resource).getJarEntry() != null) {
+            return copyJarEntry(page, (JarResource) resource);
         }
 
+        return render(page, resource.getContentStream());
+    }
+
+    private boolean copyFile(OrchidPage page, Path sourceFile) {
+        boolean success;
+
+        Path destinationFile = prepareOutputFile(page);
+
+        try {
+            if (!isUpToDate(destinationFile, Files.size(sourceFile), Files.getLastModifiedTime(sourceFile).toMillis())) {
+                Files.copy(sourceFile, destinationFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            success = true;
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            success = false;
+        }
+
+        return success;
+    }
+
+    private boolean copyJarEntry(OrchidPage page, JarResource resource) {
+        boolean success;
+
+        Path destinationFile = prepareOutputFile(page);
+        JarEntry jarEntry = resource.getJarEntry();
+
         try {
-            Path destinationFile = Paths.get(this.destination + "/" + outputPath + "/" + outputName);
-            Files.write(destinationFile, IOUtils.toByteArray(content));
+            if (!isUpToDate(destinationFile, jarEntry.getSize(), jarEntry.getTime())) {
+                try (InputStream is = resource.getContentStream()) {
+                    Files.copy(is, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                if (jarEntry.getTime() > 0) {
+                    Files.setLastModifiedTime(destinationFile, FileTime.fromMillis(jarEntry.getTime()));
+                }
+            }
             success = true;
         }
         catch (Exception e) {
@@ -52,4 +157,38 @@ public final class FileRenderer implements OrchidRenderer {
         return success;
     }
 
+    private boolean isUpToDate(Path destinationFile, long size, long lastModified) throws IOException {
+        return size >= 0
+                && lastModified > 0
+                && Files.isRegularFile(destinationFile)
+                && Files.size(destinationFile) == size
+                && Files.getLastModifiedTime(destinationFile).toMillis() == lastModified;
+    }
+
+    private Path prepareOutputFile(OrchidPage page) {
+        Path destinationFile = getOutputFile(destination, page);
+        File outputFile = destinationFile.getParent().toFile();
+        if (!outputFile.exists()) {
+            outputFile.mkdirs();
+        }
+        return destinationFile;
+    }
+
+    static Path getOutputFile(String destination, OrchidPage page) {
+        return Paths.get(destination + "/" + getOutputPath(page));
+    }
+
+    static String getOutputPath(OrchidPage page) {
+        String outputPath = OrchidUtils.normalizePath(page.getReference().getPath());
+        String outputName;
+        if(EdenUtils.isEmpty(OrchidUtils.normalizePath(page.getReference().getOutputExtension()))) {
+            outputName = OrchidUtils.normalizePath(page.getReference().getFileName());
+        }
+        else {
+            outputName = OrchidUtils.normalizePath(page.getReference().getFileName()) + "." + OrchidUtils.normalizePath(page.getReference().getOutputExtension());
+        }
+
+        return OrchidUtils.normalizePath(outputPath + "/" + outputName);
+    }
+
 }
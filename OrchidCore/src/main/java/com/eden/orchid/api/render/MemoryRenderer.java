@@ -0,0 +1,233 @@
+package com.eden.orchid.api.render;
+
+import com.caseyjbrooks.clog.Clog;
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.compilers.OrchidCompiler;
+import com.eden.orchid.api.events.On;
+import com.eden.orchid.api.events.OrchidEventListener;
+import com.eden.orchid.api.generators.BuildDependencies;
+import com.eden.orchid.api.resources.resource.OrchidResource;
+import com.eden.orchid.api.theme.Theme;
+import com.eden.orchid.api.theme.pages.OrchidPage;
+import com.eden.orchid.utilities.OrchidUtils;
+import org.apache.commons.io.IOUtils;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A renderer for the development server, which keeps pages in memory instead of writing them to disk. Rendering a page
+ * only records how it should be rendered, and the page is actually rendered the first time it is requested.
+ *
+ * The pages recorded during a build are only served once the build finishes. Until then, pages are served as they were
+ * rendered after the previous build, and pages which have not been rendered yet wait for the build to finish. Pages are
+ * rendered on the build thread, between builds, since rendering uses the theme stack and page content which are only
+ * valid then. A full build replaces every page, so pages which no longer exist are no longer served, while an
+ * incremental build only replaces the pages it rendered again.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class MemoryRenderer implements OrchidRenderer, OrchidEventListener {
+
+    private final Provider<OrchidContext> contextProvider;
+    private final BuildDependencies dependencies;
+
+    // how to render each page from the last completed build, by its output path
+    private volatile Map<String, DeferredPage> pages;
+
+    // the pages recorded by the build currently running, or null when no build is running
+    private volatile Map<String, DeferredPage> recordingPages;
+
+    @Inject
+    public MemoryRenderer(Provider<OrchidContext> contextProvider, BuildDependencies dependencies) {
+        this.contextProvider = contextProvider;
+        this.dependencies = dependencies;
+        this.pages = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean render(OrchidPage page, InputStream content) {
+        // the stream can only be read once, so it must be read now
+        final byte[] bytes;
+        try (InputStream is = content) {
+            bytes = IOUtils.toByteArray(is);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        return defer(page, () -> bytes);
+    }
+
+    @Override
+    public boolean render(OrchidPage page, ContentWriter content) {
+        return defer(page, () -> {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(os, Charset.forName("UTF-8"))) {
+                content.writeTo(writer);
+            }
+            catch (OrchidCompiler.CompilationFailedException e) {
+                // the compiler has already reported the error, so the page is served with its uncompiled source instead
+                return e.getSource().getBytes(Charset.forName("UTF-8"));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return os.toByteArray();
+        });
+    }
+
+    @Override
+    public boolean copy(OrchidPage page, OrchidResource resource) {
+        return defer(page, () -> {
+            try (InputStream is = resource.getContentStream()) {
+                return IOUtils.toByteArray(is);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private boolean defer(OrchidPage page, DeferredContent content) {
+        OrchidContext context = contextProvider.get();
+        Theme theme = (context != null) ? context.getTheme() : null;
+        Map<String, DeferredPage> recording = recordingPages;
+        ((recording != null) ? recording : pages).put(FileRenderer.getOutputPath(page), new DeferredPage(page, theme, content));
+        return true;
+    }
+
+    /**
+     * Find the page which is output at a path, rendering it if it has not been rendered yet. Pages which have not been
+     * rendered yet are only rendered once the build which is running, if any, has finished.
+     *
+     * @param path the path of the page, relative to the site root
+     * @return the rendered content of the page, or null if no page is output at that path
+     */
+    public byte[] getRendered(String path) {
+        final String normalizedPath = OrchidUtils.normalizePath(path);
+
+        // pages already rendered can be served at any time, even while the next build is running
+        DeferredPage page = pages.get(normalizedPath);
+        byte[] rendered = (page != null) ? page.rendered : null;
+        if (rendered != null) {
+            return rendered;
+        }
+
+        // anything else waits for the current build to finish, and is then rendered from the pages of that build
+        return contextProvider.get().runOnBuildThread(() -> {
+            DeferredPage currentPage = pages.get(normalizedPath);
+            return (currentPage != null) ? currentPage.getContent() : null;
+        });
+    }
+
+    /**
+     * Whether a page is output at a path.
+     *
+     * @param path the path of the page, relative to the site root
+     * @return true if a page is output at that path, false otherwise
+     */
+    public boolean hasPage(String path) {
+        return pages.containsKey(OrchidUtils.normalizePath(path));
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public void clear() {
+        pages = new ConcurrentHashMap<>();
+        recordingPages = null;
+    }
+
+    // pages are rendered one at a time, because the theme stack and the current page are shared by all threads. This is
+    // only called from the build thread while no build is running
+    private synchronized byte[] render(DeferredPage deferredPage) {
+        OrchidContext context = contextProvider.get();
+        boolean pushTheme = deferredPage.theme != null && context.getTheme() != deferredPage.theme;
+        if (pushTheme) {
+            context.pushTheme(deferredPage.theme);
+        }
+        Object previousPage = dependencies.startTracking(deferredPage.page);
+        try {
+            Clog.d("Rendering page in memory: {}", FileRenderer.getOutputPath(deferredPage.page));
+            return deferredPage.content.render();
+        }
+        finally {
+            dependencies.stopTracking(previousPage);
+            if (pushTheme) {
+                context.popTheme();
+            }
+        }
+    }
+
+    @On(Orchid.Lifecycle.BuildStart.class)
+    public void onBuildStart(Orchid.Lifecycle.BuildStart event) {
+        recordingPages = new ConcurrentHashMap<>();
+    }
+
+    @On(Orchid.Lifecycle.BuildFinish.class)
+    public void onBuildFinish(Orchid.Lifecycle.BuildFinish event) {
+        Map<String, DeferredPage> recording = recordingPages;
+        if (recording == null) {
+            return;
+        }
+
+        // pages that an incremental build did not render again were not affected by the changes, and are still valid
+        OrchidContext context = contextProvider.get();
+        if (context != null && context.isIncrementalBuild()) {
+            Map<String, DeferredPage> mergedPages = new ConcurrentHashMap<>(pages);
+            mergedPages.putAll(recording);
+            recording = mergedPages;
+        }
+
+        pages = recording;
+        recordingPages = null;
+    }
+
+    @FunctionalInterface
+    private interface DeferredContent {
+        byte[] render();
+    }
+
+    private final class DeferredPage {
+        private final OrchidPage page;
+        private final Theme theme;
+        private final DeferredContent content;
+        private volatile byte[] rendered;
+
+        private DeferredPage(OrchidPage page, Theme theme, DeferredContent content) {
+            this.page = page;
+            this.theme = theme;
+            this.content = content;
+        }
+
+        private byte[] getContent() {
+            byte[] bytes = rendered;
+            if (bytes == null) {
+                synchronized (this) {
+                    bytes = rendered;
+                    if (bytes == null) {
+                        bytes = render(this);
+                        rendered = bytes;
+                    }
+                }
+            }
+            return bytes;
+        }
+    }
+
+}
@@ -1,9 +1,17 @@
 package com.eden.orchid.api.render;
 
+import com.eden.orchid.api.compilers.OrchidCompiler;
+import com.eden.orchid.api.resources.resource.OrchidResource;
 import com.eden.orchid.api.theme.pages.OrchidPage;
 import com.google.inject.ImplementedBy;
+import org.apache.commons.io.IOUtils;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
 
 @ImplementedBy(FileRenderer.class)
 public interface OrchidRenderer {
@@ -20,4 +28,57 @@ public interface OrchidRenderer {
      */
     boolean render(OrchidPage page, InputStream content);
 
+    /**
+     * Internal representation of a 'render' operation on text content which is written as it is rendered, producing a
+     * side-effect as the intended final output. Renderers should override this to pass their final destination to
+     * `content` directly; by default, the content is rendered in memory and passed to
+     * {@link #render(OrchidPage, InputStream)}.
+     *
+     * @param page the page to render
+     * @param content writes the rendered page content
+     * @return true if the page was successfully rendered, false otherwise
+     *
+     * @since v1.0.0
+     */
+    default boolean render(OrchidPage page, ContentWriter content) {
+        StringWriter writer = new StringWriter();
+        try {
+            content.writeTo(writer);
+        }
+        catch (OrchidCompiler.CompilationFailedException e) {
+            // the compiler has already reported the error, so the page is rendered with its uncompiled source instead
+            return render(page, IOUtils.toInputStream(e.getSource(), Charset.forName("UTF-8")));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return render(page, IOUtils.toInputStream(writer.toString(), Charset.forName("UTF-8")));
+    }
+
+    /**
+     * Internal representation of a 'render' operation which copies the contents of a resource unchanged, producing a
+     * side-effect as the intended final output. Renderers may override this to copy files without reading them into
+     * memory, or to skip copying files that have not changed; by default, the resource's content stream is passed to
+     * {@link #render(OrchidPage, InputStream)}.
+     *
+     * @param page the page to render
+     * @param resource the resource whose contents should be copied
+     * @return true if the page was successfully rendered, false otherwise
+     *
+     * @since v1.0.0
+     */
+    default boolean copy(OrchidPage page, OrchidResource resource) {
+        return render(page, resource.getContentStream());
+    }
+
+    /**
+     * Writes the rendered content of a page as it is being rendered.
+     *
+     * @since v1.0.0
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
+
 }
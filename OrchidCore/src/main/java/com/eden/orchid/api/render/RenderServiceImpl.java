@@ -2,16 +2,26 @@
 package com.eden.orchid.api.render;
 
 import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.generators.BuildDependencies;
 import com.eden.orchid.api.options.annotations.BooleanDefault;
 import com.eden.orchid.api.options.annotations.Description;
+import com.eden.orchid.api.options.annotations.IntDefault;
 import com.eden.orchid.api.options.annotations.Option;
+import com.eden.orchid.api.options.annotations.StringDefault;
 import com.eden.orchid.api.resources.resource.InlineResource;
+import com.eden.orchid.api.tasks.TaskService;
 import com.eden.orchid.api.theme.assets.AssetPage;
+import com.eden.orchid.api.theme.assets.AssetPipeline;
+import com.eden.orchid.api.theme.assets.ThumbnailCache;
 import com.eden.orchid.api.theme.pages.OrchidPage;
+import com.eden.orchid.api.theme.pages.PageContentCache;
 import org.apache.commons.io.IOUtils;
 import javax.inject.Inject;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.util.function.Supplier;
 
 /**
@@ -22,6 +32,12 @@ import java.util.function.Supplier;
 public class RenderServiceImpl implements RenderService {
     protected OrchidContext context;
     protected OrchidRenderer renderer;
+    protected MemoryRenderer memoryRenderer;
+    protected BuildDependencies dependencies;
+    protected BuildCache buildCache;
+    protected ThumbnailCache thumbnailCache;
+    protected AssetPipeline assetPipeline;
+    protected PageContentCache contentCache;
     @Option
     @BooleanDefault(false)
     @Description("On a dry run, pages are indexed but not rendered.")
@@ -30,11 +46,57 @@ public class RenderServiceImpl implements RenderService {
     @BooleanDefault(false)
     @Description("Normally, draft pages are not rendered along with the rest of the site, but this behavior can be turned off by setting this value to `true`.")
     public boolean includeDrafts;
+    @Option
+    @BooleanDefault(false)
+    @Description("Keep a record of what went into rendering each page, and skip rendering pages whose source files, front matter, templates, theme, and site config have not changed since the previous build. The record is kept in `buildCacheDir` between builds, and pages whose output files are missing are always rendered.")
+    public boolean useBuildCache;
+    @Option
+    @StringDefault(".orchid-cache")
+    @Description("The directory where the build cache is kept between builds, relative to the working directory. This should be outside the site's source directory.")
+    public String buildCacheDir;
+    @Option
+    @BooleanDefault(false)
+    @Description("Keep resized, scaled, and rotated images in `buildCacheDir` between builds, so images are only transformed again when their source image or transformations change.")
+    public boolean useThumbnailCache;
+    @Option
+    @IntDefault(256)
+    @Description("The maximum size of the cached images, in megabytes. The least-recently used images are removed once the cache grows past this size.")
+    public int thumbnailCacheSize;
+    @Option
+    @IntDefault(0)
+    @Description("When greater than 0, images and other binary assets are copied and transformed on this many background threads while pages continue to render. All assets are finished before the build completes.")
+    public int assetThreads;
+    @Option
+    @BooleanDefault(false)
+    @Description("Remove comments and unnecessary whitespace from CSS and Javascript assets.")
+    public boolean minifyAssets;
+    @Option
+    @BooleanDefault(false)
+    @Description("Add a hash of their content to the filenames of CSS and Javascript assets, so they can be served with far-future cache headers. An asset's URL changes whenever its content does.")
+    public boolean fingerprintAssets;
+    @Option
+    @BooleanDefault(false)
+    @Description("Combine the consecutive CSS and Javascript assets of each page into as few files as possible. Stylesheets are only combined with others in the same directory, and scripts only with others that are loaded the same way.")
+    public boolean bundleAssets;
+    @Option
+    @IntDefault(0)
+    @Description("When greater than 0, the compiled content of pages is limited to about this many megabytes of memory. Pages used least recently have their content dropped once the limit is reached, and compiled again if it is needed later. By default, each page keeps its compiled content until the page has been rendered.")
+    public int contentCacheSize;
+    @Option
+    @BooleanDefault(false)
+    @Description("When serving the site, keep pages in memory instead of writing them to disk. Pages are still indexed up front, but each page is only rendered the first time it is requested, and rendered again after its files change. Pages and assets are not written to the destination directory in this mode.")
+    public boolean serveFromMemory;
 
     @Inject
-    public RenderServiceImpl(OrchidContext context, OrchidRenderer renderer) {
+    public RenderServiceImpl(OrchidContext context, OrchidRenderer renderer, MemoryRenderer memoryRenderer, BuildDependencies dependencies, BuildCache buildCache, ThumbnailCache thumbnailCache, AssetPipeline assetPipeline, PageContentCache contentCache) {
         this.context = context;
         this.renderer = renderer;
+        this.memoryRenderer = memoryRenderer;
+        this.dependencies = dependencies;
+        this.buildCache = buildCache;
+        this.thumbnailCache = thumbnailCache;
+        this.assetPipeline = assetPipeline;
+        this.contentCache = contentCache;
     }
 
     @Override
@@ -42,6 +104,17 @@ public class RenderServiceImpl implements RenderService {
         this.context = context;
     }
 
+    @Override
+    public void onPostExtraction() {
+        if (useBuildCache) {
+            buildCache.setCacheDir(Paths.get(buildCacheDir));
+        }
+        thumbnailCache.configure(useThumbnailCache ? Paths.get(buildCacheDir, "thumbnails") : null, thumbnailCacheSize * 1024L * 1024L);
+        context.getAssetManager().setAssetThreads(assetThreads);
+        assetPipeline.configure(minifyAssets, fingerprintAssets, bundleAssets);
+        contentCache.setMaxSize(contentCacheSize * 1024L * 1024L);
+    }
+
     @Override
     public final InputStream getRenderedTemplate(OrchidPage page) {
         page.setCurrent(true);
@@ -52,7 +125,13 @@ public class RenderServiceImpl implements RenderService {
 
     @Override
     public final boolean renderTemplate(final OrchidPage page) {
-        return renderInternal(page, () -> getRenderedTemplate(page));
+        return renderInternal(page, () -> getRenderer().render(page, writer -> writeRenderedTemplate(page, writer)));
+    }
+
+    final void writeRenderedTemplate(OrchidPage page, Writer writer) throws IOException {
+        page.setCurrent(true);
+        page.renderInLayout(writer);
+        page.setCurrent(false);
     }
 
     @Override
@@ -65,7 +144,13 @@ public class RenderServiceImpl implements RenderService {
 
     @Override
     public final boolean renderString(final OrchidPage page, final String extension, final String templateString) {
-        return renderInternal(page, () -> getRenderedString(page, extension, templateString));
+        return renderInternal(page, () -> getRenderer().render(page, writer -> writeRenderedString(page, extension, templateString, writer)));
+    }
+
+    final void writeRenderedString(OrchidPage page, String extension, String templateString, Writer writer) throws IOException {
+        page.setCurrent(true);
+        context.compile(extension, templateString, page, writer);
+        page.setCurrent(false);
     }
 
     @Override
@@ -82,7 +167,17 @@ public class RenderServiceImpl implements RenderService {
 
     @Override
     public final boolean renderRaw(final OrchidPage page) {
-        return renderInternal(page, () -> getRenderedRaw(page));
+        return renderInternal(page, () -> getRenderer().render(page, writer -> writeRenderedRaw(page, writer)));
+    }
+
+    final void writeRenderedRaw(OrchidPage page, Writer writer) throws IOException {
+        page.setCurrent(true);
+        String content = page.getResource().getContent();
+        if (page.getResource().shouldPrecompile()) {
+            content = context.compile(page.getResource().getPrecompilerExtension(), content, page);
+        }
+        context.compile(page.getResource().getReference().getExtension(), content, page, writer);
+        page.setCurrent(false);
     }
 
     @Override
@@ -95,7 +190,12 @@ public class RenderServiceImpl implements RenderService {
 
     @Override
     public final boolean renderBinary(final OrchidPage page) {
-        return renderInternal(page, () -> getRenderedBinary(page));
+        return renderInternal(page, () -> {
+            page.setCurrent(true);
+            boolean success = getRenderer().copy(page, page.getResource());
+            page.setCurrent(false);
+            return success;
+        });
     }
 
     @Override
@@ -166,6 +266,18 @@ public class RenderServiceImpl implements RenderService {
         }
     }
 
+    /**
+     * Pages are kept in memory and rendered when they are requested while serving the site with `serveFromMemory`, and
+     * are otherwise rendered right away.
+     */
+    OrchidRenderer getRenderer() {
+        return isServingFromMemory() ? memoryRenderer : renderer;
+    }
+
+    boolean isServingFromMemory() {
+        return serveFromMemory && memoryRenderer != null && context.getTaskType() == TaskService.TaskType.SERVE;
+    }
+
     InputStream toStream(String content) {
         try {
             return IOUtils.toInputStream(content, Charset.forName("UTF-8"));
@@ -178,12 +290,26 @@ public class RenderServiceImpl implements RenderService {
         return dry || (page.isDraft() && !includeDrafts) || !page.shouldRender();
     }
 
-    boolean renderInternal(OrchidPage page, Supplier<InputStream> factory) {
+    boolean renderInternal(OrchidPage page, Supplier<Boolean> render) {
         long startTime = System.currentTimeMillis();
         long stopTime;
         boolean result = false;
         if (!skipPage(page)) {
-            result = renderer.render(page, factory.get());
+            // pages served from memory are only recorded here, so they are never up-to-date in the build cache
+            boolean cacheable = useBuildCache && !isServingFromMemory();
+            if (cacheable && buildCache.isUpToDate(page)) {
+                result = true;
+            } else {
+                Object previousPage = dependencies.startTracking(page);
+                try {
+                    result = render.get();
+                } finally {
+                    dependencies.stopTracking(previousPage);
+                }
+                if (cacheable && result) {
+                    buildCache.update(page);
+                }
+            }
         }
         stopTime = System.currentTimeMillis();
         context.onPageGenerated(page, stopTime - startTime);
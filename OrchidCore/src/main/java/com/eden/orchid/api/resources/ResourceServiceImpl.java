@@ -8,6 +8,7 @@ import com.eden.orchid.api.compilers.OrchidParser;
 import com.eden.orchid.api.events.On;
 import com.eden.orchid.api.events.OrchidEventListener;
 import com.eden.orchid.api.options.annotations.Description;
+import com.eden.orchid.api.options.annotations.IntDefault;
 import com.eden.orchid.api.options.annotations.Option;
 import com.eden.orchid.api.options.annotations.StringDefault;
 import com.eden.orchid.api.resources.resource.ExternalResource;
@@ -17,9 +18,8 @@ import com.eden.orchid.api.resources.resourcesource.LocalResourceSource;
 import com.eden.orchid.api.resources.resourcesource.OrchidResourceSource;
 import com.eden.orchid.api.resources.resourcesource.PluginResourceSource;
 import com.eden.orchid.api.theme.pages.OrchidReference;
-import com.eden.orchid.utilities.LRUCache;
+import com.eden.orchid.utilities.ConcurrentLRUCache;
 import com.eden.orchid.utilities.OrchidUtils;
-import com.eden.orchid.utilities.CacheKt;
 import com.google.inject.name.Named;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -58,12 +58,16 @@ public final class ResourceServiceImpl implements ResourceService, OrchidEventLi
     private final List<LocalResourceSource> fileResourceSources;
     private final List<PluginResourceSource> pluginResourceSources;
     private final OkHttpClient client;
-    private final LRUCache<ResourceCacheKey, OrchidResource> resourceCache;
+    private final ConcurrentLRUCache<ResourceCacheKey, OrchidResource> resourceCache;
     private final String resourcesDir;
     @Option
     @StringDefault({".DS_store", ".localized"})
     @Description("A list of filenames to globally filter out files from being sourced. Should be used primarily for ignoring pesky hidden or system files that are not intended to be used as site content.")
     private String[] ignoredFilenames;
+    @Option
+    @IntDefault(250)
+    @Description("The maximum number of resource lookups to keep cached during a build. Large sites with many templates and assets may want to increase this.")
+    private int cacheSize;
 
     @Inject
     public ResourceServiceImpl(@Named("src") String resourcesDir, Set<LocalResourceSource> fileResourceSources, Set<PluginResourceSource> pluginResourceSources, OkHttpClient client) {
@@ -71,7 +75,7 @@ public final class ResourceServiceImpl implements ResourceService, OrchidEventLi
         this.pluginResourceSources = pluginResourceSources.stream().sorted().collect(Collectors.toList());
         this.client = client;
         this.resourcesDir = resourcesDir;
-        this.resourceCache = new LRUCache<>();
+        this.resourceCache = new ConcurrentLRUCache<>();
     }
 
     @Override
@@ -79,6 +83,11 @@ public final class ResourceServiceImpl implements ResourceService, OrchidEventLi
         this.context = context;
     }
 
+    @Override
+    public void onPostExtraction() {
+        resourceCache.setMaxSize(cacheSize);
+    }
+
 // Load many datafiles into a single map
 //----------------------------------------------------------------------------------------------------------------------
     @Override
@@ -140,7 +149,7 @@ public final class ResourceServiceImpl implements ResourceService, OrchidEventLi
     @Override
     public OrchidResource getLocalResourceEntry(final String fileName) {
         final ResourceCacheKey key = new ResourceCacheKey(fileName, "LOCAL", context.getTheme().getKey(), context.getTheme().hashCode());
-        return CacheKt.computeIfAbsent(resourceCache, key, () -> {
+        return resourceCache.computeIfAbsent(key, () -> {
             return fileResourceSources.stream().map(source -> source.getResourceEntry(fileName)).filter(Objects::nonNull).findFirst().orElse(null);
         });
     }
@@ -148,7 +157,7 @@ public final class ResourceServiceImpl implements ResourceService, OrchidEventLi
     @Override
     public OrchidResource getThemeResourceEntry(final String fileName) {
         final ResourceCacheKey key = new ResourceCacheKey(fileName, "THEME", context.getTheme().getKey(), context.getTheme().hashCode());
-        return CacheKt.computeIfAbsent(resourceCache, key, () -> {
+        return resourceCache.computeIfAbsent(key, () -> {
             return context.getTheme().getResourceEntry(fileName);
         });
     }
@@ -156,7 +165,7 @@ public final class ResourceServiceImpl implements ResourceService, OrchidEventLi
     @Override
     public OrchidResource getResourceEntry(final String fileName) {
         final ResourceCacheKey key = new ResourceCacheKey(fileName, "ALL", context.getTheme().getKey(), context.getTheme().hashCode());
-        return CacheKt.computeIfAbsent(resourceCache, key, () -> {
+        return resourceCache.computeIfAbsent(key, () -> {
             OrchidResource resource = null;
             // If the fileName looks like an external resource, return a Resource pointing to that resource
             if (OrchidUtils.isExternal(fileName)) {
@@ -61,6 +61,10 @@ public final class FileResource extends FreeableResource  {
         return filePath;
     }
 
+    public File getFile() {
+        return file;
+    }
+
     @Override
     public InputStream getContentStream() {
         try {
@@ -15,26 +15,40 @@ import java.util.Map;
  */
 public abstract class FreeableResource extends OrchidResource {
 
+    // the raw content that `content` and `embeddedData` were parsed from, so the embedded data is only parsed again once
+    // the raw content has been freed and loaded again, or replaced
+    private String parsedRawContent;
+
     public FreeableResource(OrchidReference reference) {
         super(reference);
     }
 
     protected void loadContent() {
         if(rawContent != null) {
-            EdenPair<String, Map<String, Object>> parsedContent = reference.getContext().getEmbeddedData(reference.getExtension(), rawContent);
-            this.content = parsedContent.first;
-            this.embeddedData = new JSONElement(new JSONObject(parsedContent.second));
+            if(rawContent != parsedRawContent) {
+                EdenPair<String, Map<String, Object>> parsedContent = reference.getContext().getEmbeddedData(reference.getExtension(), rawContent);
+                this.content = parsedContent.first;
+                this.embeddedData = new JSONElement(new JSONObject(parsedContent.second));
+                // the precompiler only finds embedded data in content it would process, so the content doesn't need to
+                // be checked again
+                this.precompileCheck = parsedContent.second != null;
+                this.parsedRawContent = rawContent;
+            }
         }
         else {
             this.rawContent = "";
             this.content = "";
             this.embeddedData = null;
+            this.precompileCheck = false;
+            this.parsedRawContent = rawContent;
         }
     }
 
     public void free() {
         rawContent = null;
         content = null;
+        precompileCheck = null;
+        parsedRawContent = null;
     }
 
     @Override
@@ -50,6 +50,10 @@ public final class JarResource extends FreeableResource {
         super.loadContent();
     }
 
+    public JarEntry getJarEntry() {
+        return jarEntry;
+    }
+
     @Override
     public InputStream getContentStream() {
         try {
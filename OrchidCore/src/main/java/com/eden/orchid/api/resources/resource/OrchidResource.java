@@ -10,6 +10,7 @@ import org.json.JSONObject;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.nio.charset.Charset;
 
 /**
@@ -31,6 +32,9 @@ public abstract class OrchidResource {
 
     protected boolean shouldRender = true;
 
+    // whether the precompiler should process the raw content, or null when the current raw content hasn't been checked
+    protected volatile Boolean precompileCheck;
+
     public OrchidResource(OrchidReference reference) {
         if (reference == null) {
             throw new IllegalArgumentException("A resource must have a valid OrchidReference");
@@ -55,7 +59,15 @@ public abstract class OrchidResource {
             return ((JSONObject) data.getElement()).getBoolean("precompile");
         }
 
-        return context.resolve(OrchidPrecompiler.class).shouldPrecompile(reference.getExtension(), getRawContent());
+        // get the raw content first, since loading it may also check it
+        String rawContent = getRawContent();
+        Boolean check = precompileCheck;
+        if(check == null) {
+            check = context.resolve(OrchidPrecompiler.class).shouldPrecompile(reference.getExtension(), rawContent);
+            precompileCheck = check;
+        }
+
+        return check;
     }
 
     public boolean shouldRender() {
@@ -89,6 +101,23 @@ public abstract class OrchidResource {
         }
     }
 
+    public void compileContent(Object data, Writer output) throws IOException {
+        if (!EdenUtils.isEmpty(getContent())) {
+            String compiledContent = getContent();
+
+            if (shouldPrecompile()) {
+                compiledContent = context.compile(getPrecompilerExtension(), compiledContent, data);
+            }
+
+            context.compile(
+                    getReference().getExtension(),
+                    compiledContent,
+                    data,
+                    output
+            );
+        }
+    }
+
     public String getPrecompilerExtension() {
         JSONElement data = getEmbeddedData();
         if(EdenUtils.elementIsObject(data) && ((JSONObject) data.getElement()).has("precompileAs")) {
@@ -154,6 +183,7 @@ public abstract class OrchidResource {
 
     public void setRawContent(String rawContent) {
         this.rawContent = rawContent;
+        this.precompileCheck = null;
     }
 
     public void setContent(String content) {
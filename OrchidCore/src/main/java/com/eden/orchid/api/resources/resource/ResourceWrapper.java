@@ -6,6 +6,7 @@ import com.eden.orchid.api.theme.pages.OrchidReference;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 
 /**
  * A Resource type that wraps another resource, optionally applying a transformation along the way.
@@ -19,6 +20,10 @@ public class ResourceWrapper extends FreeableResource {
         this.resource = resource;
     }
 
+    public OrchidResource getResource() {
+        return resource;
+    }
+
     @Override
     public OrchidContext getContext() {
         return resource.getContext();
@@ -99,6 +104,11 @@ public class ResourceWrapper extends FreeableResource {
         return resource.compileContent(data);
     }
 
+    @Override
+    public void compileContent(Object data, Writer output) throws IOException {
+        resource.compileContent(data, output);
+    }
+
     @Override
     public String getPrecompilerExtension() {
         return resource.getPrecompilerExtension();
@@ -1,17 +1,21 @@
 package com.eden.orchid.api.server;
 
 import com.caseyjbrooks.clog.Clog;
+import com.eden.common.util.EdenUtils;
 import com.eden.orchid.Orchid;
 import com.eden.orchid.api.OrchidContext;
 import com.sun.nio.file.SensitivityWatchEventModifier;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardWatchEventKinds;
@@ -19,23 +23,77 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Watches a directory for changes, and broadcasts a {@link Orchid.Lifecycle.FilesChanged} event for them. Changes are
+ * collected until no more changes have been made for a short quiet period, so that a burst of changes, such as an
+ * editor saving several files, is broadcast as a single event with each changed file listed only once. Changes to the
+ * site's destination directory, or to files matching any ignored glob, are not broadcast.
+ */
 public class FileWatcher {
 
+    // a batch of changes is broadcast after at most this many quiet periods, even if changes keep being made
+    private static final int MAX_BATCH_QUIET_PERIODS = 20;
+
     private final OrchidContext context;
+    private final String destinationDir;
     private WatchService watcher;
     private Map<WatchKey, Path> keys;
+    private Path root;
+    private Path destination;
+    private long quietPeriod = 250;
+    private List<PathMatcher> ignoredPaths = new ArrayList<>();
+
+    // changes which have not been broadcast yet
+    private final Set<Path> pendingChanges = new HashSet<>();
+    private boolean pendingOverflow;
+    private long firstPendingChange;
 
     @Inject
-    public FileWatcher(OrchidContext context) {
+    public FileWatcher(OrchidContext context, @Named("dest") String destinationDir) {
         this.context = context;
+        this.destinationDir = destinationDir;
+    }
+
+    /**
+     * Set how long to wait after a change for more changes, before broadcasting all of them together.
+     *
+     * @param quietPeriod the time to wait for more changes, in milliseconds
+     */
+    public void setQuietPeriod(long quietPeriod) {
+        this.quietPeriod = Math.max(quietPeriod, 0);
+    }
+
+    /**
+     * Set the globs of files whose changes are not broadcast. Globs are matched against a file's path relative to the
+     * watched directory, and also against its filename.
+     *
+     * @param globs the globs of files to ignore
+     */
+    public void setIgnoredGlobs(Collection<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        if (globs != null) {
+            for (String glob : globs) {
+                if (!EdenUtils.isEmpty(glob)) {
+                    matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+                }
+            }
+        }
+        this.ignoredPaths = matchers;
     }
 
     public void startWatching(String rootDir) {
         try {
-            Path root = Paths.get(rootDir);
+            root = Paths.get(rootDir).toAbsolutePath().normalize();
+            destination = !EdenUtils.isEmpty(destinationDir) ? Paths.get(destinationDir).toAbsolutePath().normalize() : null;
             watcher = FileSystems.getDefault().newWatchService();
             keys = new HashMap<>();
             registerAll(root);
@@ -46,6 +104,17 @@ public class FileWatcher {
         }
     }
 
+    public void stopWatching() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     private void register(Path dir) throws IOException {
         WatchKey key = dir.register(watcher, new WatchEvent.Kind[]{
                 StandardWatchEventKinds.ENTRY_CREATE,
@@ -60,6 +129,9 @@ public class FileWatcher {
             @Override
             public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
                     throws IOException {
+                if (!dir.equals(root) && isIgnored(dir.toAbsolutePath().normalize())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
                 register(dir);
                 return FileVisitResult.CONTINUE;
             }
@@ -71,9 +143,21 @@ public class FileWatcher {
 
             WatchKey key;
             try {
-                key = watcher.take();
+                if (hasPendingChanges()) {
+                    // wait for the quiet period to pass, but don't wait forever if changes keep coming
+                    long maxWait = firstPendingChange + (quietPeriod * MAX_BATCH_QUIET_PERIODS) - System.currentTimeMillis();
+                    long wait = Math.min(quietPeriod, maxWait);
+                    key = (wait > 0) ? watcher.poll(wait, TimeUnit.MILLISECONDS) : null;
+                    if (key == null) {
+                        broadcastPendingChanges();
+                        continue;
+                    }
+                }
+                else {
+                    key = watcher.take();
+                }
             }
-            catch (InterruptedException x) {
+            catch (InterruptedException | ClosedWatchServiceException x) {
                 return;
             }
 
@@ -86,15 +170,21 @@ public class FileWatcher {
             for (WatchEvent<?> event : key.pollEvents()) {
                 WatchEvent.Kind kind = event.kind();
 
+                // events were dropped, so we can't know exactly what changed and everything must be rebuilt
                 if (kind == StandardWatchEventKinds.OVERFLOW) {
+                    addPendingChange(null);
                     continue;
                 }
 
                 WatchEvent<Path> ev = (WatchEvent<Path>) event;
                 Path name = ev.context();
-                Path child = dir.resolve(name);
+                Path child = dir.resolve(name).toAbsolutePath().normalize();
+
+                if (isIgnored(child)) {
+                    continue;
+                }
 
-                context.broadcast(Orchid.Lifecycle.FilesChanged.fire(this));
+                addPendingChange(child);
 
                 if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
                     try {
@@ -112,10 +202,62 @@ public class FileWatcher {
             if (!valid) {
                 keys.remove(key);
                 if (keys.isEmpty()) {
+                    broadcastPendingChanges();
                     break;
                 }
             }
         }
     }
 
+// Batching changes
+//----------------------------------------------------------------------------------------------------------------------
+
+    private boolean hasPendingChanges() {
+        return pendingOverflow || !pendingChanges.isEmpty();
+    }
+
+    private void addPendingChange(Path changedFile) {
+        if (!hasPendingChanges()) {
+            firstPendingChange = System.currentTimeMillis();
+        }
+        if (changedFile != null) {
+            pendingChanges.add(changedFile);
+        }
+        else {
+            pendingOverflow = true;
+        }
+    }
+
+    private void broadcastPendingChanges() {
+        Set<Path> changedFiles = new HashSet<>(pendingChanges);
+        boolean overflowed = pendingOverflow;
+        pendingChanges.clear();
+        pendingOverflow = false;
+
+        if (overflowed) {
+            context.broadcast(Orchid.Lifecycle.FilesChanged.fire(this));
+        }
+        else if (!changedFiles.isEmpty()) {
+            context.broadcast(Orchid.Lifecycle.FilesChanged.fire(this, changedFiles));
+        }
+    }
+
+    private boolean isIgnored(Path file) {
+        if (destination != null && file.startsWith(destination)) {
+            return true;
+        }
+        if (ignoredPaths.isEmpty()) {
+            return false;
+        }
+
+        Path relativePath = file.startsWith(root) ? root.relativize(file) : file;
+        Path fileName = file.getFileName();
+        for (PathMatcher ignoredPath : ignoredPaths) {
+            if (ignoredPath.matches(relativePath) || (fileName != null && ignoredPath.matches(fileName))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
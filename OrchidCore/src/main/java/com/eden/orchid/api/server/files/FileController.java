@@ -1,6 +1,7 @@
 package com.eden.orchid.api.server.files;
 
 import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.render.MemoryRenderer;
 import com.eden.orchid.api.server.OrchidFileController;
 import com.eden.orchid.api.server.OrchidResponse;
 import com.google.inject.name.Named;
@@ -22,6 +23,7 @@ public final class FileController implements OrchidFileController {
     private NotFound404Response notFound404Response;
     private FaviconResponse faviconResponse;
     private AdminAssetResponse adminAssetResponse;
+    private MemoryRenderer memoryRenderer;
 
     private final String destination;
 
@@ -33,13 +35,15 @@ public final class FileController implements OrchidFileController {
             IndexFileResponse indexFileResponse,
             NotFound404Response notFound404Response,
             FaviconResponse faviconResponse,
-            AdminAssetResponse adminAssetResponse) {
+            AdminAssetResponse adminAssetResponse,
+            MemoryRenderer memoryRenderer) {
         this.context = context;
         this.staticFileResponse = staticFileResponse;
         this.indexFileResponse = indexFileResponse;
         this.notFound404Response = notFound404Response;
         this.faviconResponse = faviconResponse;
         this.adminAssetResponse = adminAssetResponse;
+        this.memoryRenderer = memoryRenderer;
 
         this.destination = destination;
     }
@@ -53,6 +57,11 @@ public final class FileController implements OrchidFileController {
             return faviconResponse.getResponse(targetPath);
         }
 
+        OrchidResponse memoryPage = findPageInMemory(targetPath);
+        if(memoryPage != null) {
+            return memoryPage;
+        }
+
         File targetFile = new File(rootFolder, targetPath);
 
         if (targetFile.exists()) {
@@ -81,4 +90,27 @@ public final class FileController implements OrchidFileController {
             }
         }
     }
+
+    // pages kept in memory while serving the site take precedence over any files left in the destination directory
+    private OrchidResponse findPageInMemory(String targetPath) {
+        if(memoryRenderer == null || memoryRenderer.getPageCount() == 0) {
+            return null;
+        }
+
+        String pagePath = StringUtils.strip(targetPath, "/");
+        byte[] content = memoryRenderer.getRendered(pagePath);
+        if(content != null) {
+            return staticFileResponse.getResponse(content, pagePath);
+        }
+
+        for (String indexFile : indexFiles) {
+            String indexPath = (pagePath.isEmpty()) ? indexFile : pagePath + "/" + indexFile;
+            content = memoryRenderer.getRendered(indexPath);
+            if (content != null) {
+                return staticFileResponse.getResponse(content, indexPath);
+            }
+        }
+
+        return null;
+    }
 }
@@ -7,6 +7,7 @@ import fi.iki.elonen.NanoHTTPD;
 import org.apache.commons.io.FilenameUtils;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.util.HashMap;
@@ -35,7 +36,7 @@ public final class StaticFileResponse {
     }
 
     public OrchidResponse getResponse(File targetFile, String targetPath) {
-        String mimeType = mimeTypes.getOrDefault(FilenameUtils.getExtension(targetFile.getName()), NanoHTTPD.getMimeTypeForFile(targetFile.getName()));
+        String mimeType = getMimeType(targetFile.getName());
 
         Clog.i("Rendering File: #{$1}", targetPath);
         try {
@@ -47,4 +48,15 @@ public final class StaticFileResponse {
             return new OrchidResponse(context).content("Something went wrong opening file: " + targetPath);
         }
     }
+
+    public OrchidResponse getResponse(byte[] content, String targetPath) {
+        Clog.i("Rendering Page: #{$1}", targetPath);
+        return new OrchidResponse(context)
+                .contentStream(new ByteArrayInputStream(content), content.length)
+                .mimeType(getMimeType(FilenameUtils.getName(targetPath)));
+    }
+
+    private String getMimeType(String fileName) {
+        return mimeTypes.getOrDefault(FilenameUtils.getExtension(fileName), NanoHTTPD.getMimeTypeForFile(fileName));
+    }
 }
@@ -3,6 +3,10 @@ package com.eden.orchid.api.tasks;
 import com.eden.orchid.api.OrchidService;
 import com.google.inject.ImplementedBy;
 
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Supplier;
+
 /**
  * @since v1.0.0
  * @orchidApi services
@@ -30,6 +34,29 @@ public interface TaskService extends OrchidService {
         getService(TaskService.class).build();
     }
 
+    /**
+     * Rebuild the site after the given files have changed. When possible, only the generators and pages affected by
+     * those files are indexed and rendered again, otherwise this runs a full build.
+     *
+     * @param changedFiles the files that have changed since the last build
+     */
+    default void build(Collection<Path> changedFiles) {
+        getService(TaskService.class).build(changedFiles);
+    }
+
+    /**
+     * Run a task on the build thread, once no build is running. Builds requested while the task runs are started after
+     * it finishes. This lets other threads, such as the development server, safely use state that is only valid between
+     * builds, such as the theme stack and the contents of pages.
+     *
+     * @param task the task to run
+     * @param <T> the type of result from the task
+     * @return the result of the task
+     */
+    default <T> T runOnBuildThread(Supplier<T> task) {
+        return getService(TaskService.class).runOnBuildThread(task);
+    }
+
     default void watch() {
         getService(TaskService.class).watch();
     }
@@ -2,14 +2,17 @@
 package com.eden.orchid.api.tasks;
 
 import com.caseyjbrooks.clog.Clog;
+import com.eden.common.util.EdenUtils;
 import com.eden.orchid.Orchid;
 import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.events.On;
 import com.eden.orchid.api.events.OrchidEvent;
 import com.eden.orchid.api.events.OrchidEventListener;
+import com.eden.orchid.api.options.annotations.BooleanDefault;
 import com.eden.orchid.api.options.annotations.Description;
 import com.eden.orchid.api.options.annotations.IntDefault;
 import com.eden.orchid.api.options.annotations.Option;
+import com.eden.orchid.api.options.annotations.StringDefault;
 import com.eden.orchid.api.server.FileWatcher;
 import com.eden.orchid.api.server.OrchidServer;
 import com.eden.orchid.utilities.OrchidUtils;
@@ -17,10 +20,22 @@ import com.google.inject.name.Named;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * @since v1.0.0
@@ -38,11 +53,29 @@ public final class TaskServiceImpl implements TaskService, OrchidEventListener {
     private final String resourcesDir;
     private final int port;
     private TaskType taskType;
-    private long lastBuild;
+    private volatile long lastBuild;
+    private final Set<Path> pendingChangedFiles;
+    private boolean pendingFullBuild;
+    // only one build runs at a time, and changes made while it runs are built right after it finishes
+    private final ReentrantLock buildLock;
+    private final ScheduledExecutorService buildScheduler;
+    private ScheduledFuture<?> trailingBuild;
     @Option
     @IntDefault(1)
-    @Description("The minimum time, in seconds, to wait in between builds.")
+    @Description("The minimum time, in seconds, to wait in between builds. Changes made sooner are built once this time has passed.")
     private int watchDebounceTimeout;
+    @Option
+    @IntDefault(250)
+    @Description("While watching or serving the site, the time in milliseconds to wait for more changes after a file changes. All files changed within this time are built together.")
+    private int watchQuietPeriod;
+    @Option
+    @StringDefault({"*.swp", "*.swx", "*.tmp", "*~", ".#*", ".DS_Store"})
+    @Description("Globs of files to ignore while watching or serving the site, such as temporary files made by editors. Globs are matched against both the path relative to the source directory and the filename. The destination directory is always ignored.")
+    private String[] watchIgnore;
+    @Option
+    @BooleanDefault(true)
+    @Description("When files change while watching or serving the site, only index and render the generators and pages affected by those files. Changes that can't be traced to specific pages, such as to templates or config files, always run a full build.")
+    private boolean incrementalBuilds;
 
     @Inject
     public TaskServiceImpl(Set<OrchidTask> tasks, Set<OrchidCommand> commands, @Named("task") String task, @Named("src") String resourcesDir, @Named("port") int port, OrchidServer server, FileWatcher watcher) {
@@ -54,6 +87,13 @@ public final class TaskServiceImpl implements TaskService, OrchidEventListener {
         this.resourcesDir = resourcesDir;
         this.port = port;
         this.lastBuild = 0;
+        this.pendingChangedFiles = new HashSet<>();
+        this.buildLock = new ReentrantLock();
+        this.buildScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "orchid-build");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -117,41 +157,151 @@ public final class TaskServiceImpl implements TaskService, OrchidEventListener {
 
     @Override
     public void build() {
-        if (!Orchid.getInstance().getState().isBuildState()) {
-            long secondsSinceLastBuild = (System.currentTimeMillis() - lastBuild) / 1000;
-            if (secondsSinceLastBuild > watchDebounceTimeout) {
-                Orchid.getInstance().setState(Orchid.State.BUILD_PREP);
-                context.broadcast(Orchid.Lifecycle.BuildStart.fire(this));
-                initOptions();
-                context.clearThemes();
-                context.pushTheme(context.getDefaultTheme());
-                if (taskType == TaskType.SERVE) {
-                    context.clearAdminThemes();
-                    context.pushAdminTheme(context.getDefaultAdminTheme());
+        build(Collections.emptySet());
+    }
+
+    @Override
+    public void build(Collection<Path> changedFiles) {
+        // remember every change until it has been built, so changes made while a build is running or waiting to run are
+        // included in the next build rather than being dropped
+        synchronized (pendingChangedFiles) {
+            if (EdenUtils.isEmpty(changedFiles)) {
+                pendingFullBuild = true;
+            } else {
+                pendingChangedFiles.addAll(changedFiles);
+            }
+        }
+        long millisUntilNextBuild = (lastBuild + (watchDebounceTimeout * 1000L)) - System.currentTimeMillis();
+        if (millisUntilNextBuild > 0) {
+            scheduleTrailingBuild(millisUntilNextBuild);
+        } else {
+            runPendingBuilds();
+        }
+    }
+
+    private void scheduleTrailingBuild(long delay) {
+        synchronized (pendingChangedFiles) {
+            if (trailingBuild == null || trailingBuild.isDone()) {
+                Clog.d("Build scheduled in {}ms", delay);
+                trailingBuild = buildScheduler.schedule(this::runScheduledBuilds, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private boolean hasPendingBuild() {
+        synchronized (pendingChangedFiles) {
+            return pendingFullBuild || !pendingChangedFiles.isEmpty();
+        }
+    }
+
+    /**
+     * Build until there are no more pending changes. If another thread is already building, this returns immediately,
+     * and that thread builds these changes once its current build finishes.
+     */
+    private void runPendingBuilds() {
+        // a build requested while building, such as from an event handler, is run when the current build finishes
+        if (buildLock.isHeldByCurrentThread()) {
+            return;
+        }
+        while (hasPendingBuild() && buildLock.tryLock()) {
+            try {
+                if (hasPendingBuild()) {
+                    runBuild();
+                }
+            } finally {
+                buildLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Run pending builds on the build scheduler. Nothing waits on the result of these builds, so errors are reported
+     * here rather than being left in the Future.
+     */
+    private void runScheduledBuilds() {
+        try {
+            runPendingBuilds();
+        } catch (Exception e) {
+            Clog.e("Something went wrong building Orchid", e);
+        }
+    }
+
+    @Override
+    public <T> T runOnBuildThread(Supplier<T> task) {
+        if (buildLock.isHeldByCurrentThread()) {
+            return task.get();
+        }
+        Future<T> result = buildScheduler.submit(() -> {
+            buildLock.lock();
+            try {
+                return task.get();
+            } finally {
+                buildLock.unlock();
+                // builds requested while the task held the lock were left for whoever holds it, so start them now
+                if (hasPendingBuild()) {
+                    buildScheduler.execute(this::runScheduledBuilds);
                 }
-                Clog.i("Build Starting...");
-                Orchid.getInstance().setState(Orchid.State.INDEXING);
-                context.broadcast(Orchid.Lifecycle.IndexingStart.fire(this));
-                context.startIndexing();
-                context.broadcast(Orchid.Lifecycle.IndexingFinish.fire(this));
-                Orchid.getInstance().setState(Orchid.State.BUILDING);
-                context.broadcast(Orchid.Lifecycle.GeneratingStart.fire(this));
-                context.startGeneration();
-                context.broadcast(Orchid.Lifecycle.GeneratingFinish.fire(this));
-                Clog.tag("\nBuild Metrics").log("\n{}", context.getBuildDetail().print(OrchidUtils.defaultTableFormatter));
-                Clog.noTag().log("Build Complete");
-                Clog.noTag().log(context.getBuildSummary() + "\n");
-                context.broadcast(Orchid.Lifecycle.BuildFinish.fire(this));
-                lastBuild = System.currentTimeMillis();
-                Orchid.getInstance().setState(Orchid.State.IDLE);
             }
+        });
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Error while running task on the build thread", e.getCause());
+        }
+    }
+
+    private void runBuild() {
+        final Set<Path> buildChangedFiles = new HashSet<>();
+        synchronized (pendingChangedFiles) {
+            if (!pendingFullBuild) {
+                buildChangedFiles.addAll(pendingChangedFiles);
+            }
+            pendingChangedFiles.clear();
+            pendingFullBuild = false;
+        }
+        Orchid.getInstance().setState(Orchid.State.BUILD_PREP);
+        context.broadcast(Orchid.Lifecycle.BuildStart.fire(this));
+        initOptions();
+        context.clearThemes();
+        context.pushTheme(context.getDefaultTheme());
+        if (taskType == TaskType.SERVE) {
+            context.clearAdminThemes();
+            context.pushAdminTheme(context.getDefaultAdminTheme());
+        }
+        Clog.i("Build Starting...");
+        Orchid.getInstance().setState(Orchid.State.INDEXING);
+        context.broadcast(Orchid.Lifecycle.IndexingStart.fire(this));
+        if (incrementalBuilds && !buildChangedFiles.isEmpty() && context.startIndexing(buildChangedFiles)) {
+            Clog.i("Rebuilding pages affected by {} changed file(s)", buildChangedFiles.size());
         } else {
-            Clog.e("Build already in progress, skipping.");
+            context.startIndexing();
         }
+        context.broadcast(Orchid.Lifecycle.IndexingFinish.fire(this));
+        Orchid.getInstance().setState(Orchid.State.BUILDING);
+        context.broadcast(Orchid.Lifecycle.GeneratingStart.fire(this));
+        context.startGeneration();
+        context.getAssetManager().awaitAssets();
+        context.broadcast(Orchid.Lifecycle.GeneratingFinish.fire(this));
+        Clog.tag("\nBuild Metrics").log("\n{}", context.getBuildDetail().print(OrchidUtils.defaultTableFormatter));
+        Clog.noTag().log("Build Complete");
+        Clog.noTag().log(context.getBuildSummary() + "\n");
+        context.broadcast(Orchid.Lifecycle.BuildFinish.fire(this));
+        lastBuild = System.currentTimeMillis();
+        Orchid.getInstance().setState(Orchid.State.IDLE);
     }
 
     @Override
     public void watch() {
+        watcher.setQuietPeriod(watchQuietPeriod);
+        watcher.setIgnoredGlobs((watchIgnore != null) ? Arrays.asList(watchIgnore) : Collections.emptyList());
         watcher.startWatching(resourcesDir);
     }
 
@@ -184,7 +334,7 @@ public final class TaskServiceImpl implements TaskService, OrchidEventListener {
         if (server != null && server.getWebsocket() != null) {
             server.getWebsocket().sendMessage("Files Changed", "");
         }
-        context.build();
+        context.build(event.getChangedFiles());
     }
 
     @On(Orchid.Lifecycle.BuildFinish.class)
@@ -204,7 +354,7 @@ public final class TaskServiceImpl implements TaskService, OrchidEventListener {
         System.exit(0);
     }
 
-    @On(value = OrchidEvent.class, subclasses = true)
+    @On(value = OrchidEvent.class, subclasses = true, async = true)
     public void onAnyEvent(OrchidEvent event) {
         if (server != null && server.getWebsocket() != null) {
             server.getWebsocket().sendMessage(event.getType(), event.toString());
@@ -225,4 +375,14 @@ public final class TaskServiceImpl implements TaskService, OrchidEventListener {
     public void setWatchDebounceTimeout(final int watchDebounceTimeout) {
         this.watchDebounceTimeout = watchDebounceTimeout;
     }
+
+    @java.lang.SuppressWarnings("all")
+    public boolean isIncrementalBuilds() {
+        return this.incrementalBuilds;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setIncrementalBuilds(final boolean incrementalBuilds) {
+        this.incrementalBuilds = incrementalBuilds;
+    }
 }
@@ -2,6 +2,8 @@ package com.eden.orchid.api.theme.assets;
 
 import com.google.inject.ImplementedBy;
 
+import java.util.List;
+
 @ImplementedBy(DefaultAssetManager.class)
 public interface AssetManager {
 
@@ -10,4 +12,40 @@ public interface AssetManager {
     AssetPage addAsset(AssetPage asset, boolean renderImmediately);
     void clearAssets();
 
+    /**
+     * Render assets on a pool of background threads as they are added, instead of on the thread that added them.
+     *
+     * @param assetThreads the number of threads to render assets on, or 0 to render them as they are added
+     */
+    default void setAssetThreads(int assetThreads) {
+
+    }
+
+    /**
+     * Block until every asset that was added so far has been rendered.
+     */
+    default void awaitAssets() {
+
+    }
+
+    /**
+     * Combine the styles of a page into as few stylesheets as possible.
+     *
+     * @param styles the styles of a page
+     * @return the styles to add to the page
+     */
+    default List<CssPage> bundleStyles(List<CssPage> styles) {
+        return styles;
+    }
+
+    /**
+     * Combine the scripts of a page into as few scripts as possible.
+     *
+     * @param scripts the scripts of a page
+     * @return the scripts to add to the page
+     */
+    default List<JsPage> bundleScripts(List<JsPage> scripts) {
+        return scripts;
+    }
+
 }
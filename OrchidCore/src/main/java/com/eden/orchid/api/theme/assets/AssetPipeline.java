@@ -0,0 +1,256 @@
+package com.eden.orchid.api.theme.assets;
+
+import com.caseyjbrooks.clog.Clog;
+import com.eden.common.util.EdenUtils;
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.resources.resource.ExternalResource;
+import com.eden.orchid.api.resources.resource.InlineResource;
+import com.eden.orchid.api.resources.resource.OrchidResource;
+import com.eden.orchid.api.resources.resource.StringResource;
+import com.eden.orchid.api.theme.pages.OrchidReference;
+import com.eden.orchid.utilities.OrchidUtils;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Processes CSS and Javascript assets after they are added to the {@link AssetManager} and before they are rendered.
+ * Each asset is compiled once, its compiled content is optionally run through the registered {@link AssetProcessor}s
+ * to minify it, and its filename is optionally suffixed with a hash of its content so that it can be served with
+ * far-future cache headers. The processed assets of a page can also be combined into bundles, so that pages request a
+ * single stylesheet or script in place of each of the theme's, page's, and components' assets.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class AssetPipeline {
+
+    private static final int HASH_LENGTH = 10;
+
+    private final Provider<OrchidContext> context;
+    private final Set<AssetProcessor> processors;
+
+    // the processed assets, so that bundles only include assets whose content has already been compiled
+    private final Set<AssetPage> processedAssets;
+    private final Map<String, AssetPage> bundles;
+
+    private boolean minify;
+    private boolean fingerprint;
+    private boolean bundle;
+
+    @Inject
+    public AssetPipeline(Provider<OrchidContext> context, Set<AssetProcessor> processors) {
+        this.context = context;
+        this.processors = new TreeSet<>(processors);
+        this.processedAssets = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        this.bundles = new ConcurrentHashMap<>();
+    }
+
+    public void configure(boolean minify, boolean fingerprint, boolean bundle) {
+        this.minify = minify;
+        this.fingerprint = fingerprint;
+        this.bundle = bundle;
+    }
+
+    public boolean isEnabled() {
+        return minify || fingerprint || bundle;
+    }
+
+    public void clear() {
+        processedAssets.clear();
+        bundles.clear();
+    }
+
+// Process individual assets
+//----------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Compile, minify, and fingerprint a CSS or Javascript asset, replacing its resource with the processed content.
+     * Other assets, inline assets, and external assets that are not downloaded are left unchanged.
+     *
+     * @param asset the asset to process
+     * @return true if the asset was processed
+     */
+    public boolean process(AssetPage asset) {
+        if (!isEnabled() || !canProcess(asset)) {
+            return false;
+        }
+
+        OrchidContext context = this.context.get();
+        OrchidResource resource = asset.getResource();
+        String content = resource.getContent();
+        if (resource.shouldPrecompile()) {
+            content = context.compile(resource.getPrecompilerExtension(), content, asset);
+        }
+        content = context.compile(resource.getReference().getExtension(), content, asset);
+        if (content == null) {
+            return false;
+        }
+
+        String outputExtension = asset.getReference().getOutputExtension();
+        if (minify) {
+            for (AssetProcessor processor : processors) {
+                if (processor.accepts(outputExtension)) {
+                    content = processor.process(asset, content);
+                }
+            }
+        }
+
+        // the asset's reference already has its output extension, so the processed content is not compiled again
+        asset.setResource(new StringResource(content, new OrchidReference(asset.getReference())));
+        if (fingerprint) {
+            asset.getReference().setFileName(asset.getReference().getFileName() + "." + hash(content));
+        }
+        processedAssets.add(asset);
+
+        return true;
+    }
+
+    private boolean canProcess(AssetPage asset) {
+        if (!(asset instanceof CssPage || asset instanceof JsPage)) {
+            return false;
+        }
+
+        OrchidResource resource = asset.getResource();
+        if (resource instanceof InlineResource) {
+            return false;
+        }
+        else if (resource instanceof ExternalResource) {
+            return ((ExternalResource) resource).isDownload();
+        }
+
+        return true;
+    }
+
+// Bundle assets
+//----------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Combine each run of consecutive processed stylesheets into a single stylesheet. Stylesheets are only combined
+     * with others from the same directory, so that relative URLs within them still resolve, and stylesheets with
+     * `@import` rules are never combined, since those rules are only valid at the start of a stylesheet.
+     *
+     * @param styles the styles of a page, in the order they are added to the page
+     * @return the bundled styles
+     */
+    public List<CssPage> bundleStyles(List<CssPage> styles) {
+        return bundleAssets(
+                styles,
+                style -> style.getReference().getPath(),
+                style -> style.getResource().getContent().contains("@import") ? null : style.getReference().getPath(),
+                "\n",
+                "css",
+                (first, resource) -> new CssPage(this, "bundle", resource, "bundle", null)
+        );
+    }
+
+    /**
+     * Combine each run of consecutive processed scripts that are loaded the same way into a single script.
+     *
+     * @param scripts the scripts of a page, in the order they are added to the page
+     * @return the bundled scripts
+     */
+    public List<JsPage> bundleScripts(List<JsPage> scripts) {
+        return bundleAssets(
+                scripts,
+                script -> script.isAsync() + "/" + script.isDefer(),
+                script -> "assets/bundles",
+                ";\n",
+                "js",
+                (first, resource) -> {
+                    JsPage bundle = new JsPage(this, "bundle", resource, "bundle", null);
+                    bundle.setAsync(first.isAsync());
+                    bundle.setDefer(first.isDefer());
+                    return bundle;
+                }
+        );
+    }
+
+    private <T extends AssetPage> List<T> bundleAssets(
+            List<T> assets,
+            Function<T, String> groupKey,
+            Function<T, String> bundlePath,
+            String separator,
+            String extension,
+            BiFunction<T, OrchidResource, T> creator) {
+        if (!bundle || assets.size() < 2) {
+            return assets;
+        }
+
+        List<T> bundledAssets = new ArrayList<>();
+        List<T> run = new ArrayList<>();
+        String runKey = null;
+        for (T asset : assets) {
+            String path = processedAssets.contains(asset) ? bundlePath.apply(asset) : null;
+            String key = (path != null) ? groupKey.apply(asset) : null;
+            if (key == null || !key.equals(runKey)) {
+                addBundle(bundledAssets, run, bundlePath, separator, extension, creator);
+                run.clear();
+            }
+            if (key != null) {
+                run.add(asset);
+            }
+            else {
+                bundledAssets.add(asset);
+            }
+            runKey = key;
+        }
+        addBundle(bundledAssets, run, bundlePath, separator, extension, creator);
+
+        return bundledAssets;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends AssetPage> void addBundle(
+            List<T> bundledAssets,
+            List<T> run,
+            Function<T, String> bundlePath,
+            String separator,
+            String extension,
+            BiFunction<T, OrchidResource, T> creator) {
+        if (run.size() < 2) {
+            bundledAssets.addAll(run);
+            return;
+        }
+
+        String bundleKey = run.stream().map(asset -> asset.getReference().toString()).collect(Collectors.joining("\n"));
+        T bundle = (T) bundles.get(bundleKey);
+        if (bundle == null) {
+            // the bundle is built outside of the map, since rendering it may need to look up other bundles
+            String content = run.stream().map(asset -> asset.getResource().getContent()).collect(Collectors.joining(separator));
+            String path = bundlePath.apply(run.get(0));
+            OrchidReference reference = new OrchidReference(context.get(), (EdenUtils.isEmpty(path) ? "" : path + "/") + "bundle." + hash(content) + "." + extension);
+            T bundlePage = creator.apply(run.get(0), new StringResource(content, reference));
+
+            // when two pages build the same bundle at once, only the first one is rendered and used
+            bundle = (T) bundles.putIfAbsent(bundleKey, bundlePage);
+            if (bundle == null) {
+                bundle = bundlePage;
+                context.get().renderAsset(bundlePage);
+                Clog.d("Bundled {} assets into {}", run.size() + "", bundlePage.getReference().toString());
+            }
+        }
+        bundledAssets.add(bundle);
+    }
+
+    private String hash(String content) {
+        try {
+            return OrchidUtils.sha1(content).substring(0, HASH_LENGTH);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.eden.orchid.api.theme.assets;
+
+import com.eden.orchid.api.registration.Prioritized;
+import com.eden.orchid.api.server.annotations.Extensible;
+
+/**
+ * An AssetProcessor transforms the compiled content of CSS and Javascript assets before they are written, such as to
+ * minify them. When assets are processed by the {@link AssetPipeline}, every AssetProcessor that accepts the asset's
+ * output extension is run on its content, in order from highest priority to low.
+ *
+ * @since v1.0.0
+ * @orchidApi extensible
+ */
+@Extensible
+public abstract class AssetProcessor extends Prioritized {
+
+    /**
+     * Initialize the AssetProcessor with a set priority. Processors with a higher priority are run first when multiple
+     * processors accept the same output extension.
+     *
+     * @param priority priority
+     *
+     * @since v1.0.0
+     */
+    public AssetProcessor(int priority) {
+        super(priority);
+    }
+
+    /**
+     * Get the list of output extensions this AssetProcessor is able to process.
+     *
+     * @return the output extensions this AssetProcessor can process
+     *
+     * @since v1.0.0
+     */
+    public abstract String[] getOutputExtensions();
+
+    /**
+     * Process the compiled content of an asset.
+     *
+     * @param asset the asset being processed
+     * @param content the compiled content of the asset
+     * @return the processed content
+     *
+     * @since v1.0.0
+     */
+    public abstract String process(AssetPage asset, String content);
+
+    public final boolean accepts(String outputExtension) {
+        for (String extension : getOutputExtensions()) {
+            if (extension.equalsIgnoreCase(outputExtension)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -1,26 +1,48 @@
 package com.eden.orchid.api.theme.assets;
 
+import com.caseyjbrooks.clog.Clog;
 import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.generators.BuildMetrics;
 import com.eden.orchid.api.resources.resource.OrchidResource;
 import com.eden.orchid.impl.themes.functions.ThumbnailResource;
 import com.google.inject.Provider;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Singleton
 public final class DefaultAssetManager implements AssetManager {
 
     private final Provider<OrchidContext> context;
+    private final Provider<BuildMetrics> metrics;
+    private final ThumbnailCache thumbnailCache;
+    private final AssetPipeline pipeline;
 
-    private final Map<String, AssetPage> assets;
+    // assets are only published once they have been processed, so other pages never see them without their final link
+    private final Map<String, CompletableFuture<AssetPage>> assets;
+    private final Queue<Future<?>> pendingAssets;
+    private ThreadPoolExecutor executor;
 
     @Inject
-    public DefaultAssetManager(Provider<OrchidContext> context) {
+    public DefaultAssetManager(Provider<OrchidContext> context, Provider<BuildMetrics> metrics, ThumbnailCache thumbnailCache, AssetPipeline pipeline) {
         this.context = context;
-        this.assets = new HashMap<>();
+        this.metrics = metrics;
+        this.thumbnailCache = thumbnailCache;
+        this.pipeline = pipeline;
+        this.assets = new ConcurrentHashMap<>();
+        this.pendingAssets = new ConcurrentLinkedQueue<>();
     }
 
     @Override
@@ -29,7 +51,7 @@ public final class DefaultAssetManager implements AssetManager {
         if (originalResource != null) {
             // don't render the asset immediately. Allow the template to apply transformations to the asset, and it will be
             // rendered lazily when the link for the asset is requested (or not at all if it is never used)
-            return new AssetPage(source, sourceKey, new ThumbnailResource(originalResource), "thumbnail", originalResource.getTitle());
+            return new AssetPage(source, sourceKey, new ThumbnailResource(originalResource, thumbnailCache), "thumbnail", originalResource.getTitle());
         }
 
         return null;
@@ -38,8 +60,9 @@ public final class DefaultAssetManager implements AssetManager {
     @Override
     public AssetPage getActualAsset(AssetPage asset) {
         final String assetKey = asset.getReference().toString();
-        if(assets.containsKey(assetKey)) {
-            return assets.get(assetKey);
+        CompletableFuture<AssetPage> actualAsset = assets.get(assetKey);
+        if(actualAsset != null) {
+            return actualAsset.join();
         }
         else {
             return null;
@@ -47,29 +70,134 @@ public final class DefaultAssetManager implements AssetManager {
     }
 
     // Assets should only make it here if it passes the check in a local AssetHolderDelegate, so we don't need to check
-    // again. Go ahead and render it now so we can free its resources, and eventually implement an asset pipeline from
-    // this point. Inline resources are rendered directly into the page, and should not be rendered as a proper resource
+    // again. Run it through the asset pipeline and render it now so we can free its resources. Inline resources are
+    // rendered directly into the page, and should not be rendered as a proper resource
     @Override
     public AssetPage addAsset(AssetPage asset, boolean renderImmediately) {
         final String assetKey = asset.getReference().toString();
-        if(assets.containsKey(assetKey)) {
-            return assets.get(assetKey);
+        CompletableFuture<AssetPage> addedAsset = new CompletableFuture<>();
+        CompletableFuture<AssetPage> existingAsset = assets.putIfAbsent(assetKey, addedAsset);
+        if(existingAsset != null) {
+            // wait for whoever added the asset first to finish processing it
+            return existingAsset.join();
         }
-        else {
-            assets.put(assetKey, asset);
-            if(renderImmediately) {
-                context.get().renderAsset(asset);
+
+        try {
+            // fingerprinted assets are also registered by their new filename, so their links find the processed asset
+            if(pipeline.process(asset)) {
+                assets.putIfAbsent(asset.getReference().toString(), addedAsset);
             }
+            addedAsset.complete(asset);
+        }
+        catch (RuntimeException | Error e) {
+            assets.remove(assetKey, addedAsset);
+            addedAsset.completeExceptionally(e);
+            throw e;
+        }
 
-            return asset;
+        if(renderImmediately) {
+            renderAsset(asset);
         }
+
+        return asset;
     }
 
     @Override
     public void clearAssets() {
+        awaitAssets();
         assets.clear();
+        pipeline.clear();
+    }
+
+    @Override
+    public List<CssPage> bundleStyles(List<CssPage> styles) {
+        return pipeline.bundleStyles(styles);
+    }
+
+    @Override
+    public List<JsPage> bundleScripts(List<JsPage> scripts) {
+        return pipeline.bundleScripts(scripts);
+    }
+
+// Render queue
+//----------------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public synchronized void setAssetThreads(int assetThreads) {
+        if(executor != null && executor.getCorePoolSize() == assetThreads) {
+            return;
+        }
+
+        if(executor != null) {
+            awaitAssets();
+            executor.shutdown();
+            executor = null;
+        }
+
+        if(assetThreads > 0) {
+            // once the queue is full, assets are rendered by the thread that added them until the workers catch up
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = new ThreadPoolExecutor(
+                    assetThreads,
+                    assetThreads,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(assetThreads * 64),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "orchid-assets-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy()
+            );
+        }
+    }
+
+    @Override
+    public void awaitAssets() {
+        boolean drained = false;
+        Future<?> pendingAsset;
+        while((pendingAsset = pendingAssets.poll()) != null) {
+            drained = true;
+            try {
+                pendingAsset.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (ExecutionException e) {
+                Clog.e("Failed to render asset", e.getCause());
+            }
+        }
+
+        // the queue is also drained when assets are cleared, so the rendering time is only stopped once per batch
+        if(drained) {
+            metrics.get().stopRenderingAssets();
+        }
     }
 
+    // Binary assets are only copied or transformed, so they can be written in the background while pages are
+    // rendered. Other assets may be compiled with the current theme, which is not safe to use from another thread.
+    private void renderAsset(AssetPage asset) {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = this.executor;
+        }
 
+        OrchidContext context = this.context.get();
+        if(executor != null && context.isBinaryExtension(asset.getReference().getOutputExtension())) {
+            pendingAssets.add(executor.submit(() -> renderAsset(context, asset)));
+        }
+        else {
+            renderAsset(context, asset);
+        }
+    }
+
+    private void renderAsset(OrchidContext context, AssetPage asset) {
+        long startTime = System.currentTimeMillis();
+        context.renderAsset(asset);
+        metrics.get().onAssetRendered(System.currentTimeMillis() - startTime);
+    }
 
 }
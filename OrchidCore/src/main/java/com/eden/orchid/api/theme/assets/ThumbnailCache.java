@@ -0,0 +1,242 @@
+package com.eden.orchid.api.theme.assets;
+
+import com.caseyjbrooks.clog.Clog;
+import com.eden.orchid.api.resources.resource.FileResource;
+import com.eden.orchid.api.resources.resource.OrchidResource;
+import com.eden.orchid.utilities.OrchidUtils;
+
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A cache of transformed images kept on disk between builds. Each image is stored under a hash of its source image's
+ * contents and the transformations applied to it, so an image is only transformed again when its source or its
+ * transformations have changed. The cache is limited to a maximum total size, and the least-recently used images are
+ * removed when it grows past that size.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class ThumbnailCache {
+
+    private static final String EXTENSION = ".bin";
+
+    // the files in the cache directory, from least- to most-recently used
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, .75f, true);
+    private final Map<String, String> sourceHashes = new ConcurrentHashMap<>();
+    private Path cacheDir;
+    private long maxSize;
+    private long size;
+
+    /**
+     * Set the directory that images are cached in, and the maximum size of that directory.
+     *
+     * @param cacheDir the directory to cache images in, or null to disable the cache
+     * @param maxSize the maximum total size of the cached images, in bytes
+     */
+    public synchronized void configure(Path cacheDir, long maxSize) {
+        this.maxSize = maxSize;
+        if (cacheDir == null || !cacheDir.equals(this.cacheDir)) {
+            this.cacheDir = cacheDir;
+            this.entries.clear();
+            this.size = 0;
+            if (cacheDir != null) {
+                load();
+            }
+        }
+        evict();
+    }
+
+    public synchronized boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Get a transformed image from the cache, transforming it and adding it to the cache if it is not there already.
+     *
+     * @param source the resource with the original image
+     * @param transformations a description of every transformation applied to the image, including its output format
+     * @param transform creates a stream of the transformed image
+     * @return a stream of the transformed image
+     */
+    public InputStream get(OrchidResource source, String transformations, Supplier<InputStream> transform) {
+        if (!isEnabled()) {
+            return transform.get();
+        }
+
+        String sourceHash = hashSource(source);
+        if (sourceHash == null) {
+            return transform.get();
+        }
+
+        String key;
+        try {
+            key = OrchidUtils.sha1(sourceHash + "\n" + transformations);
+        }
+        catch (Exception e) {
+            return transform.get();
+        }
+
+        Path cachedFile = getCachedFile(key);
+        if (cachedFile != null) {
+            try {
+                return Files.newInputStream(cachedFile);
+            }
+            catch (IOException e) {
+                Clog.d("Could not read cached image {}: {}", cachedFile, e.getMessage());
+            }
+        }
+
+        return put(key, transform);
+    }
+
+    private synchronized Path getCachedFile(String key) {
+        if (cacheDir != null && entries.get(key) != null) {
+            Path cachedFile = cacheDir.resolve(key + EXTENSION);
+            if (Files.exists(cachedFile)) {
+                try {
+                    // the modified time keeps the order images were used in between builds
+                    Files.setLastModifiedTime(cachedFile, FileTime.fromMillis(System.currentTimeMillis()));
+                }
+                catch (IOException e) {
+                    Clog.d("Could not update cached image {}: {}", cachedFile, e.getMessage());
+                }
+                return cachedFile;
+            }
+            size -= entries.remove(key);
+        }
+
+        return null;
+    }
+
+    private InputStream put(String key, Supplier<InputStream> transform) {
+        Path cacheDir;
+        synchronized (this) {
+            cacheDir = this.cacheDir;
+        }
+        InputStream transformedImage = transform.get();
+        if (cacheDir == null || transformedImage == null) {
+            return transformedImage;
+        }
+
+        Path cachedFile = cacheDir.resolve(key + EXTENSION);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tempFile = Files.createTempFile(cacheDir, key, ".tmp");
+            try (InputStream is = transformedImage) {
+                Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(tempFile, cachedFile, StandardCopyOption.REPLACE_EXISTING);
+
+            synchronized (this) {
+                Long previousSize = entries.put(key, Files.size(cachedFile));
+                size += entries.get(key) - ((previousSize != null) ? previousSize : 0);
+                evict();
+            }
+
+            return Files.newInputStream(cachedFile);
+        }
+        catch (IOException e) {
+            Clog.w("Could not cache transformed image: {}", e.getMessage());
+            deleteQuietly(tempFile);
+            return transform.get();
+        }
+    }
+
+    // must be called while holding the lock
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            try {
+                Files.deleteIfExists(cacheDir.resolve(entry.getKey() + EXTENSION));
+            }
+            catch (IOException e) {
+                Clog.d("Could not remove cached image {}: {}", entry.getKey(), e.getMessage());
+            }
+            size -= entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    // must be called while holding the lock
+    private void load() {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : files.filter(it -> it.getFileName().toString().endsWith(EXTENSION)).sorted(Comparator.comparingLong(this::getLastModified)).collect(Collectors.toList())) {
+                String fileName = file.getFileName().toString();
+                long fileSize = Files.size(file);
+                entries.put(fileName.substring(0, fileName.length() - EXTENSION.length()), fileSize);
+                size += fileSize;
+            }
+        }
+        catch (IOException e) {
+            Clog.w("Could not read thumbnail cache: {}", e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+        catch (IOException e) {
+            Clog.d("Could not remove {}: {}", file, e.getMessage());
+        }
+    }
+
+    private long getLastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        }
+        catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Source images are identified by a hash of their contents. Files on disk are usually the source of many images,
+     * so their hash is only computed again once their size or modified time changes.
+     */
+    private String hashSource(OrchidResource source) {
+        try {
+            if (source instanceof FileResource && ((FileResource) source).getFile() != null) {
+                File file = ((FileResource) source).getFile();
+                String fileKey = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+                String hash = sourceHashes.get(fileKey);
+                if (hash == null) {
+                    hash = OrchidUtils.sha1(file);
+                    sourceHashes.put(fileKey, hash);
+                }
+                return hash;
+            }
+
+            InputStream is = source.getContentStream();
+            return (is != null) ? OrchidUtils.sha1(is) : null;
+        }
+        catch (Exception e) {
+            Clog.d("Could not hash source image {}: {}", source.getReference(), e.getMessage());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.eden.orchid.api.theme.menus;
+
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.events.On;
+import com.eden.orchid.api.events.OrchidEventListener;
+
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the menu items created by menu item factories which do not depend on the page the menu is on, so that a menu
+ * shown on every page of the site is only created once per build. Menu items are shared by every factory of the same
+ * type with the same options, and are created again once the cache is cleared at the start of the next build.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class MenuCache implements OrchidEventListener {
+
+    private final Map<CacheKey, List<MenuItem>> menuItems = new ConcurrentHashMap<>();
+
+    /**
+     * Get the menu items from a factory, creating them only if the factory depends on the containing page or its menu
+     * items have not been created yet during this build.
+     *
+     * @param factory the factory to get menu items from
+     * @return the menu items from the factory
+     */
+    public List<MenuItem> getMenuItems(OrchidMenuFactory factory) {
+        if (factory.isDependentOnPage()) {
+            return factory.getMenuItems();
+        }
+
+        CacheKey key = new CacheKey(factory.getClass(), factory.getAllData());
+        List<MenuItem> items = menuItems.get(key);
+        if (items == null) {
+            // create the menu items outside of the map, since a factory may create other menus
+            items = Collections.unmodifiableList(factory.getMenuItems());
+            List<MenuItem> previousItems = menuItems.putIfAbsent(key, items);
+            if (previousItems != null) {
+                items = previousItems;
+            }
+        }
+        return items;
+    }
+
+    public int size() {
+        return menuItems.size();
+    }
+
+    public void clear() {
+        menuItems.clear();
+    }
+
+    @On(Orchid.Lifecycle.ClearCache.class)
+    public void onClearCache(Orchid.Lifecycle.ClearCache event) {
+        clear();
+    }
+
+    private static final class CacheKey {
+        private final Class<?> factoryClass;
+        private final Map<String, Object> options;
+        private final int hashCode;
+
+        private CacheKey(Class<?> factoryClass, Map<String, Object> options) {
+            this.factoryClass = factoryClass;
+            this.options = options;
+            this.hashCode = Objects.hash(factoryClass, options);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return factoryClass == cacheKey.factoryClass && Objects.equals(options, cacheKey.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+}
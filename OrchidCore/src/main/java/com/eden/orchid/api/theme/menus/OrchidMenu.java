@@ -9,9 +9,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 public final class OrchidMenu extends ModularPageList<OrchidMenu, OrchidMenuFactory> {
+    private final MenuCache menuCache;
+
     @Inject
-    public OrchidMenu(OrchidContext context) {
+    public OrchidMenu(OrchidContext context, MenuCache menuCache) {
         super(context);
+        this.menuCache = menuCache;
     }
 
     @Override
@@ -22,7 +25,7 @@ public final class OrchidMenu extends ModularPageList<OrchidMenu, OrchidMenuFact
     public List<MenuItem> getMenuItems(OrchidPage containingPage) {
         ArrayList<MenuItem> menuItemsChildren = new ArrayList<>();
         for (OrchidMenuFactory menuItem : get(containingPage)) {
-            List<MenuItem> impls = menuItem.getMenuItems();
+            List<MenuItem> impls = menuCache.getMenuItems(menuItem);
             if (impls.size() > 0 && menuItem.isAsSubmenu()) {
                 MenuItem innerMenuItem = new MenuItem.Builder(context).title(menuItem.getSubmenuTitle()).children(impls).data(menuItem.getAllData()).build();
                 menuItemsChildren.add(innerMenuItem);
@@ -48,6 +48,16 @@ public abstract class OrchidMenuFactory extends Prioritized implements ModularPa
 
     public abstract List<MenuItem> getMenuItems();
 
+    /**
+     * Whether the menu items from this factory depend on the page the menu is on. Menu items which do not depend on the
+     * page are only created once per build, and are shared by every menu with a factory of the same type and options.
+     *
+     * @return true if the menu items depend on the containing page, false otherwise
+     */
+    public boolean isDependentOnPage() {
+        return true;
+    }
+
     public String getType() {
         return this.type;
     }
@@ -28,6 +28,8 @@ import com.eden.orchid.utilities.OrchidExtensionsKt;
 import com.eden.orchid.utilities.OrchidUtils;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -257,19 +259,29 @@ public class OrchidPage implements
         if(!(Orchid.getInstance().getState() == Orchid.State.BUILDING || Orchid.getInstance().getState() == Orchid.State.IDLE)) {
             throw new IllegalStateException("Cannot get page content until indexing has completed.");
         }
-        if(compiledContent == null) {
-            if (resource != null && !EdenUtils.isEmpty(resource.getContent())) {
-                compiledContent = resource.compileContent(this);
-                if(compiledContent == null) {
-                    compiledContent = "";
-                }
-            }
-            else {
-                compiledContent = "";
+        String content = compiledContent;
+        if(content == null) {
+            // with a memory budget for page content, the content is held by the cache rather than the page
+            PageContentCache contentCache = context.resolve(PageContentCache.class);
+            if(contentCache != null && contentCache.isEnabled()) {
+                return contentCache.get(this, this::compileContent);
             }
+
+            content = compileContent();
+            compiledContent = content;
         }
 
-        return compiledContent;
+        return content;
+    }
+
+    private String compileContent() {
+        if (resource != null && !EdenUtils.isEmpty(resource.getContent())) {
+            String content = resource.compileContent(this);
+            return (content != null) ? content : "";
+        }
+        else {
+            return "";
+        }
     }
 
     public Theme getTheme() {
@@ -327,6 +339,13 @@ public class OrchidPage implements
         return "";
     }
 
+    public final void renderInLayout(Writer output) throws IOException {
+        OrchidResource layoutResource = resolveLayout();
+        if(layoutResource != null) {
+            layoutResource.compileContent(this, output);
+        }
+    }
+
 // Serialize/deserialize from JSON
 //----------------------------------------------------------------------------------------------------------------------
 
@@ -476,6 +495,10 @@ public class OrchidPage implements
             ((FreeableResource) resource).free();
         }
         compiledContent = null;
+        PageContentCache contentCache = (context != null) ? context.resolve(PageContentCache.class) : null;
+        if(contentCache != null) {
+            contentCache.remove(this);
+        }
     }
 
 // Page Relationships
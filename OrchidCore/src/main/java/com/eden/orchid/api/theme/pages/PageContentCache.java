@@ -0,0 +1,133 @@
+package com.eden.orchid.api.theme.pages;
+
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.events.On;
+import com.eden.orchid.api.events.OrchidEventListener;
+import com.eden.orchid.api.generators.BuildMetrics;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds the compiled content of pages within a fixed memory budget. Normally, a page keeps its compiled content until
+ * it is freed, so templates that show the content of many pages keep all of it in memory at once. When a budget is
+ * set, pages keep their content here instead, and the content of the least-recently used pages is dropped once the
+ * budget is exceeded and compiled again the next time it is needed.
+ *
+ * @since v1.0.0
+ */
+@Singleton
+public class PageContentCache implements OrchidEventListener {
+
+    private final Provider<BuildMetrics> metrics;
+
+    // the content of each page, from least- to most-recently used
+    private final LinkedHashMap<OrchidPage, String> entries = new LinkedHashMap<>(16, .75f, true);
+
+    // pages whose content was dropped, so that compiling their content again can be counted. Weak, so that pages are
+    // not kept in memory just to be counted
+    private final Set<OrchidPage> evictedPages = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private long maxSize;
+    private long size;
+
+    @Inject
+    public PageContentCache(Provider<BuildMetrics> metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set the maximum memory used by the compiled content of pages.
+     *
+     * @param maxSize the approximate maximum number of bytes of content to keep, or 0 to let each page keep its own
+     *                content
+     */
+    public synchronized void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        if (maxSize > 0) {
+            evict();
+        }
+        else {
+            clear();
+        }
+    }
+
+    public synchronized boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Get the compiled content of a page, compiling it if it is not cached.
+     *
+     * @param page the page whose content to get
+     * @param compiler compiles the content of the page
+     * @return the compiled content of the page
+     */
+    public String get(OrchidPage page, Supplier<String> compiler) {
+        boolean recompiled;
+        synchronized (this) {
+            String content = entries.get(page);
+            if (content != null) {
+                return content;
+            }
+            recompiled = evictedPages.remove(page);
+        }
+
+        // compile outside the lock, since compiling a page may need the content of other pages
+        String content = compiler.get();
+        if (recompiled) {
+            metrics.get().onPageContentRecompiled();
+        }
+
+        synchronized (this) {
+            String previousContent = entries.put(page, content);
+            size += weigh(content) - ((previousContent != null) ? weigh(previousContent) : 0);
+            evict();
+        }
+
+        return content;
+    }
+
+    public synchronized void remove(OrchidPage page) {
+        String content = entries.remove(page);
+        if (content != null) {
+            size -= weigh(content);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        evictedPages.clear();
+        size = 0;
+    }
+
+    // must be called while holding the lock
+    private void evict() {
+        Iterator<Map.Entry<OrchidPage, String>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<OrchidPage, String> entry = iterator.next();
+            size -= weigh(entry.getValue());
+            evictedPages.add(entry.getKey());
+            iterator.remove();
+        }
+    }
+
+    // Strings take roughly two bytes per character
+    private long weigh(String content) {
+        return 2L * content.length();
+    }
+
+    @On(Orchid.Lifecycle.ClearCache.class)
+    public void onClearCache(Orchid.Lifecycle.ClearCache event) {
+        clear();
+    }
+
+}
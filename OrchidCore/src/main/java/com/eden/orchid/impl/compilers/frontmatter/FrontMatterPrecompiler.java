@@ -28,7 +28,7 @@ public final class FrontMatterPrecompiler extends OrchidPrecompiler {
 
     private final OrchidContext context;
 
-    private final List<EdenPair<String, OrchidParser>> delimiters;
+    private final List<Delimiter> delimiters;
 
     @Option
     @ImpliedKey("regex")
@@ -43,7 +43,7 @@ public final class FrontMatterPrecompiler extends OrchidPrecompiler {
 
         for(OrchidParser parser : new TreeSet<>(parsers)) {
             if(parser.getDelimiter() != null) {
-                delimiters.add(new EdenPair<>(parser.getDelimiter(), parser));
+                delimiters.add(new Delimiter(parser.getDelimiter(), parser));
             }
         }
     }
@@ -96,51 +96,35 @@ public final class FrontMatterPrecompiler extends OrchidPrecompiler {
     }
 
     private FrontMatterHeader getFrontMatterHeader(String extension, String input) {
-        for(EdenPair<String, OrchidParser> delimiter : delimiters) {
-            Matcher m = Pattern.compile("^" + delimiter.first + "{3}(\\w+)?$\n?", Pattern.MULTILINE).matcher(input);
-
-            int matches = 0;
-            int firstMatchStart = 0;
-            int fmStart = 0;
-            int fmEnd = 0;
-
-            int contentStart = 0;
-
-            // if we find a match, get the group
-            while (m.find()) {
-                if (matches == 0) {
-                    firstMatchStart = m.start();
-                    fmStart = m.end();
-                    matches++;
-                }
-                else if (matches == 1) {
-                    fmEnd = m.start();
-                    contentStart = m.end();
-                    matches++;
-                    break;
-                }
-            }
+        for(Delimiter delimiter : delimiters) {
+            Matcher m = delimiter.pattern.matcher(input);
 
-            if (matches == 2 && firstMatchStart == 0) {
-                FrontMatterHeader header = new FrontMatterHeader(true, fmStart, fmEnd, contentStart);
+            // front matter must start at the very beginning of the input, so only look further when it does, and then
+            // only as far as the closing delimiter
+            if (m.lookingAt()) {
+                int fmStart = m.end();
 
-                header.parser = delimiter.second;
-                header.delimiter = delimiter.first;
+                if (m.find(fmStart)) {
+                    FrontMatterHeader header = new FrontMatterHeader(true, fmStart, m.start(), m.end());
 
-                String parsedType = input.substring(0, header.fmStart).replaceAll(delimiter.first + "{3}", "").trim();
+                    header.parser = delimiter.parser;
+                    header.delimiter = delimiter.delimiter;
 
-                if(!EdenUtils.isEmpty(parsedType)) {
-                    header.extension = parsedType;
-                }
+                    String parsedType = delimiter.typePattern.matcher(input.substring(0, header.fmStart)).replaceAll("").trim();
 
-                return header;
+                    if(!EdenUtils.isEmpty(parsedType)) {
+                        header.extension = parsedType;
+                    }
+
+                    return header;
+                }
             }
         }
 
         if(!EdenUtils.isEmpty(customDelimeters)) {
             for (CustomDelimiter delimiter : customDelimeters) {
                 if(EdenUtils.isEmpty(delimiter.fileExtensions) || delimiter.fileExtensions.stream().anyMatch((ext) -> ext.equalsIgnoreCase(extension))) {
-                    Matcher mStart = Pattern.compile(delimiter.regex, Pattern.DOTALL).matcher(input);
+                    Matcher mStart = delimiter.getPattern().matcher(input);
 
                     if (mStart.find()) {
                         FrontMatterHeader header = new FrontMatterHeader(true, mStart.start(delimiter.group), mStart.end(delimiter.group), mStart.end());
@@ -169,6 +153,20 @@ public final class FrontMatterPrecompiler extends OrchidPrecompiler {
         return new FrontMatterHeader(false);
     }
 
+    private static class Delimiter {
+        final String delimiter;
+        final OrchidParser parser;
+        final Pattern pattern;
+        final Pattern typePattern;
+
+        Delimiter(String delimiter, OrchidParser parser) {
+            this.delimiter = delimiter;
+            this.parser = parser;
+            this.pattern = Pattern.compile("^" + delimiter + "{3}(\\w+)?$\n?", Pattern.MULTILINE);
+            this.typePattern = Pattern.compile(delimiter + "{3}");
+        }
+    }
+
     private static class FrontMatterHeader {
         boolean isValidHeader;
         int fmStart;
@@ -220,6 +218,16 @@ public final class FrontMatterPrecompiler extends OrchidPrecompiler {
         @Option
         public List<String> fileExtensions;
 
+        private Pattern pattern;
+
+        // options are set directly on the fields, so only compile the regex again if it has been changed
+        Pattern getPattern() {
+            if (pattern == null || !pattern.pattern().equals(regex)) {
+                pattern = Pattern.compile(regex, Pattern.DOTALL);
+            }
+            return pattern;
+        }
+
     }
 
 }
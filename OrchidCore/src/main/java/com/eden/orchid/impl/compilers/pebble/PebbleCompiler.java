@@ -6,7 +6,10 @@ import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.compilers.OrchidCompiler;
 import com.eden.orchid.api.events.On;
 import com.eden.orchid.api.events.OrchidEventListener;
+import com.eden.orchid.api.generators.BuildMetrics;
+import com.eden.orchid.utilities.ConcurrentLRUCache;
 import com.eden.orchid.utilities.OrchidExtensionsKt;
+import com.eden.orchid.utilities.OrchidUtils;
 import com.google.inject.Provider;
 import com.mitchellbosecke.pebble.PebbleEngine;
 import com.mitchellbosecke.pebble.error.PebbleException;
@@ -22,6 +25,7 @@ import com.mitchellbosecke.pebble.template.PebbleTemplateImpl;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -33,18 +37,24 @@ import java.util.concurrent.Executors;
 @Singleton
 public final class PebbleCompiler extends OrchidCompiler implements OrchidEventListener {
 
+    private static final int TEMPLATE_CACHE_SIZE = 500;
+
     private Provider<OrchidContext> contextProvider;
+    private Provider<BuildMetrics> metricsProvider;
     private ExecutorService executor;
     private PebbleEngine engine;
+    private final ConcurrentLRUCache<String, PebbleTemplateImpl> templateCache;
 
     @Inject
-    public PebbleCompiler(Provider<OrchidContext> contextProvider, PebbleTemplateLoader loader, Set<Extension> extensions) {
+    public PebbleCompiler(Provider<OrchidContext> contextProvider, Provider<BuildMetrics> metricsProvider, PebbleTemplateLoader loader, Set<Extension> extensions) {
         super(10000);
 
         Extension[] extensionArray = new Extension[extensions.size()];
         extensions.toArray(extensionArray);
 
         this.contextProvider = contextProvider;
+        this.metricsProvider = metricsProvider;
+        this.templateCache = new ConcurrentLRUCache<>(TEMPLATE_CACHE_SIZE);
         this.executor = Executors.newFixedThreadPool(10);
         this.engine = new PebbleEngine.Builder()
                 .loader(loader)
@@ -60,25 +70,7 @@ public final class PebbleCompiler extends OrchidCompiler implements OrchidEventL
     @Override
     public String compile(String extension, String source, Map<String, Object> data) {
         try {
-            LexerImpl lexer = new LexerImpl(
-                    engine.getSyntax(),
-                    engine.getExtensionRegistry().getUnaryOperators().values(),
-                    engine.getExtensionRegistry().getBinaryOperators().values());
-            TokenStream tokenStream = lexer.tokenize(new StringReader(source), "");
-
-            Parser parser = new ParserImpl(
-                    engine.getExtensionRegistry().getUnaryOperators(),
-                    engine.getExtensionRegistry().getBinaryOperators(),
-                    engine.getExtensionRegistry().getTokenParsers(),
-                    new ParserOptions()
-            );
-            RootNode root = parser.parse(tokenStream);
-
-            PebbleTemplateImpl compiledTemplate = new PebbleTemplateImpl(engine, root, "");
-
-            for (NodeVisitorFactory visitorFactory : engine.getExtensionRegistry().getNodeVisitors()) {
-                visitorFactory.createVisitor(compiledTemplate).visit(root);
-            }
+            PebbleTemplateImpl compiledTemplate = getCompiledTemplate(extension, source);
 
             Writer writer = new StringWriter();
             compiledTemplate.evaluate(writer, data);
@@ -95,6 +87,69 @@ public final class PebbleCompiler extends OrchidCompiler implements OrchidEventL
         return source;
     }
 
+    @Override
+    public void compile(String extension, String source, Map<String, Object> data, Writer output) throws IOException {
+        // output is streamed as the template is evaluated, so a template which fails partway through can't take back
+        // what it has written. The renderer discards it, and writes the template source instead.
+        try {
+            getCompiledTemplate(extension, source).evaluate(output, data);
+        }
+        catch (IOException e) {
+            throw e;
+        }
+        catch (PebbleException e) {
+            OrchidExtensionsKt.logSyntaxError(source, extension, e.getLineNumber(), e.getMessage());
+            throw new CompilationFailedException(source, e);
+        }
+        catch (Exception e) {
+            Clog.e("Error rendering Pebble template (see template source below)", e);
+            Clog.e(source);
+            throw new CompilationFailedException(source, e);
+        }
+    }
+
+    /**
+     * Compiled templates are immutable once their node visitors have run, so the same instance can be evaluated many
+     * times with different data. Templates are cached by a hash of their source rather than a filename, since most
+     * content compiled here comes from page bodies and resources rather than the Pebble loader.
+     */
+    private PebbleTemplateImpl getCompiledTemplate(String extension, String source) throws Exception {
+        String cacheKey = OrchidUtils.sha1(extension + "\n" + source);
+
+        PebbleTemplateImpl compiledTemplate = templateCache.get(cacheKey);
+
+        if (compiledTemplate != null) {
+            metricsProvider.get().onTemplateCacheHit();
+            return compiledTemplate;
+        }
+
+        metricsProvider.get().onTemplateCacheMiss();
+
+        LexerImpl lexer = new LexerImpl(
+                engine.getSyntax(),
+                engine.getExtensionRegistry().getUnaryOperators().values(),
+                engine.getExtensionRegistry().getBinaryOperators().values());
+        TokenStream tokenStream = lexer.tokenize(new StringReader(source), "");
+
+        Parser parser = new ParserImpl(
+                engine.getExtensionRegistry().getUnaryOperators(),
+                engine.getExtensionRegistry().getBinaryOperators(),
+                engine.getExtensionRegistry().getTokenParsers(),
+                new ParserOptions()
+        );
+        RootNode root = parser.parse(tokenStream);
+
+        compiledTemplate = new PebbleTemplateImpl(engine, root, "");
+
+        for (NodeVisitorFactory visitorFactory : engine.getExtensionRegistry().getNodeVisitors()) {
+            visitorFactory.createVisitor(compiledTemplate).visit(root);
+        }
+
+        templateCache.set(cacheKey, compiledTemplate);
+
+        return compiledTemplate;
+    }
+
     @Override
     public String getOutputExtension() {
         return "html";
@@ -105,6 +160,11 @@ public final class PebbleCompiler extends OrchidCompiler implements OrchidEventL
         return new String[]{"peb", "pebble"};
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
 // Clean up executor on shutdown
 //----------------------------------------------------------------------------------------------------------------------
 
@@ -117,6 +177,7 @@ public final class PebbleCompiler extends OrchidCompiler implements OrchidEventL
     public void onClearCache(Orchid.Lifecycle.ClearCache event) {
         engine.getTagCache().invalidateAll();
         engine.getTemplateCache().invalidateAll();
+        templateCache.clear();
     }
 
 }
@@ -5,12 +5,13 @@ import com.caseyjbrooks.clog.Clog;
 import com.eden.common.util.EdenUtils;
 import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.options.annotations.Description;
+import com.eden.orchid.api.options.annotations.IntDefault;
 import com.eden.orchid.api.options.annotations.Option;
 import com.eden.orchid.api.options.annotations.StringDefault;
+import com.eden.orchid.api.publication.DeployManifest;
 import com.eden.orchid.api.publication.OrchidPublisher;
 import com.eden.orchid.utilities.InputStreamPrinter;
 import com.eden.orchid.utilities.OrchidUtils;
-import org.apache.commons.io.FileUtils;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -20,14 +21,19 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.StandardCopyOption;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Description(value = "Commit your site directly to Github Pages. It can even keep old versions of your site for versioning documentation.", name = "Github Pages")
 public class GithubPagesPublisher extends OrchidPublisher {
@@ -38,6 +44,8 @@ public class GithubPagesPublisher extends OrchidPublisher {
 
     private final String destinationDir;
 
+    private final DeployManifest manifest;
+
     @NotBlank(message = "A GitHub Personal Access Token is required for deploys, set as \'githubToken\' flag.")
     private final String githubToken;
 
@@ -94,10 +102,20 @@ public class GithubPagesPublisher extends OrchidPublisher {
     @NotBlank
     private String githubUrl;
 
+    @Option
+    @Description("The full URL of the git remote to push to. When set, this is used instead of the URL built from `githubUrl`, `username`, and `repo`.")
+    private String remote;
+
+    @Option
+    @IntDefault(0)
+    @Description("When greater than 0, only the most recent commits of the branch are cloned, rather than its full history. This makes publishing much faster for branches with a large history.")
+    private int cloneDepth;
+
     @Inject
-    public GithubPagesPublisher(OrchidContext context, @Named("dest") String destinationDir, @Nullable @Named("githubToken") String githubToken) {
+    public GithubPagesPublisher(OrchidContext context, @Named("dest") String destinationDir, DeployManifest manifest, @Nullable @Named("githubToken") String githubToken) {
         super(context, "ghPages", 100);
         this.destinationDir = destinationDir;
+        this.manifest = manifest;
         this.githubToken = githubToken;
     }
 
@@ -127,19 +145,20 @@ public class GithubPagesPublisher extends OrchidPublisher {
 
         initRepo(repo);
 
-        createCommit(repo);
-        pushBranch(repo, "master", true);
+        if (createCommit(repo)) {
+            pushBranch(repo, "master", true);
+        }
     }
 
     private void doCleanBranchMaintainHistory() throws Exception {
         Path repo = getSiteDir();
         cloneRepo(repo);
 
-        deleteSite(repo);
-        copySite(repo);
+        syncSite(repo);
 
-        createCommit(repo);
-        pushBranch(repo, branch, false);
+        if (createCommit(repo)) {
+            pushBranch(repo, branch, false);
+        }
     }
 
     private void doVersionedBranch() throws Exception {
@@ -147,11 +166,11 @@ public class GithubPagesPublisher extends OrchidPublisher {
         cloneRepo(repo);
 
         Path versionDir = makeSubDir(repo, context.getVersion());
-        deleteSite(versionDir);
-        copySite(versionDir);
+        syncSite(versionDir);
 
-        createCommit(repo);
-        pushBranch(repo, branch, false);
+        if (createCommit(repo)) {
+            pushBranch(repo, branch, false);
+        }
     }
 
     private void doVersionedBranchWithLatest() throws Exception {
@@ -159,15 +178,14 @@ public class GithubPagesPublisher extends OrchidPublisher {
         cloneRepo(repo);
 
         Path versionDir = makeSubDir(repo, context.getVersion());
-        deleteSite(versionDir);
-        copySite(versionDir);
+        syncSite(versionDir);
 
         Path latestDir = makeSubDir(repo, latestDirName);
-        deleteSite(latestDir);
-        copySite(latestDir);
+        syncSite(latestDir);
 
-        createCommit(repo);
-        pushBranch(repo, branch, true);
+        if (createCommit(repo)) {
+            pushBranch(repo, branch, true);
+        }
     }
 
     // Git tasks
@@ -178,14 +196,32 @@ public class GithubPagesPublisher extends OrchidPublisher {
     }
 
     private void cloneRepo(Path repo) throws Exception {
-        gitCommand(repo, "git", "clone", "--single-branch", "-b", branch, getRemoteUrl(), ".");
+        if (cloneDepth > 0) {
+            gitCommand(repo, "git", "clone", "--single-branch", "--depth", Integer.toString(cloneDepth), "-b", branch, getRemoteUrl(), ".");
+        }
+        else {
+            gitCommand(repo, "git", "clone", "--single-branch", "-b", branch, getRemoteUrl(), ".");
+        }
     }
 
-    private void createCommit(Path repo) throws Exception {
+    /**
+     * Commit all changes to the repo.
+     *
+     * @return whether there were any changes to commit
+     */
+    private boolean createCommit(Path repo) throws Exception {
         gitCommand(repo, "git", "config", "user.name", commitUsername);
         gitCommand(repo, "git", "config", "user.email", commitEmail);
         gitCommand(repo, "git", "add", "-A");
+
+        // `git diff --quiet` exits with 0 only when nothing has changed
+        if (execGitCommand(repo, "git", "diff", "--cached", "--quiet") == 0) {
+            Clog.i("Github Pages site is already up-to-date, nothing to publish.");
+            return false;
+        }
+
         gitCommand(repo, "git", "commit", "-m", commitMessage);
+        return true;
     }
 
     private void pushBranch(Path repo, String localBranch, boolean force) throws Exception {
@@ -205,10 +241,12 @@ public class GithubPagesPublisher extends OrchidPublisher {
         Clog.d("Github Pages GIT: {}", displayedCommand);
 
         // but pass directly to system shell to execute
-        execGitCommand(temporaryDir, command);
+        int exitCode = execGitCommand(temporaryDir, command);
+
+        if (exitCode != 0) throw new IOException("Git command failed with exit code " + exitCode);
     }
 
-    private void execGitCommand(Path temporaryDir, String... command) throws Exception {
+    private int execGitCommand(Path temporaryDir, String... command) throws Exception {
         Process process = new ProcessBuilder()
                 .command(Arrays.asList(command))
                 .directory(temporaryDir.toFile())
@@ -217,9 +255,7 @@ public class GithubPagesPublisher extends OrchidPublisher {
         Executors
                 .newSingleThreadExecutor()
                 .submit(new InputStreamPrinter(process.getInputStream(), null, line -> line.replaceAll(getRemoteUrl(), getDisplayedRemoteUrl())));
-        int exitCode = process.waitFor();
-
-        if (exitCode != 0) throw new IOException("Git command failed with exit code " + exitCode);
+        return process.waitFor();
     }
 
 // Helper Methods
@@ -234,22 +270,117 @@ public class GithubPagesPublisher extends OrchidPublisher {
     }
 
     private void copySite(Path targetDir) throws Exception {
-        Path sourceDir = Paths.get(destinationDir);
-        Files.walkFileTree(sourceDir, new CopyDir(sourceDir, targetDir));
+        // copy from the shared manifest rather than walking the site again
+        manifest.getEntries().values().parallelStream().forEach(entry -> {
+            try {
+                Path targetFile = targetDir.resolve(entry.getRelativePath());
+                Files.createDirectories(targetFile.getParent());
+                Files.copy(entry.getFile(), targetFile);
+            }
+            catch (IOException e) {
+                // fail the publish, rather than committing a partial site
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Make the files in a directory of the cloned repo match the site, like `rsync --delete`. Only files which are new or
+     * whose content changed are written, and files which are no longer part of the site are deleted. Files which have
+     * not changed are left untouched, so git does not need to hash them again.
+     */
+    private void syncSite(Path targetDir) throws Exception {
+        Files.createDirectories(targetDir);
+        Map<String, DeployManifest.Entry> entries = manifest.getEntries();
+
+        List<Path> existingFiles;
+        try (Stream<Path> paths = Files.walk(targetDir)) {
+            existingFiles = paths
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !isGitFile(targetDir, file))
+                    .collect(Collectors.toList());
+        }
+
+        AtomicInteger deleted = new AtomicInteger();
+        existingFiles.parallelStream().forEach(file -> {
+            String relativePath = targetDir.relativize(file).toString().replace(File.separatorChar, '/');
+            if (!entries.containsKey(relativePath)) {
+                try {
+                    Files.delete(file);
+                    deleted.incrementAndGet();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+
+        AtomicInteger written = new AtomicInteger();
+        entries.values().parallelStream().forEach(entry -> {
+            Path targetFile = targetDir.resolve(entry.getRelativePath());
+            try {
+                if (!isUnchanged(entry, targetFile)) {
+                    Files.createDirectories(targetFile.getParent());
+                    Files.copy(entry.getFile(), targetFile, StandardCopyOption.REPLACE_EXISTING);
+                    written.incrementAndGet();
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        deleteEmptyDirectories(targetDir);
+
+        Clog.i("Github Pages sync to {}: {} files written, {} files deleted, {} files unchanged",
+                targetDir.getFileName(),
+                written.get(),
+                deleted.get(),
+                entries.size() - written.get()
+        );
     }
 
-    private void deleteSite(Path targetDir) throws Exception {
-        File[] files = targetDir.toFile().listFiles();
-        if (!EdenUtils.isEmpty(files)) {
-            for (File file : files) {
-                if (file.isDirectory() && file.getName().equals(".git")) continue;
-                if (file.isDirectory()) FileUtils.deleteDirectory(file);
-                else if (file.isFile()) file.delete();
+    private boolean isUnchanged(DeployManifest.Entry entry, Path targetFile) throws IOException {
+        if (!Files.isRegularFile(targetFile) || Files.size(targetFile) != entry.getSize()) {
+            return false;
+        }
+        try {
+            return OrchidUtils.sha1(targetFile.toFile()).equals(entry.getSha1());
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean isGitFile(Path targetDir, Path file) {
+        Path relativePath = targetDir.relativize(file);
+        return relativePath.getNameCount() > 0 && relativePath.getName(0).toString().equals(".git");
+    }
+
+    private void deleteEmptyDirectories(Path targetDir) throws IOException {
+        List<Path> directories;
+        try (Stream<Path> paths = Files.walk(targetDir)) {
+            directories = paths
+                    .filter(Files::isDirectory)
+                    .filter(dir -> !dir.equals(targetDir) && !isGitFile(targetDir, dir))
+                    .sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList());
+        }
+
+        // deepest directories come first, so parents are emptied before they are checked
+        for (Path dir : directories) {
+            try (Stream<Path> children = Files.list(dir)) {
+                if (!children.findAny().isPresent()) {
+                    Files.delete(dir);
+                }
             }
         }
     }
 
     private String getDisplayedRemoteUrl() {
+        if (!EdenUtils.isEmpty(remote)) {
+            return remote;
+        }
         String[] repoParts = repo.split("/");
         String repoUsername = (repoParts.length == 2) ? repoParts[0] : username;
         String repoName = (repoParts.length == 2) ? repoParts[1] : repoParts[0];
@@ -257,6 +388,9 @@ public class GithubPagesPublisher extends OrchidPublisher {
     }
 
     private String getRemoteUrl() {
+        if (!EdenUtils.isEmpty(remote)) {
+            return remote;
+        }
         String[] repoParts = repo.split("/");
         String repoUsername = (repoParts.length == 2) ? repoParts[0] : username;
         String repoName = (repoParts.length == 2) ? repoParts[1] : repoParts[0];
@@ -267,113 +401,114 @@ public class GithubPagesPublisher extends OrchidPublisher {
         return Clog.format("{}:{}", localBranch, branch);
     }
 
-// Helper Classes
-//----------------------------------------------------------------------------------------------------------------------
-
-    public static class CopyDir extends SimpleFileVisitor<Path> {
-        private final Path sourceDir;
-        private final Path targetDir;
-
-        public CopyDir(Path sourceDir, Path targetDir) {
-            this.sourceDir = sourceDir;
-            this.targetDir = targetDir;
-        }
-
-        @Override
-        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
-            try {
-                Path targetFile = targetDir.resolve(sourceDir.relativize(file));
-                Files.copy(file, targetFile);
-            }
-            catch (IOException e) {
-                System.err.println(e);
-            }
-            return FileVisitResult.CONTINUE;
-        }
-
-        @Override
-        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
-            try {
-                Path newDir = targetDir.resolve(sourceDir.relativize(dir));
-                Files.createDirectory(newDir);
-            }
-            catch (IOException e) {
-                System.err.println(e);
-            }
-            return FileVisitResult.CONTINUE;
-        }
-    }
-
+    @java.lang.SuppressWarnings("all")
     public String getCommitMessage() {
         return this.commitMessage;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setCommitMessage(final String commitMessage) {
         this.commitMessage = commitMessage;
     }
 
+    @java.lang.SuppressWarnings("all")
     public String getBranch() {
         return this.branch;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setBranch(final String branch) {
         this.branch = branch;
     }
 
+    @java.lang.SuppressWarnings("all")
     public String getUsername() {
         return this.username;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setUsername(final String username) {
         this.username = username;
     }
 
+    @java.lang.SuppressWarnings("all")
     public String getCommitUsername() {
         return this.commitUsername;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setCommitUsername(final String commitUsername) {
         this.commitUsername = commitUsername;
     }
 
+    @java.lang.SuppressWarnings("all")
     public String getCommitEmail() {
         return this.commitEmail;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setCommitEmail(final String commitEmail) {
         this.commitEmail = commitEmail;
     }
 
+    @java.lang.SuppressWarnings("all")
     public String getRepo() {
         return this.repo;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setRepo(final String repo) {
         this.repo = repo;
     }
 
+    @java.lang.SuppressWarnings("all")
     public PublishType getPublishType() {
         return this.publishType;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setPublishType(final PublishType publishType) {
         this.publishType = publishType;
     }
 
+    @java.lang.SuppressWarnings("all")
     public String getLatestDirName() {
         return this.latestDirName;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setLatestDirName(final String latestDirName) {
         this.latestDirName = latestDirName;
     }
 
+    @java.lang.SuppressWarnings("all")
     public String getGithubUrl() {
         return this.githubUrl;
     }
 
+    @java.lang.SuppressWarnings("all")
     public void setGithubUrl(final String githubUrl) {
         this.githubUrl = githubUrl;
     }
 
+    @java.lang.SuppressWarnings("all")
+    public String getRemote() {
+        return this.remote;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setRemote(final String remote) {
+        this.remote = remote;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public int getCloneDepth() {
+        return this.cloneDepth;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setCloneDepth(final int cloneDepth) {
+        this.cloneDepth = cloneDepth;
+    }
+
 }
@@ -3,54 +3,80 @@ package com.eden.orchid.impl.publication;
 
 import com.caseyjbrooks.clog.Clog;
 import com.eden.common.util.EdenPair;
-import com.eden.common.util.EdenUtils;
 import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.options.annotations.BooleanDefault;
 import com.eden.orchid.api.options.annotations.Description;
+import com.eden.orchid.api.options.annotations.IntDefault;
 import com.eden.orchid.api.options.annotations.Option;
+import com.eden.orchid.api.options.annotations.StringDefault;
+import com.eden.orchid.api.publication.DeployManifest;
 import com.eden.orchid.api.publication.OrchidPublisher;
-import com.eden.orchid.utilities.OrchidUtils;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
-import org.apache.commons.io.FileUtils;
 import org.json.JSONObject;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.validation.constraints.NotBlank;
 import java.io.File;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Description(value = "Upload your site directly to Netlify, while using your favorite CI platform.", name = "Netlify")
 public class NetlifyPublisher extends OrchidPublisher {
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
     private static final MediaType BINARY = MediaType.parse("application/octet-stream");
-    private static final String netlifyUrl = "https://api.netlify.com/api/v1";
     @Option
     @Description("Your Netlify site ID or domain (ie. orchid.netlify.com).")
     @NotBlank(message = "A Netlify site domain must be provided.")
     private String siteId;
+    @Option
+    @StringDefault("https://api.netlify.com/api/v1")
+    @Description("The base URL of the Netlify API.")
+    @NotBlank
+    private String netlifyUrl;
+    @Option
+    @IntDefault(4)
+    @Description("The number of files to upload to Netlify at the same time.")
+    private int uploadThreads;
+    @Option
+    @IntDefault(3)
+    @Description("The number of times to retry a file upload which fails.")
+    private int maxRetries;
+    @Option
+    @IntDefault(1000)
+    @Description("The time to wait before retrying a failed upload, in milliseconds. The wait doubles after each retry.")
+    private int retryDelay;
+    @Option
+    @BooleanDefault(true)
+    @Description("Keep the hash of each file next to the site's output directory between deploys, so that only files which changed since the last deploy need to be hashed again.")
+    private boolean persistManifest;
     @NotBlank(message = "A Netlify Personal Access Token is required for deploys, set as \'netlifyToken\' flag.")
     private final String netlifyToken;
-    private final String destinationDir;
+    private final DeployManifest manifest;
     private final OkHttpClient client;
-    private int filesUploaded = 0;
+    private final AtomicInteger filesUploaded = new AtomicInteger();
+    // uploads are not started before this time, so that the Netlify rate limit can reset
+    private volatile long rateLimitResetTime;
 
     @Inject
-    public NetlifyPublisher(OrchidContext context, OkHttpClient client, @Named("dest") String destinationDir, @Nullable @Named("netlifyToken") String netlifyToken) {
+    public NetlifyPublisher(OrchidContext context, OkHttpClient client, DeployManifest manifest, @Nullable @Named("netlifyToken") String netlifyToken) {
         super(context, "netlify", 100);
         this.client = client;
-        this.destinationDir = destinationDir;
+        this.manifest = manifest;
         this.netlifyToken = netlifyToken;
     }
 
@@ -68,27 +94,13 @@ public class NetlifyPublisher extends OrchidPublisher {
 
     @Override
     public void publish() {
-        File file = new File(destinationDir);
-        Map<String, List<File>> fileMap = new HashMap<>();
+        manifest.setPersistent(persistManifest);
+        Map<String, List<DeployManifest.Entry>> fileMap = manifest.getEntriesByHash();
         // create digest of files to be uploaded
         JSONObject body = new JSONObject();
         JSONObject body_files = new JSONObject();
-        if (file.exists() && file.isDirectory()) {
-            Collection newFiles = FileUtils.listFiles(file, null, true);
-            if (!EdenUtils.isEmpty(newFiles)) {
-                for (Object object : newFiles) {
-                    File child = (File) object;
-                    if (child.isDirectory()) continue;
-                    try {
-                        String path = OrchidUtils.getRelativeFilename(child.getAbsolutePath(), destinationDir);
-                        String sha1 = OrchidUtils.sha1(child);
-                        body_files.put(path, sha1);
-                        fileMap.computeIfAbsent(sha1, s -> new ArrayList<>()).add(child);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
+        for (DeployManifest.Entry entry : manifest.getEntries().values()) {
+            body_files.put(entry.getRelativePath(), entry.getSha1());
         }
         body.put("files", body_files);
         // post to Netlify to determine which files need to be uploaded still
@@ -97,17 +109,80 @@ public class NetlifyPublisher extends OrchidPublisher {
             throw new RuntimeException("something went wrong attempting to deploy to Netlify: " + requiredFilesResponse.second);
         }
         JSONObject requiredFiles = new JSONObject(requiredFilesResponse.second);
-        if (requiredFiles.getJSONArray("required").length() == 0) {
+        List<DeployManifest.Entry> filesToUpload = new ArrayList<>();
+        for (Object sha1ToUpload : requiredFiles.getJSONArray("required").toList()) {
+            if (sha1ToUpload != null) {
+                filesToUpload.addAll(fileMap.getOrDefault(sha1ToUpload.toString(), Collections.emptyList()));
+            }
+        }
+        if (filesToUpload.isEmpty()) {
             Clog.i("All files up-to-date on Netlify.");
         } else {
-            Clog.i("Uploading {} files to Netlify.", requiredFiles.getJSONArray("required").length());
-            filesUploaded = 0;
+            Clog.i("Uploading {} files to Netlify.", filesToUpload.size());
             // upload all required files
-            String deployId = requiredFiles.getString("id");
-            requiredFiles.getJSONArray("required").toList().parallelStream().filter(Objects::nonNull).map(o -> (String) o).flatMap(sha1ToUpload -> fileMap.getOrDefault(sha1ToUpload, new ArrayList<>()).parallelStream()).forEach(fileToUpload -> {
-                String path = OrchidUtils.getRelativeFilename(fileToUpload.getAbsolutePath(), destinationDir);
-                netlifyUpload(deployId, path, fileToUpload, requiredFiles.getJSONArray("required").length());
-            });
+            int failedUploads = uploadAll(requiredFiles.getString("id"), filesToUpload);
+            if (failedUploads > 0) {
+                throw new RuntimeException(Clog.format("{} files could not be uploaded to Netlify", failedUploads));
+            }
+        }
+    }
+
+    private int uploadAll(String deployId, List<DeployManifest.Entry> filesToUpload) {
+        filesUploaded.set(0);
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.max(uploadThreads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "orchid-netlify-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<CompletableFuture<Boolean>> uploads = new ArrayList<>();
+            for (DeployManifest.Entry fileToUpload : filesToUpload) {
+                CompletableFuture<Boolean> upload = new CompletableFuture<>();
+                scheduleUpload(executor, upload, deployId, fileToUpload, filesToUpload.size(), 0, 0);
+                uploads.add(upload);
+            }
+
+            int failedUploads = 0;
+            for (CompletableFuture<Boolean> upload : uploads) {
+                if (!upload.join()) {
+                    failedUploads++;
+                }
+            }
+            return failedUploads;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // failed uploads are scheduled again after a delay, rather than blocking one of the upload threads while waiting
+    private void scheduleUpload(ScheduledExecutorService executor, CompletableFuture<Boolean> upload, String deployId, DeployManifest.Entry fileToUpload, int totalFiles, int attempt, long delay) {
+        executor.schedule(() -> runUpload(executor, upload, deployId, fileToUpload, totalFiles, attempt), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runUpload(ScheduledExecutorService executor, CompletableFuture<Boolean> upload, String deployId, DeployManifest.Entry fileToUpload, int totalFiles, int attempt) {
+        // the rate limit is checked when the upload runs rather than when it was scheduled, since any response received
+        // in the meantime may have used up the rate limit
+        long rateLimitDelay = rateLimitResetTime - System.currentTimeMillis();
+        if (rateLimitDelay > 0) {
+            scheduleUpload(executor, upload, deployId, fileToUpload, totalFiles, attempt, rateLimitDelay);
+            return;
+        }
+
+        EdenPair<Boolean, String> response = netlifyUpload(deployId, fileToUpload.getRelativePath(), fileToUpload.getFile().toFile(), totalFiles);
+        if (response.first) {
+            upload.complete(true);
+        }
+        else if (attempt < maxRetries) {
+            long nextDelay = retryDelay * (1L << attempt);
+            Clog.w("Netlify upload of {} failed, retrying in {}ms", fileToUpload.getRelativePath(), nextDelay);
+            scheduleUpload(executor, upload, deployId, fileToUpload, totalFiles, attempt + 1, nextDelay);
+        }
+        else {
+            Clog.e("Netlify upload of {} failed after {} attempts", fileToUpload.getRelativePath(), attempt + 1);
+            upload.complete(false);
         }
     }
 
@@ -117,7 +192,7 @@ public class NetlifyPublisher extends OrchidPublisher {
         try {
             Request request = new Request.Builder().url(fullURL).header("Authorization", "Bearer " + netlifyToken).get().build();
             Response response = client.newCall(request).execute();
-            timeoutRateLimit(response);
+            updateRateLimit(response);
             String bodyString = response.body().string();
             if (!response.isSuccessful()) {
                 Clog.e("{}", bodyString);
@@ -135,7 +210,7 @@ public class NetlifyPublisher extends OrchidPublisher {
         try {
             Request request = new Request.Builder().url(fullURL).header("Authorization", "Bearer " + netlifyToken).post(RequestBody.create(JSON, body.toString())).build();
             Response response = client.newCall(request).execute();
-            timeoutRateLimit(response);
+            updateRateLimit(response);
             String bodyString = response.body().string();
             if (!response.isSuccessful()) {
                 Clog.e("{}", bodyString);
@@ -149,12 +224,11 @@ public class NetlifyPublisher extends OrchidPublisher {
 
     private EdenPair<Boolean, String> netlifyUpload(String deployId, String filename, File toUpload, int totalFiles) {
         String fullURL = Clog.format("{}/deploys/{}/files/{}", netlifyUrl, deployId, filename);
-        filesUploaded++;
-        Clog.d("Netlify UPLOAD {}/{}: {}", filesUploaded, totalFiles, fullURL);
+        Clog.d("Netlify UPLOAD {}/{}: {}", filesUploaded.incrementAndGet(), totalFiles, fullURL);
         try {
             Request request = new Request.Builder().url(fullURL).header("Authorization", "Bearer " + netlifyToken).put(RequestBody.create(BINARY, toUpload)).build();
             Response response = client.newCall(request).execute();
-            timeoutRateLimit(response);
+            updateRateLimit(response);
             return new EdenPair<>(response.isSuccessful(), response.body().string());
         } catch (Exception e) {
             e.printStackTrace();
@@ -162,20 +236,30 @@ public class NetlifyPublisher extends OrchidPublisher {
         return new EdenPair<>(false, null);
     }
 
-    private void timeoutRateLimit(Response response) {
+    private void updateRateLimit(Response response) {
+        String limitHeader = response.header("X-RateLimit-Limit");
+        String remainingHeader = response.header("X-RateLimit-Remaining");
+        String resetHeader = response.header("X-RateLimit-Reset");
+        if (limitHeader == null || remainingHeader == null || resetHeader == null) {
+            return;
+        }
         try {
-            int RateLimit_Limit = Integer.parseInt(response.header("X-RateLimit-Limit"));
-            int RateLimit_Remaining = Integer.parseInt(response.header("X-RateLimit-Remaining"));
-            Instant RateLimit_Reset = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss Z").parse(response.header("X-RateLimit-Reset")).toInstant();
-            Instant current = Instant.now();
-            Duration d = Duration.between(RateLimit_Reset, current);
-            // if we are nearing the rate limit, pause down a bit until it resets
-            if ((RateLimit_Remaining * 1.0 / RateLimit_Limit * 1.0) < 0.1) {
-                Thread.sleep(Math.abs(d.toMillis()));
+            int rateLimit = Integer.parseInt(limitHeader);
+            int rateLimitRemaining = Integer.parseInt(remainingHeader);
+            // if we are nearing the rate limit, hold off starting new uploads until it resets
+            if ((rateLimitRemaining * 1.0 / rateLimit * 1.0) < 0.1) {
+                rateLimitResetTime = parseRateLimitReset(resetHeader).toEpochMilli();
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            Clog.w("Could not read Netlify rate limit: {}", e.getMessage());
+        }
+    }
+
+    private Instant parseRateLimitReset(String resetHeader) throws ParseException {
+        if (resetHeader.matches("\\d+")) {
+            return Instant.ofEpochSecond(Long.parseLong(resetHeader));
         }
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss Z").parse(resetHeader).toInstant();
     }
 
     @java.lang.SuppressWarnings("all")
@@ -188,6 +272,56 @@ public class NetlifyPublisher extends OrchidPublisher {
         this.siteId = siteId;
     }
 
+    @java.lang.SuppressWarnings("all")
+    public String getNetlifyUrl() {
+        return this.netlifyUrl;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setNetlifyUrl(final String netlifyUrl) {
+        this.netlifyUrl = netlifyUrl;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public int getUploadThreads() {
+        return this.uploadThreads;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setUploadThreads(final int uploadThreads) {
+        this.uploadThreads = uploadThreads;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setMaxRetries(final int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public int getRetryDelay() {
+        return this.retryDelay;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setRetryDelay(final int retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public boolean isPersistManifest() {
+        return this.persistManifest;
+    }
+
+    @java.lang.SuppressWarnings("all")
+    public void setPersistManifest(final boolean persistManifest) {
+        this.persistManifest = persistManifest;
+    }
+
     @java.lang.SuppressWarnings("all")
     public String getNetlifyToken() {
         return this.netlifyToken;
@@ -10,23 +10,61 @@ import org.json.JSONArray
 import org.json.JSONObject
 import java.util.ArrayList
 import java.util.Arrays
-
+import java.util.Collections
+
+/**
+ * A tree of pages, organized by their paths. The pages of each node and of its whole subtree are kept in read-only lists
+ * which are built the first time they are needed, and built again only after pages are added somewhere in that subtree,
+ * so they can be read repeatedly without being copied. Whether a page is a draft is checked when these lists are built.
+ *
+ * The index at the top of the tree also keeps every index below it by its full path, and each index keeps its own pages
+ * by filename, so looking up a path takes a single lookup rather than a walk down the tree.
+ */
 open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
     private val ownPages = ArrayList<OrchidPage>()
+    private val ownPagesByFileName = HashMap<String, MutableList<OrchidPage>>()
     private val childrenPages = LinkedHashMap<String, OrchidIndex>()
 
+    // the index at the top of this tree, and the path from it to this index, including the keys of both
+    private val top: OrchidIndex = parent?.top ?: this
+    private val path: String = if (parent != null) "${parent.path}/$ownKey" else ownKey
+
+    // every index in the tree by its path, only kept by the index at the top
+    private val indicesByPath: MutableMap<String, OrchidIndex>? = if (parent == null) HashMap() else null
+
+    init {
+        top.indexPath(path, this)
+    }
+
+    @Volatile
+    private var ownPagesCache: List<OrchidPage>? = null
+    @Volatile
+    private var allPagesCache: List<OrchidPage>? = null
+
     open val allPages: List<OrchidPage>
         get() {
-            val allPages = ArrayList<OrchidPage>()
-            allPages.addAll(getOwnPages())
+            var allPages = allPagesCache
+            if (allPages == null) {
+                val pages = ArrayList<OrchidPage>()
+                pages.addAll(getOwnPages())
 
-            for ((_, value) in childrenPages) {
-                allPages.addAll(value.allPages)
+                for ((_, value) in childrenPages) {
+                    pages.addAll(value.allPages)
+                }
+
+                allPages = Collections.unmodifiableList(pages)
+                allPagesCache = allPages
             }
 
             return allPages
         }
 
+    /**
+     * The number of pages in this index and all its children.
+     */
+    open val size: Int
+        get() = allPages.size
+
     val children: Map<String, OrchidIndex>
         get() = childrenPages
 
@@ -47,6 +85,8 @@ open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
                 // this is the final piece of the path, add it here
                 if (pathPieces.size == 1) {
                     this.ownPages.add(page)
+                    this.ownPagesByFileName.getOrPut(page.reference.originalFileName) { ArrayList(1) }.add(page)
+                    invalidate()
                 }
                 else {
                     val nextPathPiece = pathPieces[1]
@@ -55,6 +95,7 @@ open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
                     if (!childrenPages.containsKey(nextPathPiece)) {
                         val indexInstance = OrchidIndex(this, nextPathPiece)
                         childrenPages[nextPathPiece] = indexInstance
+                        invalidate()
                     }
 
                     // get the child index at the next path level and add the page there
@@ -69,20 +110,7 @@ open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
     }
 
     fun find(pathPieces: Array<String>): List<OrchidPage> {
-        val foundPages = ArrayList<OrchidPage>()
-        // we have a path to search
-        if (!EdenUtils.isEmpty(pathPieces) && !EdenUtils.isEmpty(pathPieces[0])) {
-            if (pathPieces.size == 1 && pathPieces[0] == ownKey) {
-                foundPages.addAll(this.allPages)
-            }
-            else {
-                if (childrenPages.containsKey(pathPieces[1])) {
-                    foundPages.addAll(childrenPages[pathPieces[1]]!!.find(Arrays.copyOfRange(pathPieces, 1, pathPieces.size)))
-                }
-            }
-        }
-
-        return foundPages
+        return findIndex(pathPieces)?.allPages ?: emptyList()
     }
 
     open fun findPage(taxonomy: String): OrchidPage? {
@@ -90,25 +118,10 @@ open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
     }
 
     fun findPage(pathPieces: Array<String>): OrchidPage? {
-        var page: OrchidPage? = null
-        // we have a path to search
-        if (!EdenUtils.isEmpty(pathPieces) && !EdenUtils.isEmpty(pathPieces[0])) {
-            if (pathPieces.size == 1 && pathPieces[0] == ownKey) {
-                for (ownPage in getOwnPages()) {
-                    if (ownPage.reference.originalFileName == pathPieces[0]) {
-                        page = ownPage
-                        break
-                    }
-                }
-            }
-            else {
-                if (childrenPages.containsKey(pathPieces[1])) {
-                    page = childrenPages[pathPieces[1]]!!.findPage(Arrays.copyOfRange(pathPieces, 1, pathPieces.size))
-                }
-            }
-        }
+        val index = findIndex(pathPieces) ?: return null
 
-        return page
+        // a page is found by the last piece of its path, from the index at that path
+        return index.ownPagesByFileName[index.ownKey]?.firstOrNull { page -> !page.isDraft }
     }
 
     open fun findIndex(taxonomy: String): OrchidIndex? {
@@ -116,22 +129,70 @@ open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
     }
 
     fun findIndex(pathPieces: Array<String>): OrchidIndex? {
-        var foundIndex: OrchidIndex? = null
         // we have a path to search
-        if (!EdenUtils.isEmpty(pathPieces) && !EdenUtils.isEmpty(pathPieces[0])) {
-            if (pathPieces.size == 1 && pathPieces[0] == ownKey) {
-                foundIndex = this
-            }
-            else if (childrenPages.containsKey(pathPieces[1])) {
-                foundIndex = childrenPages[pathPieces[1]]!!.findIndex(Arrays.copyOfRange(pathPieces, 1, pathPieces.size))
-            }
+        if (EdenUtils.isEmpty(pathPieces) || EdenUtils.isEmpty(pathPieces[0])) {
+            return null
         }
 
-        return foundIndex
+        if (pathPieces.size == 1) {
+            return if (pathPieces[0] == ownKey) this else null
+        }
+
+        // the first piece of the path refers to this index, the rest is looked up below it
+        val childPath = StringBuilder(path)
+        for (i in 1 until pathPieces.size) {
+            childPath.append('/').append(pathPieces[i])
+        }
+        return top.indicesByPath!![childPath.toString()]
+    }
+
+    protected fun clearIndex() {
+        ownPages.clear()
+        ownPagesByFileName.clear()
+        childrenPages.clear()
+        if (top === this) {
+            indicesByPath!!.clear()
+            indexPath(path, this)
+        }
+        invalidate()
+    }
+
+    /**
+     * Keep an index and every index below it by their paths, so they can be found from this index, which must be at the
+     * top of its tree.
+     */
+    private fun indexPath(path: String, index: OrchidIndex) {
+        // paths with empty pieces can never be looked up
+        if (EdenUtils.isEmpty(index.ownKey)) {
+            return
+        }
+
+        indicesByPath!![path] = index
+        for ((key, child) in index.childrenPages) {
+            indexPath("$path/$key", child)
+        }
+    }
+
+    /**
+     * Drop the cached page lists of this index and of every index above it, so they are built again with the pages that
+     * were just added.
+     */
+    protected fun invalidate() {
+        var index: OrchidIndex? = this
+        while (index != null) {
+            index.ownPagesCache = null
+            index.allPagesCache = null
+            index = index.parent
+        }
     }
 
     fun getOwnPages(): List<OrchidPage> {
-        return ownPages.filter { page -> !page.isDraft }
+        var pages = ownPagesCache
+        if (pages == null) {
+            pages = Collections.unmodifiableList(ownPages.filter { page -> !page.isDraft })
+            ownPagesCache = pages
+        }
+        return pages
     }
 
     fun addAll(index: OrchidIndex) {
@@ -201,7 +262,9 @@ open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
                 for (i in 0 until ownPagesJson.length()) {
                     val externalPage = OrchidPage.fromJSON(context, ownPagesJson.getJSONObject(i))
                     index.ownPages.add(externalPage)
+                    index.ownPagesByFileName.getOrPut(externalPage.reference.originalFileName) { ArrayList(1) }.add(externalPage)
                 }
+                index.invalidate()
             }
 
             if (source.has("childrenPages")) {
@@ -209,7 +272,9 @@ open class OrchidIndex(val parent: OrchidIndex?, val ownKey: String) {
                 for (key in childrenPagesJson.keySet()) {
                     val childIndex = OrchidIndex.fromJSON(context, childrenPagesJson.getJSONObject(key))
                     index.childrenPages[key] = childIndex
+                    index.indexPath("${index.path}/$key", childIndex)
                 }
+                index.invalidate()
             }
 
             return index
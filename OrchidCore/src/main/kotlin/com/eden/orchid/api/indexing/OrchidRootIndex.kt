@@ -1,35 +1,97 @@
 package com.eden.orchid.api.indexing
 
+import com.eden.orchid.api.generators.BuildDependencies
 import com.eden.orchid.api.theme.pages.OrchidPage
+import java.util.Collections
 import javax.inject.Singleton
 
 @Singleton
-class OrchidRootIndex(ownKey: String) : OrchidIndex(null, ownKey) {
+class OrchidRootIndex
+@JvmOverloads
+constructor(ownKey: String, private val dependencies: BuildDependencies? = null) : OrchidIndex(null, ownKey) {
     val allIndexedPages = LinkedHashMap<String, OrchidIndex>()
 
+    // the pages of every child index, and the page lists of the child indices they were combined from. Child indices
+    // keep their page lists until their pages change, so this is only combined again after one of them has changed
+    @Volatile
+    private var indexedPagesCache: Pair<List<List<OrchidPage>>, List<OrchidPage>>? = null
+
     fun addChildIndex(key: String, index: OrchidIndex) {
-        allIndexedPages[key] = index
-        for (page in index.allPages) {
-            this.addToIndex(page.reference.path, page)
+        // replacing an index keeps its original position, but the pages it had merged into this index must be removed
+        if (allIndexedPages.put(key, index) != null) {
+            rebuildIndex()
+        }
+        else {
+            addPages(index)
+        }
+    }
+
+    fun removeChildIndex(key: String): OrchidIndex? {
+        val removedIndex = allIndexedPages.remove(key)
+        if (removedIndex != null) {
+            rebuildIndex()
         }
+
+        return removedIndex
     }
 
-    fun getChildIndex(generator: String): List<OrchidPage> = allIndexedPages[generator]?.allPages ?: emptyList()
+    fun getChildIndex(generator: String): List<OrchidPage> {
+        dependencies?.dependOn(generator)
+        return allIndexedPages[generator]?.allPages ?: emptyList()
+    }
 
     fun getChildIndices(generators: Array<String>): List<OrchidPage> = generators.flatMap { it -> getChildIndex(it) }
 
     override val allPages: List<OrchidPage>
-        get() = allIndexedPages.values.flatMap { it -> it.allPages }
+        get() {
+            dependencies?.dependOnAll()
+            val childPages = allIndexedPages.values.map { it -> it.allPages }
+            val cached = indexedPagesCache
+            if (cached != null && isSameLists(cached.first, childPages)) {
+                return cached.second
+            }
+
+            val allPages = Collections.unmodifiableList(childPages.flatten())
+            indexedPagesCache = Pair(childPages, allPages)
+            return allPages
+        }
 
     override fun addToIndex(taxonomy: String, page: OrchidPage) = super.addToIndex("$ownKey/$taxonomy", page)
 
-    override fun find(taxonomy: String): List<OrchidPage> = super.find("$ownKey/$taxonomy")
+    override fun find(taxonomy: String): List<OrchidPage> {
+        dependencies?.dependOnAll()
+        return super.find("$ownKey/$taxonomy")
+    }
+
+    override fun findPage(taxonomy: String): OrchidPage? {
+        dependencies?.dependOnAll()
+        return super.findPage("$ownKey/$taxonomy")
+    }
+
+    override fun findIndex(taxonomy: String): OrchidIndex? {
+        dependencies?.dependOnAll()
+        return super.findIndex("$ownKey/$taxonomy")
+    }
+
+    fun find(taxonomy: String, childKey: String): List<OrchidPage> {
+        dependencies?.dependOn(childKey)
+        return allIndexedPages[childKey]?.find("$childKey/$taxonomy") ?: emptyList()
+    }
 
-    override fun findPage(taxonomy: String): OrchidPage? = super.findPage("$ownKey/$taxonomy")
+    private fun addPages(index: OrchidIndex) {
+        for (page in index.allPages) {
+            this.addToIndex(page.reference.path, page)
+        }
+    }
 
-    override fun findIndex(taxonomy: String): OrchidIndex? = super.findIndex("$ownKey/$taxonomy")
+    private fun isSameLists(a: List<List<OrchidPage>>, b: List<List<OrchidPage>>): Boolean {
+        return a.size == b.size && a.indices.all { a[it] === b[it] }
+    }
 
-    fun find(taxonomy: String, childKey: String): List<OrchidPage> = allIndexedPages[childKey]?.find("$childKey/$taxonomy") ?: emptyList()
+    private fun rebuildIndex() {
+        clearIndex()
+        allIndexedPages.values.forEach { addPages(it) }
+    }
 
     override fun toString(): String {
         return "root " + super.toString()
@@ -11,6 +11,7 @@ import org.apache.commons.io.FilenameUtils
 import java.io.IOException
 import java.util.ArrayList
 import java.util.Objects
+import java.util.jar.JarEntry
 import java.util.jar.JarFile
 
 open class JarResourceSource : OrchidResourceSource {
@@ -23,8 +24,9 @@ open class JarResourceSource : OrchidResourceSource {
 
     val pluginClass: Class<*>
     override val priority: Int
-    private var initialized = false
-    private var jarFile: JarFile? = null
+
+    // the jar is only opened and its entries scanned once, the first time it is needed
+    private val index: JarEntryIndex? by lazy { jarForClass()?.let { JarEntryIndex(it) } }
 
     constructor(context: Provider<OrchidContext>, priority: Int) {
         this.context = context
@@ -61,46 +63,21 @@ open class JarResourceSource : OrchidResourceSource {
     override fun getResourceEntry(fileName: String): OrchidResource? {
         if(fileName.isBlank()) return null
 
-        if(!initialized) {
-            jarFile = jarForClass()
-            initialized = true
-        }
-
-        if (jarFile != null) {
-            val entries = jarFile!!.entries()
-            while (entries.hasMoreElements()) {
-                val entry = entries.nextElement()
-
-                if (entry.name.endsWith(fileName) && !entry.isDirectory) {
-                    return JarResource(context.get(), jarFile, entry)
-                }
-            }
-        }
+        val index = this.index ?: return null
+        val entry = index.findBySuffix(fileName) ?: return null
 
-        return null
+        return JarResource(context.get(), index.jarFile, entry)
     }
 
     override fun getResourceEntries(dirName: String, fileExtensions: Array<String>?, recursive: Boolean): List<OrchidResource> {
         val entries = ArrayList<OrchidResource>()
 
-        if(!initialized) {
-            jarFile = jarForClass()
-            initialized = true
-        }
-
-        if (jarFile != null) {
-            val jarEntries = jarFile!!.entries()
-            while (jarEntries.hasMoreElements()) {
-                val jarEntry = jarEntries.nextElement()
-                // we are checking a file in the jar
-                if (OrchidUtils.normalizePath(jarEntry.name)!!.startsWith("$dirName/") && !jarEntry.isDirectory) {
-
-                    if (EdenUtils.isEmpty(fileExtensions) || FilenameUtils.isExtension(jarEntry.name, fileExtensions)) {
+        val index = this.index ?: return entries
 
-                        if (shouldAddEntry(jarEntry.name)) {
-                            entries.add(JarResource(context.get(), jarFile, jarEntry))
-                        }
-                    }
+        for (jarEntry in index.findInDirectory(dirName)) {
+            if (EdenUtils.isEmpty(fileExtensions) || FilenameUtils.isExtension(jarEntry.name, fileExtensions)) {
+                if (shouldAddEntry(jarEntry.name)) {
+                    entries.add(JarResource(context.get(), index.jarFile, jarEntry))
                 }
             }
         }
@@ -133,3 +110,41 @@ open class JarResourceSource : OrchidResourceSource {
         }
     }
 }
+
+/**
+ * An in-memory index of the file entries in a jar, built in a single pass over the jar so that lookups don't need to
+ * scan every entry again. Entries are indexed by every path suffix that starts on a path segment (so `a/b/c.peb` can
+ * be found as `a/b/c.peb`, `b/c.peb`, or `c.peb`), and under each of their parent directories. Both indices keep the
+ * entries in the order they appear in the jar, so the first match is the same entry a full scan would find first.
+ */
+private class JarEntryIndex(val jarFile: JarFile) {
+
+    private val entriesBySuffix = HashMap<String, JarEntry>()
+    private val entriesByDirectory = HashMap<String, MutableList<JarEntry>>()
+
+    init {
+        val jarEntries = jarFile.entries()
+        while (jarEntries.hasMoreElements()) {
+            val jarEntry = jarEntries.nextElement()
+            if (jarEntry.isDirectory) continue
+
+            val path = OrchidUtils.normalizePath(jarEntry.name) ?: continue
+
+            entriesBySuffix.putIfAbsent(path, jarEntry)
+            var slash = path.indexOf('/')
+            while (slash != -1) {
+                entriesBySuffix.putIfAbsent(path.substring(slash + 1), jarEntry)
+                entriesByDirectory.getOrPut(path.substring(0, slash)) { ArrayList() }.add(jarEntry)
+                slash = path.indexOf('/', slash + 1)
+            }
+        }
+    }
+
+    fun findBySuffix(fileName: String): JarEntry? {
+        return entriesBySuffix[fileName.trimStart('/')]
+    }
+
+    fun findInDirectory(dirName: String): List<JarEntry> {
+        return entriesByDirectory[dirName] ?: emptyList()
+    }
+}
@@ -5,7 +5,9 @@ import com.eden.orchid.api.OrchidContext
 import com.eden.orchid.api.indexing.OrchidIndex
 import com.eden.orchid.api.theme.pages.OrchidPage
 import java.util.ArrayList
+import java.util.Collections
 import java.util.Comparator
+import java.util.IdentityHashMap
 
 class MenuItem private constructor(
         val context: OrchidContext,
@@ -40,6 +42,21 @@ class MenuItem private constructor(
 
     val isHasChildren: Boolean get() = hasChildren()
 
+    // the pages of every leaf item below this one, which make this item active. Menus are checked for the active page
+    // many times on every page, so this is collected once rather than searching the children each time
+    private val activePages: Set<OrchidPage> by lazy {
+        val pages = Collections.newSetFromMap(IdentityHashMap<OrchidPage, Boolean>())
+        for (child in _children) {
+            if (child.isHasChildren) {
+                pages.addAll(child.activePages)
+            }
+            else if (child.page != null) {
+                pages.add(child.page)
+            }
+        }
+        pages
+    }
+
     fun isActive(page: OrchidPage): Boolean {
         return isActivePage(page) || hasActivePage(page)
     }
@@ -49,15 +66,7 @@ class MenuItem private constructor(
     }
 
     fun hasActivePage(page: OrchidPage): Boolean {
-        if (isHasChildren) {
-            for (child in children) {
-                if (child.isActivePage(page) || child.hasActivePage(page)) {
-                    return true
-                }
-            }
-        }
-
-        return false
+        return isHasChildren && activePages.contains(page)
     }
 
     @JvmOverloads
@@ -66,7 +75,8 @@ class MenuItem private constructor(
     }
 
     fun hasChildren(): Boolean {
-        return !EdenUtils.isEmpty(children)
+        // sorting the children does not change whether there are any
+        return _children.isNotEmpty()
     }
 
     operator fun get(key: String): Any? {
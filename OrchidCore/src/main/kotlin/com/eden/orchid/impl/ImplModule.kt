@@ -14,6 +14,8 @@ import com.eden.orchid.api.indexing.IndexServiceImpl
 import com.eden.orchid.api.publication.OrchidPublisher
 import com.eden.orchid.api.registration.IgnoreModule
 import com.eden.orchid.api.registration.OrchidModule
+import com.eden.orchid.api.render.BuildCache
+import com.eden.orchid.api.render.MemoryRenderer
 import com.eden.orchid.api.resources.ResourceServiceImpl
 import com.eden.orchid.api.resources.resourcesource.LocalResourceSource
 import com.eden.orchid.api.server.OrchidController
@@ -24,9 +26,12 @@ import com.eden.orchid.api.tasks.TaskServiceImpl
 import com.eden.orchid.api.theme.AdminTheme
 import com.eden.orchid.api.theme.Theme
 import com.eden.orchid.api.theme.ThemeServiceImpl
+import com.eden.orchid.api.theme.assets.AssetProcessor
 import com.eden.orchid.api.theme.components.OrchidComponent
+import com.eden.orchid.api.theme.menus.MenuCache
 import com.eden.orchid.api.theme.menus.OrchidMenuFactory
 import com.eden.orchid.api.theme.pages.OrchidPage
+import com.eden.orchid.api.theme.pages.PageContentCache
 import com.eden.orchid.impl.commands.BuildCommand
 import com.eden.orchid.impl.commands.DeployCommand
 import com.eden.orchid.impl.commands.HelpCommand
@@ -60,6 +65,8 @@ import com.eden.orchid.impl.tasks.ServeTask
 import com.eden.orchid.impl.tasks.ShellTask
 import com.eden.orchid.impl.tasks.WatchTask
 import com.eden.orchid.impl.themes.DefaultTheme
+import com.eden.orchid.impl.themes.assets.CssMinifier
+import com.eden.orchid.impl.themes.assets.JsMinifier
 import com.eden.orchid.impl.themes.components.LicenseComponent
 import com.eden.orchid.impl.themes.components.PageContentComponent
 import com.eden.orchid.impl.themes.components.ReadmeComponent
@@ -150,6 +157,13 @@ class ImplModule : OrchidModule() {
             HtmlCompiler::class.java
         )
 
+        // Asset Processors
+        addToSet(
+            AssetProcessor::class.java,
+            CssMinifier::class.java,
+            JsMinifier::class.java
+        )
+
         // Parsers
         addToSet(
             OrchidParser::class.java,
@@ -223,6 +237,11 @@ class ImplModule : OrchidModule() {
             TaskServiceImpl::class.java,
             ResourceServiceImpl::class.java,
             IndexServiceImpl::class.java,
+            BuildCache::class.java,
+            PageContentCache::class.java,
+            MenuCache::class.java,
+            FrontMatterCollection::class.java,
+            MemoryRenderer::class.java,
             ClogSetupListener::class.java
         )
 
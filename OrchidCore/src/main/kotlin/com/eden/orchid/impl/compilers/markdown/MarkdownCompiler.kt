@@ -49,6 +49,10 @@ constructor(
         return "html"
     }
 
+    override fun isThreadSafe(): Boolean {
+        return true
+    }
+
     override fun getSourceExtensions(): Array<String> {
         return arrayOf("md", "markdown")
     }
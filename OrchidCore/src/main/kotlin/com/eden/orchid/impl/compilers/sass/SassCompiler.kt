@@ -31,6 +31,10 @@ constructor(
         return "css"
     }
 
+    override fun isThreadSafe(): Boolean {
+        return true
+    }
+
     override fun compile(extension: String, input: String, data: Map<String, Any>): String {
         val options = Options()
         options.importers.add(importer)
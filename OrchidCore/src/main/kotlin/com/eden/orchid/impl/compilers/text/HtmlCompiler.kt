@@ -18,6 +18,10 @@ constructor() : OrchidCompiler(800) {
         return "html"
     }
 
+    override fun isThreadSafe(): Boolean {
+        return true
+    }
+
     override fun getSourceExtensions(): Array<String> {
         return arrayOf("html", "htm")
     }
@@ -31,7 +31,7 @@ constructor(private val context: OrchidContext) : GlobalCollection<OrchidPage>("
                 return Stream.of(page)
             }
         } else {
-            return items.stream().filter { page -> page.title == id || page.key == id }
+            return lookupAll("titleOrKey", id) { page -> listOf(page.title, page.key) }.stream()
         }
 
         return null
@@ -1,33 +1,90 @@
 package com.eden.orchid.impl.generators.collections
 
+import com.eden.orchid.Orchid
 import com.eden.orchid.api.OrchidContext
+import com.eden.orchid.api.events.On
+import com.eden.orchid.api.events.OrchidEventListener
 import com.eden.orchid.api.generators.GlobalCollection
 import com.eden.orchid.api.options.annotations.Description
 import com.eden.orchid.api.theme.pages.OrchidPage
-
+import java.util.concurrent.ConcurrentHashMap
+import java.util.stream.Stream
 import javax.inject.Inject
 import javax.inject.Singleton
-import java.util.stream.Stream
 
 @Singleton
-@Description("A Front Matter Collection filters all pages in your site by a query against properties in a page's " + "Front Matter. A page is matched from a File Collection with an 'itemId' of the format 'key=value.")
+@Description("A Front Matter Collection filters all pages in your site by a query against properties in a page's " +
+        "Front Matter. A page is matched from a Front Matter Collection with an 'itemId' query such as 'key=value', " +
+        "and queries may combine comparisons with &, |, !, and parentheses, and use the !=, ^= (starts with), <, <=, " +
+        ">, >=, and 'in (a, b)' operators. An 'itemId' which is not a valid query, such as 'title=Q&A', is matched " +
+        "literally as 'key=value'."
+)
 class FrontMatterCollection @Inject
-constructor(private val context: OrchidContext) : GlobalCollection<OrchidPage>("frontMatter") {
+constructor(private val context: OrchidContext) : GlobalCollection<OrchidPage>("frontMatter"), OrchidEventListener {
+
+    // each query is only compiled once
+    private val queries = ConcurrentHashMap<String, FrontMatterQuery>()
+    private val invalidQueries = ConcurrentHashMap.newKeySet<String>()
+
+    @Volatile
+    private var index: FrontMatterIndex? = null
 
     override fun loadItems(): List<OrchidPage> {
         return context.internalIndex.allPages
     }
 
     override fun find(id: String): Stream<OrchidPage>? {
-        // TODO: Make this able to evaluate simple queries including parentheses, & (and), and | (or) operators
-        return if (id.contains("=")) {
-            val key = id.split("=".toRegex()).dropLastWhile { it.isEmpty() }.toTypedArray()[0].trim { it <= ' ' }
-            val value = id.split("=".toRegex()).dropLastWhile { it.isEmpty() }.toTypedArray()[1].trim { it <= ' ' }
-            items.stream()
-                .filter { page -> (if (page.get(key) != null) page.get(key).toString() else "") == value }
-        } else {
+        // every collection is asked to find unqualified item ids, so ids which are not queries are not an error here
+        val query = compile(id)
+        if (query == null && !id.contains("=")) {
+            return null
+        }
+        val pages = getIndex() ?: return null
+
+        return if (query != null) {
+            pages.toPages(query.evaluate(pages)).stream()
+        }
+        else {
+            // values may contain characters used by queries, so an id which can't be parsed is matched literally
+            val key = id.substringBefore("=").trim()
+            val value = id.substringAfter("=").trim()
+            pages.toPages(pages.key(key).equalTo(value)).stream()
+        }
+    }
+
+    private fun compile(id: String): FrontMatterQuery? {
+        if (invalidQueries.contains(id)) {
+            return null
+        }
+        queries[id]?.let { return it }
+
+        return try {
+            queries.computeIfAbsent(id) { FrontMatterQuery.compile(it) }
+        }
+        catch (e: IllegalArgumentException) {
+            invalidQueries.add(id)
             null
         }
     }
 
+    private fun getIndex(): FrontMatterIndex? {
+        val currentItems = items ?: return null
+        val currentIndex = index
+        // the index is built again when the pages change
+        if (currentIndex != null && currentIndex.pages === currentItems && currentIndex.size == currentItems.size) {
+            return currentIndex
+        }
+        val newIndex = FrontMatterIndex(currentItems)
+        index = newIndex
+        return newIndex
+    }
+
+    @Suppress("UNUSED_PARAMETER")
+    @On(Orchid.Lifecycle.ClearCache::class)
+    fun onClearCache(event: Orchid.Lifecycle.ClearCache) {
+        queries.clear()
+        invalidQueries.clear()
+        index = null
+    }
+
 }
@@ -0,0 +1,177 @@
+package com.eden.orchid.impl.generators.collections
+
+import com.eden.orchid.api.theme.pages.OrchidPage
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.time.format.DateTimeParseException
+import java.util.BitSet
+import java.util.Date
+import java.util.NavigableMap
+import java.util.TreeMap
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * An inverted index of the front matter of a list of pages. For each key, the pages are grouped by their value for that
+ * key, so a query only needs to look at the distinct values of a key rather than at every page. Sets of pages are
+ * represented by their positions in the list, so the results of a query keep the order of the list.
+ *
+ * A key is only indexed the first time it is queried. A page without a value for a key is indexed with an empty value,
+ * and a page whose value is a list is indexed by the list as a whole and by each of its items.
+ */
+class FrontMatterIndex(val pages: List<OrchidPage>) {
+
+    private val keys = ConcurrentHashMap<String, KeyIndex>()
+
+    // the number of pages when this index was built, since the list may be changed afterwards
+    val size: Int = pages.size
+
+    /**
+     * All the pages in this index.
+     */
+    fun all(): BitSet {
+        val all = BitSet(size)
+        all.set(0, size)
+        return all
+    }
+
+    fun key(key: String): KeyIndex {
+        return keys.computeIfAbsent(key) { KeyIndex(it) }
+    }
+
+    fun toPages(positions: BitSet): List<OrchidPage> {
+        val matchingPages = ArrayList<OrchidPage>(positions.cardinality())
+        var i = positions.nextSetBit(0)
+        while (i >= 0) {
+            matchingPages.add(pages[i])
+            i = positions.nextSetBit(i + 1)
+        }
+        return matchingPages
+    }
+
+    inner class KeyIndex(key: String) {
+
+        // the pages with each value of the key, sorted by value. These are shared, and must be copied before changing
+        private val pagesByValue: NavigableMap<String, BitSet> = TreeMap()
+
+        // the values which can be compared as dates or as numbers, for range queries
+        private val pagesByDate: NavigableMap<LocalDateTime, BitSet> by lazy { groupValues { parseDate(it) } }
+        private val pagesByNumber: NavigableMap<Double, BitSet> by lazy { groupValues { parseNumber(it) } }
+
+        init {
+            for ((i, page) in pages.take(size).withIndex()) {
+                val value = page.get(key)
+                add(valueToString(value), i)
+                when (value) {
+                    is Iterable<*> -> value.forEach { item -> if (item != null) add(valueToString(item), i) }
+                    is Array<*> -> value.forEach { item -> if (item != null) add(valueToString(item), i) }
+                }
+            }
+        }
+
+        private fun add(value: String, position: Int) {
+            pagesByValue.getOrPut(value) { BitSet() }.set(position)
+        }
+
+        private fun <T : Comparable<T>> groupValues(parse: (String) -> T?): NavigableMap<T, BitSet> {
+            val grouped = TreeMap<T, BitSet>()
+            for ((value, positions) in pagesByValue) {
+                val parsed = parse(value)
+                if (parsed != null) {
+                    grouped.getOrPut(parsed) { BitSet() }.or(positions)
+                }
+            }
+            return grouped
+        }
+
+        fun equalTo(value: String): BitSet {
+            return pagesByValue[value]?.clone() as BitSet? ?: BitSet()
+        }
+
+        fun startsWith(prefix: String): BitSet {
+            val matching = BitSet()
+            for ((value, positions) in pagesByValue.tailMap(prefix, true)) {
+                if (!value.startsWith(prefix)) {
+                    break
+                }
+                matching.or(positions)
+            }
+            return matching
+        }
+
+        /**
+         * Find the pages whose value is within a range. Values are compared as dates if `bound` is a date, as numbers if
+         * it is a number, and as Strings otherwise. A date without a time includes the whole day.
+         */
+        fun compareTo(bound: String, lower: Boolean, inclusive: Boolean): BitSet {
+            val date = parseDate(bound)
+            val number = parseNumber(bound)
+
+            val range: Collection<BitSet> = when {
+                date != null -> {
+                    val dateOnly = isDateOnly(bound)
+                    val dateBound = if (dateOnly && (lower != inclusive)) date.toLocalDate().atTime(23, 59, 59, 999999999) else date
+                    select(pagesByDate, dateBound, lower, inclusive)
+                }
+                number != null -> select(pagesByNumber, number, lower, inclusive)
+                else -> select(pagesByValue, bound, lower, inclusive).filterKeys { it.isNotEmpty() }
+            }.values
+
+            val matching = BitSet()
+            range.forEach { matching.or(it) }
+            return matching
+        }
+
+        // `lower` selects the values above the bound, otherwise the values below it are selected
+        private fun <T> select(map: NavigableMap<T, BitSet>, bound: T, lower: Boolean, inclusive: Boolean): Map<T, BitSet> {
+            return if (lower) map.tailMap(bound, inclusive) else map.headMap(bound, inclusive)
+        }
+    }
+
+    companion object {
+
+        // dates parsed from YAML front matter are java.util.Dates, which are indexed like any other date
+        fun valueToString(value: Any?): String {
+            return when (value) {
+                null -> ""
+                is Date -> LocalDateTime.ofInstant(value.toInstant(), ZoneOffset.UTC).toString()
+                else -> value.toString()
+            }
+        }
+
+        fun parseDate(value: String): LocalDateTime? {
+            if (value.isEmpty() || !value[0].isDigit()) {
+                return null
+            }
+            return try {
+                LocalDateTime.parse(value)
+            }
+            catch (e: DateTimeParseException) {
+                try {
+                    LocalDate.parse(value).atStartOfDay()
+                }
+                catch (e: DateTimeParseException) {
+                    null
+                }
+            }
+        }
+
+        fun isDateOnly(value: String): Boolean {
+            return try {
+                LocalDate.parse(value)
+                true
+            }
+            catch (e: DateTimeParseException) {
+                false
+            }
+        }
+
+        fun parseNumber(value: String): Double? {
+            if (value.isEmpty()) {
+                return null
+            }
+            return value.toDoubleOrNull()
+        }
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.eden.orchid.impl.generators.collections
+
+import java.util.BitSet
+
+/**
+ * A query against the Front Matter of pages, compiled from a String such as
+ * `tags in (news, events) & !(draft = true) & publishDate >= 2018-01-01`.
+ *
+ * Comparisons are written as `key <op> value`, with the following operators:
+ *
+ * - `=` or `==`: the value is equal to the given value. If the page's value is a list, any item may be equal.
+ * - `!=`: the value is not equal to the given value.
+ * - `^=`: the value starts with the given value.
+ * - `<`, `<=`, `>`, `>=`: the value is within a range. Values are compared as dates if the given value is a date, as
+ *   numbers if it is a number, and as Strings otherwise.
+ * - `in (a, b, ...)`: the value is equal to any of the given values.
+ *
+ * Comparisons can be combined with `&` (or `&&`, `and`), `|` (or `||`, `or`), and `!` (or `not`), and grouped with
+ * parentheses. `!` binds more tightly than `&`, which binds more tightly than `|`. Values may be quoted with single or
+ * double quotes if they contain any of these symbols.
+ */
+class FrontMatterQuery private constructor(val query: String, private val root: Node) {
+
+    /**
+     * Find the positions of the pages in an index which match this query.
+     */
+    fun evaluate(index: FrontMatterIndex): BitSet {
+        return root.evaluate(index)
+    }
+
+    override fun toString(): String {
+        return root.toString()
+    }
+
+    companion object {
+
+        /**
+         * Compile a query.
+         *
+         * @throws IllegalArgumentException if the query is not valid
+         */
+        fun compile(query: String): FrontMatterQuery {
+            return FrontMatterQuery(query, Parser(query).parse())
+        }
+    }
+
+// Query nodes
+//----------------------------------------------------------------------------------------------------------------------
+
+    private sealed class Node {
+        abstract fun evaluate(index: FrontMatterIndex): BitSet
+    }
+
+    private class And(val nodes: List<Node>) : Node() {
+        override fun evaluate(index: FrontMatterIndex): BitSet {
+            val result = nodes.first().evaluate(index)
+            for (node in nodes.drop(1)) {
+                if (result.isEmpty) {
+                    break
+                }
+                result.and(node.evaluate(index))
+            }
+            return result
+        }
+
+        override fun toString() = nodes.joinToString(" & ", "(", ")")
+    }
+
+    private class Or(val nodes: List<Node>) : Node() {
+        override fun evaluate(index: FrontMatterIndex): BitSet {
+            val result = nodes.first().evaluate(index)
+            for (node in nodes.drop(1)) {
+                result.or(node.evaluate(index))
+            }
+            return result
+        }
+
+        override fun toString() = nodes.joinToString(" | ", "(", ")")
+    }
+
+    private class Not(val node: Node) : Node() {
+        override fun evaluate(index: FrontMatterIndex): BitSet {
+            val result = index.all()
+            result.andNot(node.evaluate(index))
+            return result
+        }
+
+        override fun toString() = "!$node"
+    }
+
+    private class Comparison(val key: String, val op: String, val values: List<String>) : Node() {
+        override fun evaluate(index: FrontMatterIndex): BitSet {
+            val keyIndex = index.key(key)
+            return when (op) {
+                "=", "==" -> keyIndex.equalTo(values.first())
+                "!=" -> {
+                    val result = index.all()
+                    result.andNot(keyIndex.equalTo(values.first()))
+                    result
+                }
+                "^=" -> keyIndex.startsWith(values.first())
+                ">" -> keyIndex.compareTo(values.first(), lower = true, inclusive = false)
+                ">=" -> keyIndex.compareTo(values.first(), lower = true, inclusive = true)
+                "<" -> keyIndex.compareTo(values.first(), lower = false, inclusive = false)
+                "<=" -> keyIndex.compareTo(values.first(), lower = false, inclusive = true)
+                "in" -> {
+                    val result = BitSet()
+                    values.forEach { result.or(keyIndex.equalTo(it)) }
+                    result
+                }
+                else -> throw IllegalArgumentException("Unknown operator '$op'")
+            }
+        }
+
+        override fun toString() = if (op == "in") "$key in ${values.joinToString(", ", "(", ")")}" else "$key $op ${values.first()}"
+    }
+
+// Parser
+//----------------------------------------------------------------------------------------------------------------------
+
+    private class Parser(val query: String) {
+
+        private var pos = 0
+
+        fun parse(): Node {
+            val node = parseOr()
+            skipWhitespace()
+            if (pos < query.length) {
+                error("Unexpected '${query[pos]}'")
+            }
+            return node
+        }
+
+        // or := and (('|' | '||' | 'or') and)*
+        private fun parseOr(): Node {
+            val nodes = mutableListOf(parseAnd())
+            while (acceptSymbol("||") || acceptSymbol("|") || acceptWord("or")) {
+                nodes.add(parseAnd())
+            }
+            return if (nodes.size == 1) nodes.first() else Or(nodes)
+        }
+
+        // and := not (('&' | '&&' | 'and') not)*
+        private fun parseAnd(): Node {
+            val nodes = mutableListOf(parseNot())
+            while (acceptSymbol("&&") || acceptSymbol("&") || acceptWord("and")) {
+                nodes.add(parseNot())
+            }
+            return if (nodes.size == 1) nodes.first() else And(nodes)
+        }
+
+        // not := ('!' | 'not') not | primary
+        private fun parseNot(): Node {
+            skipWhitespace()
+            if (query.startsWith("!", pos) && !query.startsWith("!=", pos)) {
+                pos++
+                return Not(parseNot())
+            }
+            if (acceptWord("not")) {
+                return Not(parseNot())
+            }
+            return parsePrimary()
+        }
+
+        // primary := '(' or ')' | comparison
+        private fun parsePrimary(): Node {
+            if (acceptSymbol("(")) {
+                val node = parseOr()
+                if (!acceptSymbol(")")) {
+                    error("Expected ')'")
+                }
+                return node
+            }
+            return parseComparison()
+        }
+
+        // comparison := key op value | key 'in' '(' value (',' value)* ')'
+        private fun parseComparison(): Node {
+            val key = parseKey()
+
+            if (acceptWord("in")) {
+                if (!acceptSymbol("(")) {
+                    error("Expected '(' after 'in'")
+                }
+                val values = mutableListOf(parseValue(inList = true))
+                while (acceptSymbol(",")) {
+                    values.add(parseValue(inList = true))
+                }
+                if (!acceptSymbol(")")) {
+                    error("Expected ')'")
+                }
+                return Comparison(key, "in", values)
+            }
+
+            val op = operators.firstOrNull { acceptSymbol(it) } ?: error("Expected an operator after '$key'")
+            return Comparison(key, op, listOf(parseValue(inList = false)))
+        }
+
+        private fun parseKey(): String {
+            skipWhitespace()
+            val start = pos
+            while (pos < query.length && !query[pos].isWhitespace() && query[pos] !in keyTerminators) {
+                pos++
+            }
+            if (start == pos) {
+                error("Expected a key")
+            }
+            return query.substring(start, pos)
+        }
+
+        private fun parseValue(inList: Boolean): String {
+            skipWhitespace()
+            if (pos < query.length && (query[pos] == '"' || query[pos] == '\'')) {
+                val quote = query[pos]
+                val end = query.indexOf(quote, pos + 1)
+                if (end < 0) {
+                    error("Unterminated quoted value")
+                }
+                val value = query.substring(pos + 1, end)
+                pos = end + 1
+                return value
+            }
+
+            val start = pos
+            while (pos < query.length && !isValueEnd(inList)) {
+                pos++
+            }
+            return query.substring(start, pos).trim()
+        }
+
+        // an unquoted value continues until the next operator, so it may contain spaces
+        private fun isValueEnd(inList: Boolean): Boolean {
+            val c = query[pos]
+            if (c == '&' || c == '|' || c == ')' || (inList && c == ',')) {
+                return true
+            }
+            if (c.isWhitespace()) {
+                val next = query.substring(pos).trimStart()
+                return isWordAt(next, 0, "and") || isWordAt(next, 0, "or")
+            }
+            return false
+        }
+
+        private fun acceptSymbol(symbol: String): Boolean {
+            skipWhitespace()
+            if (query.startsWith(symbol, pos)) {
+                pos += symbol.length
+                return true
+            }
+            return false
+        }
+
+        private fun acceptWord(word: String): Boolean {
+            skipWhitespace()
+            if (isWordAt(query, pos, word)) {
+                pos += word.length
+                return true
+            }
+            return false
+        }
+
+        private fun isWordAt(s: String, index: Int, word: String): Boolean {
+            if (!s.regionMatches(index, word, 0, word.length, ignoreCase = true)) {
+                return false
+            }
+            val end = index + word.length
+            return end == s.length || s[end].isWhitespace() || s[end] == '('
+        }
+
+        private fun skipWhitespace() {
+            while (pos < query.length && query[pos].isWhitespace()) {
+                pos++
+            }
+        }
+
+        private fun error(message: String): Nothing {
+            throw IllegalArgumentException("Invalid Front Matter query '$query' at position $pos: $message")
+        }
+
+        companion object {
+            // longer operators first, so that '>=' is not read as '>'
+            val operators = listOf("!=", "^=", ">=", "<=", "==", "=", ">", "<")
+            val keyTerminators = "=!<>^()&|,".toSet()
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.eden.orchid.impl.themes.assets
+
+import com.eden.orchid.api.options.annotations.Description
+import com.eden.orchid.api.theme.assets.AssetPage
+import com.eden.orchid.api.theme.assets.AssetProcessor
+import javax.inject.Inject
+import javax.inject.Singleton
+
+@Singleton
+@Description(value = "Removes comments and unnecessary whitespace from stylesheets.", name = "CSS Minifier")
+class CssMinifier
+@Inject
+constructor() : AssetProcessor(100) {
+
+    override fun getOutputExtensions(): Array<String> {
+        return arrayOf("css")
+    }
+
+    override fun process(asset: AssetPage, content: String): String {
+        return minify(content)
+    }
+
+    companion object {
+        // whitespace is never needed after these characters, or before the ones in `noSpaceBefore`. Whitespace around
+        // `+`, `-`, and before `:` and `(` is kept, since it is significant in `calc()`, selectors, and media queries
+        private const val noSpaceAfter = "{};,>(:"
+        private const val noSpaceBefore = "{};,>)"
+
+        fun minify(input: String): String {
+            val output = StringBuilder(input.length)
+            var pendingSpace = false
+            var i = 0
+
+            while (i < input.length) {
+                val c = input[i]
+
+                when {
+                    c == '"' || c == '\'' -> {
+                        val end = findStringEnd(input, i)
+                        appendSpace(output, pendingSpace, c)
+                        output.append(input, i, end)
+                        pendingSpace = false
+                        i = end
+                    }
+                    c == '/' && i + 1 < input.length && input[i + 1] == '*' -> {
+                        val end = input.indexOf("*/", i + 2).let { if (it == -1) input.length else it + 2 }
+                        if (i + 2 < input.length && input[i + 2] == '!') {
+                            // keep license comments
+                            appendSpace(output, pendingSpace, c)
+                            output.append(input, i, end)
+                            pendingSpace = false
+                        }
+                        else {
+                            pendingSpace = true
+                        }
+                        i = end
+                    }
+                    c.isWhitespace() -> {
+                        pendingSpace = true
+                        i++
+                    }
+                    else -> {
+                        if (c == '}' && output.isNotEmpty() && output[output.length - 1] == ';') {
+                            output.setLength(output.length - 1)
+                        }
+                        appendSpace(output, pendingSpace, c)
+                        output.append(c)
+                        pendingSpace = false
+                        i++
+                    }
+                }
+            }
+
+            return output.toString()
+        }
+
+        private fun appendSpace(output: StringBuilder, pendingSpace: Boolean, next: Char) {
+            if (pendingSpace && output.isNotEmpty() && output[output.length - 1] !in noSpaceAfter && next !in noSpaceBefore) {
+                output.append(' ')
+            }
+        }
+
+        private fun findStringEnd(input: String, start: Int): Int {
+            val quote = input[start]
+            var i = start + 1
+            while (i < input.length) {
+                when (input[i]) {
+                    '\\' -> i += 2
+                    quote, '\n' -> return i + 1
+                    else -> i++
+                }
+            }
+            return input.length
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.eden.orchid.impl.themes.assets
+
+import com.eden.orchid.api.options.annotations.Description
+import com.eden.orchid.api.theme.assets.AssetPage
+import com.eden.orchid.api.theme.assets.AssetProcessor
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * A conservative Javascript minifier. Comments, indentation, blank lines, and repeated spaces are removed, but line
+ * breaks are kept so that automatic semicolon insertion works exactly as it did in the original script.
+ */
+@Singleton
+@Description(value = "Removes comments and unnecessary whitespace from scripts.", name = "JS Minifier")
+class JsMinifier
+@Inject
+constructor() : AssetProcessor(100) {
+
+    override fun getOutputExtensions(): Array<String> {
+        return arrayOf("js")
+    }
+
+    override fun process(asset: AssetPage, content: String): String {
+        return minify(content)
+    }
+
+    companion object {
+        // a `/` after one of these characters or keywords starts a regular expression, rather than a division
+        private const val regexPrefixes = "(,=:[!&|?{};+-*%<>~^"
+        private val regexKeywords = setOf("return", "typeof", "case", "do", "else", "in", "instanceof", "new", "delete", "void", "throw", "yield", "await")
+
+        fun minify(input: String): String {
+            val output = StringBuilder(input.length)
+            // the number of open braces within each template literal `${}` expression we are currently in
+            val templateDepths = ArrayList<Int>()
+            var pendingSpace = false
+            var pendingNewline = false
+            var i = 0
+
+            fun appendCode(code: CharSequence) {
+                if (output.isNotEmpty()) {
+                    if (pendingNewline) {
+                        output.append('\n')
+                    }
+                    else if (pendingSpace) {
+                        output.append(' ')
+                    }
+                }
+                output.append(code)
+                pendingSpace = false
+                pendingNewline = false
+            }
+
+            while (i < input.length) {
+                val c = input[i]
+                val next = if (i + 1 < input.length) input[i + 1] else '\u0000'
+
+                when {
+                    c == '\n' || c == '\r' -> {
+                        pendingNewline = true
+                        i++
+                    }
+                    c.isWhitespace() -> {
+                        pendingSpace = true
+                        i++
+                    }
+                    c == '/' && next == '/' -> {
+                        i = input.indexOf('\n', i).let { if (it == -1) input.length else it }
+                    }
+                    c == '/' && next == '*' -> {
+                        val end = input.indexOf("*/", i + 2).let { if (it == -1) input.length else it + 2 }
+                        if (i + 2 < input.length && input[i + 2] == '!') {
+                            // keep license comments
+                            appendCode(input.subSequence(i, end))
+                            pendingNewline = true
+                        }
+                        else if (input.subSequence(i, end).contains('\n')) {
+                            pendingNewline = true
+                        }
+                        else {
+                            pendingSpace = true
+                        }
+                        i = end
+                    }
+                    c == '/' && startsRegex(output) -> {
+                        val end = findRegexEnd(input, i)
+                        appendCode(input.subSequence(i, end))
+                        i = end
+                    }
+                    c == '"' || c == '\'' -> {
+                        val end = findStringEnd(input, i, c)
+                        appendCode(input.subSequence(i, end))
+                        i = end
+                    }
+                    c == '`' -> {
+                        val end = findTemplateEnd(input, i + 1)
+                        appendCode(input.subSequence(i, end))
+                        if (end >= 2 && input[end - 1] == '{' && input[end - 2] == '$') {
+                            templateDepths.add(0)
+                        }
+                        i = end
+                    }
+                    c == '{' && templateDepths.isNotEmpty() -> {
+                        templateDepths[templateDepths.size - 1]++
+                        appendCode("{")
+                        i++
+                    }
+                    c == '}' && templateDepths.isNotEmpty() -> {
+                        if (templateDepths[templateDepths.size - 1] > 0) {
+                            templateDepths[templateDepths.size - 1]--
+                            appendCode("}")
+                            i++
+                        }
+                        else {
+                            // the end of a `${}` expression, continue with the rest of the template literal
+                            templateDepths.removeAt(templateDepths.size - 1)
+                            val end = findTemplateEnd(input, i + 1)
+                            appendCode(input.subSequence(i, end))
+                            if (input[end - 1] == '{' && end - i > 2 && input[end - 2] == '$') {
+                                templateDepths.add(0)
+                            }
+                            i = end
+                        }
+                    }
+                    else -> {
+                        appendCode(c.toString())
+                        i++
+                    }
+                }
+            }
+
+            return output.toString()
+        }
+
+        private fun startsRegex(output: StringBuilder): Boolean {
+            if (output.isEmpty()) {
+                return true
+            }
+
+            val last = output[output.length - 1]
+            if (last in regexPrefixes) {
+                return true
+            }
+
+            if (isIdentifierPart(last)) {
+                var start = output.length
+                while (start > 0 && isIdentifierPart(output[start - 1])) {
+                    start--
+                }
+                return output.substring(start) in regexKeywords
+            }
+
+            return false
+        }
+
+        private fun isIdentifierPart(c: Char): Boolean {
+            return c.isLetterOrDigit() || c == '_' || c == '$'
+        }
+
+        private fun findStringEnd(input: String, start: Int, quote: Char): Int {
+            var i = start + 1
+            while (i < input.length) {
+                when (input[i]) {
+                    '\\' -> i += 2
+                    quote, '\n' -> return i + 1
+                    else -> i++
+                }
+            }
+            return input.length
+        }
+
+        private fun findRegexEnd(input: String, start: Int): Int {
+            var inClass = false
+            var i = start + 1
+            while (i < input.length) {
+                when (input[i]) {
+                    '\\' -> i += 2
+                    '[' -> { inClass = true; i++ }
+                    ']' -> { inClass = false; i++ }
+                    '/' -> if (inClass) i++ else return i + 1
+                    '\n' -> return i + 1
+                    else -> i++
+                }
+            }
+            return input.length
+        }
+
+        // returns the index after the closing backtick, or after the `${` that starts an expression
+        private fun findTemplateEnd(input: String, start: Int): Int {
+            var i = start
+            while (i < input.length) {
+                when {
+                    input[i] == '\\' -> i += 2
+                    input[i] == '`' -> return i + 1
+                    input[i] == '$' && i + 1 < input.length && input[i + 1] == '{' -> return i + 2
+                    else -> i++
+                }
+            }
+            return input.length
+        }
+    }
+
+}
@@ -15,6 +15,7 @@ import com.eden.orchid.api.theme.assets.AssetPage
 import com.eden.orchid.api.theme.assets.Resizable
 import com.eden.orchid.api.theme.assets.Rotateable
 import com.eden.orchid.api.theme.assets.Scalable
+import com.eden.orchid.api.theme.assets.ThumbnailCache
 import com.eden.orchid.impl.relations.AssetRelation
 import com.eden.orchid.utilities.convertOutputStream
 import net.coobird.thumbnailator.Thumbnails
@@ -178,8 +179,11 @@ constructor(
     }
 }
 
-class ThumbnailResource(
-        resource: OrchidResource
+class ThumbnailResource
+@JvmOverloads
+constructor(
+        resource: OrchidResource,
+        private val thumbnailCache: ThumbnailCache? = null
 ) : ResourceTransformation(resource),
         OptionsHolder,
         Rotateable,
@@ -194,18 +198,33 @@ class ThumbnailResource(
         contentStreamTransformations = mutableListOf()
     }
 
+    // describes each transformation, so transformed images can be looked up in the cache before transforming them
+    private val transformationKeys = mutableListOf<String>()
+
+    override fun getContentStream(): InputStream {
+        if (thumbnailCache == null || transformationKeys.isEmpty()) {
+            return super.getContentStream()
+        }
+
+        val transformations = (transformationKeys + reference.outputExtension).joinToString("|")
+        return thumbnailCache.get(resource, transformations) { super.getContentStream() }
+    }
+
     override fun rotate(page: AssetPage, angle: Double) {
         page.reference.fileName = page.reference.originalFileName + "_rotate-${angle}"
+        transformationKeys.add("rotate-${angle}")
         contentStreamTransformations.add { input -> rotateTransformation(input, angle, reference.outputExtension) }
     }
 
     override fun scale(page: AssetPage, factor: Double) {
         page.reference.fileName = page.reference.originalFileName + "_scale-${factor}"
+        transformationKeys.add("scale-${factor}")
         contentStreamTransformations.add { input -> scaleTransformation(input, factor, reference.outputExtension) }
     }
 
     override fun resize(page: AssetPage, width: Int, height: Int, mode: Resizable.Mode) {
         page.reference.fileName = page.reference.originalFileName + "_${width}x${height}_${mode.name}"
+        transformationKeys.add("resize-${width}x${height}-${mode.name}")
         contentStreamTransformations.add { input -> resizeTransformation(input, width, height, mode, reference.outputExtension) }
     }
 
@@ -20,6 +20,10 @@ constructor(
     @Description("An optional title for this divider, to create a contextual section within the menu.")
     lateinit var title: String
 
+    override fun isDependentOnPage(): Boolean {
+        return false
+    }
+
     override fun getMenuItems(): List<MenuItem> {
         val menuItems = ArrayList<MenuItem>()
 
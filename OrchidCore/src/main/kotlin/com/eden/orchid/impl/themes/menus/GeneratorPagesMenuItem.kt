@@ -24,6 +24,10 @@ constructor(
     @Description("The generator to show all items for.")
     lateinit var generator: String
 
+    override fun isDependentOnPage(): Boolean {
+        return false
+    }
+
     override fun getMenuItems(): List<MenuItem> {
         val menuItems = ArrayList<MenuItem>()
         if (!EdenUtils.isEmpty(title) && !EdenUtils.isEmpty(generator)) {
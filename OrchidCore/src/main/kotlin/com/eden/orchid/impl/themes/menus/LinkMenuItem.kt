@@ -29,6 +29,11 @@ constructor(
     )
     lateinit var url: String
 
+    // only links to an anchor are relative to the current page
+    override fun isDependentOnPage(): Boolean {
+        return url.trim().startsWith("#")
+    }
+
     override fun getMenuItems(): List<MenuItem> {
         val menuItems = ArrayList<MenuItem>()
 
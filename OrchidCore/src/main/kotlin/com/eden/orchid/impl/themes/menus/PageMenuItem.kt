@@ -34,6 +34,11 @@ constructor(
     @Description("The specific Id of the given collection type where the item is expected to come from.")
     lateinit var collectionId: String
 
+    // the current page is only used when no page query is given
+    override fun isDependentOnPage(): Boolean {
+        return collectionType.isEmpty() && collectionId.isEmpty() && itemId.isEmpty()
+    }
+
     override fun getMenuItems(): List<MenuItem> {
         val page: OrchidPage? = if(collectionType.isEmpty() && collectionId.isEmpty() && itemId.isEmpty()) {
             context.findPageOrDefault(collectionType, collectionId, itemId, page)
@@ -2,15 +2,21 @@ package com.eden.orchid.impl.themes.tags
 
 import com.eden.orchid.api.compilers.TemplateTag
 import com.eden.orchid.api.options.annotations.Description
+import com.eden.orchid.api.theme.assets.AssetManager
+import com.eden.orchid.api.theme.assets.CssPage
 
 import javax.inject.Inject
 
 @Description(value = "Render all style tags to the page.", name = "Styles")
 class StylesTag @Inject
-constructor() : TemplateTag("styles", TemplateTag.Type.Simple, true) {
+constructor(
+        val assetManager: AssetManager
+) : TemplateTag("styles", TemplateTag.Type.Simple, true) {
 
     override fun parameters(): Array<String> {
         return arrayOf()
     }
 
+    val styles: List<CssPage> get() = assetManager.bundleStyles(page.styles)
+
 }
@@ -1,5 +1,11 @@
 package com.eden.orchid.utilities
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
 // Taken from https://medium.com/@kezhenxu94/how-to-build-your-own-cache-in-kotlin-1b0e86005591
 
 interface Cache<T, U> {
@@ -14,15 +20,15 @@ interface Cache<T, U> {
     fun remove(key: T): U?
 
     fun clear()
-}
-fun <T, U> Cache<T, U>.computeIfAbsent(key: T, loader: () -> U): U? {
-    return if(this.containsKey(key)) {
-        this[key]
-    }
-    else {
-        val value = loader()
-        this[key] = value
-        return value
+
+    fun computeIfAbsent(key: T, loader: () -> U): U? {
+        return if (this.containsKey(key)) {
+            this[key]
+        } else {
+            val value = loader()
+            this[key] = value
+            value
+        }
     }
 }
 
@@ -92,3 +98,154 @@ constructor(private val delegate: Cache<T, U> = PerpetualCache(), private val ma
         private const val PRESENT = true
     }
 }
+
+/**
+ * A thread-safe Cache with approximate LRU eviction. Keys are spread across segments which are each locked
+ * independently and each hold an equal share of the max size, so parallel lookups only contend when they land in the
+ * same segment. Values are loaded outside of any lock, and concurrent calls to `computeIfAbsent` for the same key all
+ * wait on a single load. A loader which looks up its own key again, such as a template which includes itself, gets the
+ * value loaded directly rather than waiting on itself. Null values are cached like any other, so a failed lookup is not
+ * repeated.
+ */
+class ConcurrentLRUCache<T, U>
+@JvmOverloads
+constructor(maxSize: Int = DEFAULT_SIZE, concurrencyLevel: Int = DEFAULT_CONCURRENCY_LEVEL) : Cache<T, U> {
+
+    private val segments = List(Math.max(1, concurrencyLevel)) { Segment() }
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+    private val evictions = AtomicLong()
+
+    var maxSize: Int = maxSize
+        set(value) {
+            field = Math.max(1, value)
+            segments.forEach { segment -> segment.lock.withLock { segment.trim() } }
+        }
+
+    val hitCount: Long
+        get() = hits.get()
+
+    val missCount: Long
+        get() = misses.get()
+
+    val evictionCount: Long
+        get() = evictions.get()
+
+    override val size: Int
+        get() = segments.sumBy { segment -> segment.lock.withLock { segment.entries.size } }
+
+    override fun set(key: T, value: U) {
+        val segment = segmentFor(key)
+        segment.lock.withLock {
+            segment.entries[key] = CompletableFuture.completedFuture<U?>(value)
+            segment.trim()
+        }
+    }
+
+    override fun get(key: T): U? {
+        val segment = segmentFor(key)
+        val entry = segment.lock.withLock { segment.entries[key] }
+
+        return if (entry != null && !isLoadingOnCurrentThread(entry)) {
+            hits.incrementAndGet()
+            await(entry)
+        } else {
+            misses.incrementAndGet()
+            null
+        }
+    }
+
+    override fun containsKey(key: T): Boolean {
+        val segment = segmentFor(key)
+        return segment.lock.withLock { segment.entries.containsKey(key) }
+    }
+
+    override fun remove(key: T): U? {
+        val segment = segmentFor(key)
+        val entry = segment.lock.withLock { segment.entries.remove(key) }
+
+        return if (entry != null && entry.isDone && !entry.isCompletedExceptionally) entry.getNow(null) else null
+    }
+
+    override fun clear() {
+        segments.forEach { segment -> segment.lock.withLock { segment.entries.clear() } }
+    }
+
+    override fun computeIfAbsent(key: T, loader: () -> U): U? {
+        val segment = segmentFor(key)
+        val newEntry = Load<U?>(Thread.currentThread())
+        val existingEntry = segment.lock.withLock {
+            val entry = segment.entries[key]
+            if (entry == null) {
+                segment.entries[key] = newEntry
+                segment.trim()
+            }
+            entry
+        }
+
+        if (existingEntry != null) {
+            // waiting on a load started further up this thread's own stack would never finish, so load it again instead
+            if (isLoadingOnCurrentThread(existingEntry)) {
+                misses.incrementAndGet()
+                return loader()
+            }
+            hits.incrementAndGet()
+            return await(existingEntry)
+        }
+
+        misses.incrementAndGet()
+        try {
+            val value = loader()
+            newEntry.complete(value)
+            return value
+        } catch (e: Throwable) {
+            segment.lock.withLock {
+                if (segment.entries[key] === newEntry) segment.entries.remove(key)
+            }
+            newEntry.completeExceptionally(e)
+            throw e
+        }
+    }
+
+    private fun segmentFor(key: T): Segment {
+        val hash = key?.hashCode() ?: 0
+        return segments[Math.floorMod(hash xor (hash ushr 16), segments.size)]
+    }
+
+    private fun isLoadingOnCurrentThread(entry: CompletableFuture<U?>): Boolean {
+        return entry is Load<*> && !entry.isDone && entry.thread === Thread.currentThread()
+    }
+
+    private fun await(entry: CompletableFuture<U?>): U? {
+        try {
+            return entry.join()
+        } catch (e: CompletionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    // a value being loaded, and the thread loading it
+    private class Load<V>(val thread: Thread) : CompletableFuture<V>()
+
+    private inner class Segment {
+        val lock = ReentrantLock()
+        val entries = LinkedHashMap<T, CompletableFuture<U?>>(16, .75f, true)
+
+        // must be called while holding the lock
+        fun trim() {
+            val capacity = Math.max(1, Math.ceil(maxSize.toDouble() / segments.size).toInt())
+            val iterator = entries.entries.iterator()
+            while (entries.size > capacity && iterator.hasNext()) {
+                iterator.next()
+                iterator.remove()
+                evictions.incrementAndGet()
+            }
+        }
+    }
+
+    companion object {
+        private const val DEFAULT_SIZE = 250
+        private const val DEFAULT_CONCURRENCY_LEVEL = 16
+    }
+}
@@ -121,6 +121,24 @@ public final class CompilerServiceTest extends BaseOrchidTest {
         assertThat(underTest.compile("mkdwn", mockInput), is(compiledOutput));
     }
 
+    @Test
+    public void compileWithNonThreadSafeSingleton() throws Throwable {
+        when(mockCompiler.isThreadSafe()).thenReturn(false);
+        when(context.resolve(any())).thenReturn(null);
+
+        assertThat(underTest.compile("md", mockInput), is(compiledOutput));
+        verify(mockCompiler, times(1)).compile("md", mockInput, null);
+    }
+
+    @Test
+    public void compileWithThreadSafeCompiler() throws Throwable {
+        when(mockCompiler.isThreadSafe()).thenReturn(true);
+
+        assertThat(underTest.compile("md", mockInput), is(compiledOutput));
+        verify(mockCompiler, times(1)).compile("md", mockInput, null);
+        verify(context, never()).resolve(any());
+    }
+
     @Test
     public void parse() throws Throwable {
         assertThat(underTest.parse("yml", mockInput), is(parsedOutput));
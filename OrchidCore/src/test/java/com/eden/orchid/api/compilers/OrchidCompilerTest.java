@@ -27,4 +27,9 @@ public final class OrchidCompilerTest extends BaseOrchidTest {
     public void getCompilerExtensions() throws Throwable {
         assertThat(underTest.getPriority(), is(equalTo(100)));
     }
+
+    @Test
+    public void isNotThreadSafeByDefault() throws Throwable {
+        assertThat(underTest.isThreadSafe(), is(false));
+    }
 }
@@ -7,9 +7,12 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.*;
@@ -173,6 +176,27 @@ public final class EventServiceTest extends BaseOrchidTest {
         verify(listener).callbackOne(any());
     }
 
+    @Test
+    public void callbacksAreCalledInPriorityOrder() throws Throwable {
+        OrderedEventListener orderedEventListener = new OrderedEventListener();
+        underTest.registerEventListeners(orderedEventListener);
+
+        underTest.broadcast(new OrderedEvent(sender));
+
+        assertThat(orderedEventListener.calls, contains("high", "normal", "low"));
+    }
+
+    @Test
+    public void asyncCallbacksAreCalledOnAnotherThread() throws Throwable {
+        AsyncEventListener asyncEventListener = new AsyncEventListener();
+        underTest.registerEventListeners(asyncEventListener);
+
+        underTest.broadcast(new OrderedEvent(sender));
+
+        assertThat(asyncEventListener.called.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(asyncEventListener.thread, is(not(equalTo(Thread.currentThread().getName()))));
+    }
+
 // Classes used for testing
 //----------------------------------------------------------------------------------------------------------------------
 
@@ -283,6 +307,42 @@ public final class EventServiceTest extends BaseOrchidTest {
         }
     }
 
+    private static class OrderedEvent extends OrchidEvent {
+        public OrderedEvent(Object sender) {
+            super(sender);
+        }
+    }
+
+    public static class OrderedEventListener implements OrchidEventListener {
+        private final List<String> calls = new ArrayList<>();
+
+        @On(value = OrderedEvent.class, priority = -10)
+        public void low(OrderedEvent event) {
+            calls.add("low");
+        }
+
+        @On(OrderedEvent.class)
+        public void normal(OrderedEvent event) {
+            calls.add("normal");
+        }
+
+        @On(value = OrderedEvent.class, priority = 10)
+        public void high(OrderedEvent event) {
+            calls.add("high");
+        }
+    }
+
+    public static class AsyncEventListener implements OrchidEventListener {
+        private final CountDownLatch called = new CountDownLatch(1);
+        private volatile String thread;
+
+        @On(value = OrderedEvent.class, async = true)
+        public void onEvent(OrderedEvent event) {
+            thread = Thread.currentThread().getName();
+            called.countDown();
+        }
+    }
+
     private class DynamicEventListener implements OrchidEventListener {
         @On(TestEvent.class)
         public void callbackOne(TestEvent event) {
@@ -4,6 +4,7 @@ import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.OrchidService;
 import com.eden.orchid.api.indexing.OrchidRootIndex;
 import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.resources.resource.FileResource;
 import com.eden.orchid.api.resources.resource.FreeableResource;
 import com.eden.orchid.api.resources.resource.OrchidResource;
 import com.eden.orchid.api.resources.resource.StringResource;
@@ -13,9 +14,16 @@ import com.eden.orchid.api.theme.pages.OrchidReference;
 import com.eden.orchid.testhelpers.BaseOrchidTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.stubbing.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,10 +36,14 @@ import static org.mockito.Mockito.*;
 
 public final class GeneratorServiceTest extends BaseOrchidTest {
 
+    @TempDir
+    Path tempDir;
+
     private OrchidContext context;
     private OptionsExtractor extractor;
     private Theme theme;
     private BuildMetrics buildMetrics;
+    private BuildDependencies buildDependencies;
 
     private GeneratorService underTest;
     private GeneratorServiceImpl service;
@@ -63,6 +75,7 @@ public final class GeneratorServiceTest extends BaseOrchidTest {
         extractor = mock(OptionsExtractor.class);
         theme = mock(Theme.class);
         buildMetrics = mock(BuildMetrics.class);
+        buildDependencies = new BuildDependencies();
 
         internalIndex = new OrchidRootIndex("internal");
         externalIndex = new OrchidRootIndex("external");
@@ -99,7 +112,7 @@ public final class GeneratorServiceTest extends BaseOrchidTest {
         generators.add(generator3);
 
         // test the service directly
-        service = new GeneratorServiceImpl(generators, buildMetrics);
+        service = new GeneratorServiceImpl(generators, buildMetrics, buildDependencies);
         service.initialize(context);
 
         // test that the default implementation is identical to the real implementation
@@ -196,4 +209,79 @@ public final class GeneratorServiceTest extends BaseOrchidTest {
         verify(mockFreeableResource).free();
     }
 
+    @Test
+    public void testIncrementalIndexing() throws Throwable {
+        Path sourceFile = Paths.get("pages/page1.md").toAbsolutePath();
+        mockPage1.setResource(new FileResource(sourceFile.toFile(), mockPage1Reference));
+        doAnswer((Answer) invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(context).doWithTheme(any(), any());
+
+        underTest.startIndexing();
+        underTest.startGeneration();
+
+        // page2 was rendered without looking up any pages from gen1
+        Object previousDependent = buildDependencies.startTracking(mockPage2);
+        buildDependencies.stopTracking(previousDependent);
+        clearInvocations(generator1, generator2, generator3);
+        generator1.generatedPages = null;
+        generator2.generatedPages = null;
+
+        assertThat(underTest.startIndexing(Collections.singletonList(sourceFile)), is(true));
+        underTest.startGeneration();
+
+        verify(generator1).startIndexing();
+        verify(generator2, never()).startIndexing();
+        verify(generator3, never()).startIndexing();
+        assertThat(generator1.generatedPages, contains(mockPage1));
+        assertThat(generator2.generatedPages, is(nullValue()));
+        assertThat(generator3.generatedPages, is(emptyIterable()));
+
+        // changes to files which aren't the source of any page need a full build
+        assertThat(underTest.startIndexing(Collections.singletonList(Paths.get("templates/layouts/index.peb"))), is(false));
+    }
+
+    @Test
+    public void testIncrementalIndexingOfDirectories() throws Throwable {
+        Path pagesDir = Files.createDirectories(tempDir.resolve("pages")).toAbsolutePath().normalize();
+        mockPage1.setResource(new FileResource(pagesDir.resolve("page1.md").toFile(), mockPage1Reference));
+
+        underTest.startIndexing();
+        underTest.startGeneration();
+        clearInvocations(generator1, generator2, generator3);
+
+        // a directory holding indexed pages indexes the generators of those pages again
+        assertThat(underTest.startIndexing(Collections.singletonList(pagesDir)), is(true));
+        verify(generator1).startIndexing();
+        verify(generator2, never()).startIndexing();
+
+        // a newly-created directory may hold pages for any generator, so it needs a full build
+        Path newDir = Files.createDirectories(tempDir.resolve("posts"));
+        assertThat(underTest.startIndexing(Collections.singletonList(newDir)), is(false));
+        assertThat(underTest.startIndexing(Arrays.asList(pagesDir, newDir)), is(false));
+    }
+
+    @Test
+    public void testScheduledGeneration() throws Throwable {
+        doAnswer((Answer) invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(context).doWithTheme(any(), any());
+        service.setRenderThreads(2);
+
+        underTest.startIndexing();
+        underTest.startGeneration();
+
+        assertThat(generator1.generatedPages, contains(mockPage1));
+        assertThat(generator2.generatedPages, contains(mockPage2));
+        assertThat(generator3.generatedPages, is(emptyIterable()));
+
+        // generators with a higher priority finish before the next priority starts
+        InOrder inOrder = inOrder(generator3, generator2, generator1);
+        inOrder.verify(generator3).startGeneration(any());
+        inOrder.verify(generator2).startGeneration(any());
+        inOrder.verify(generator1).startGeneration(any());
+    }
+
 }
@@ -2,11 +2,20 @@ package com.eden.orchid.api.indexing;
 
 import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.OrchidService;
+import com.eden.orchid.api.generators.BuildDependencies;
+import com.eden.orchid.api.generators.FileCollection;
+import com.eden.orchid.api.theme.pages.OrchidPage;
 import com.eden.orchid.testhelpers.BaseOrchidTest;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 
 public final class IndexServiceTest extends BaseOrchidTest {
@@ -15,13 +24,19 @@ public final class IndexServiceTest extends BaseOrchidTest {
     private IndexService underTest;
     private IndexServiceImpl service;
 
+    private OrchidPage pageOne;
+    private OrchidPage pageTwo;
+    private OrchidPage pageThree;
+    private OrchidPage pageFour;
+
     @BeforeEach
     public void setUp() {
         super.setUp();
         // test the service directly
         context = mock(OrchidContext.class);
-        service = new IndexServiceImpl(new HashSet<>());
+        service = new IndexServiceImpl(new HashSet<>(), new BuildDependencies());
         service.initialize(context);
+        service.clearIndex();
 
         // test that the default implementation is identical to the real implementation
         underTest = new IndexService() {
@@ -30,4 +45,63 @@ public final class IndexServiceTest extends BaseOrchidTest {
         };
     }
 
+
+    private OrchidPage page(String title) {
+        OrchidPage page = mock(OrchidPage.class);
+        when(page.getTitle()).thenReturn(title);
+        return page;
+    }
+
+    private void addCollections() {
+        pageOne = page("One");
+        pageTwo = page("Two");
+        pageThree = page("Three");
+        pageFour = page("Two");
+
+        underTest.addCollections(Arrays.asList(
+                new FileCollection("pages", "first", Arrays.asList(pageOne, pageTwo)),
+                new FileCollection("pages", "second", Arrays.asList(pageTwo, pageThree)),
+                new FileCollection("posts", "first", Arrays.asList(pageFour))
+        ));
+    }
+
+    @Test
+    public void testFindByTypeAndId() throws Throwable {
+        addCollections();
+
+        assertThat(underTest.find("pages", null, "Two"), is(sameInstance(pageTwo)));
+        assertThat(underTest.find("posts", null, "Two"), is(sameInstance(pageFour)));
+        assertThat(underTest.find(null, "second", "Three"), is(sameInstance(pageThree)));
+        assertThat(underTest.find("pages", "first", "Three"), is(nullValue()));
+        assertThat(underTest.find("missing", null, "One"), is(nullValue()));
+
+        assertThat(underTest.findAll(null, null, "Two"), contains((Object) pageTwo, pageFour));
+        assertThat(underTest.findAll("pages", null, null), contains((Object) pageOne, pageTwo, pageThree));
+    }
+
+    @Test
+    public void testFindIncludesCollectionsAddedLater() throws Throwable {
+        addCollections();
+        assertThat(underTest.find("wiki", null, "One"), is(nullValue()));
+
+        OrchidPage wikiPage = page("One");
+        List<OrchidPage> wikiPages = new ArrayList<>();
+        underTest.addCollections(Arrays.asList(new FileCollection("wiki", "wiki", wikiPages)));
+        assertThat(underTest.findAll("wiki", null, "One").isEmpty(), is(true));
+
+        // pages added to a collection's list after it was added are still found
+        wikiPages.add(wikiPage);
+        assertThat(underTest.findAll("wiki", null, "One"), contains((Object) wikiPage));
+    }
+
+    @Test
+    public void testFindAllPaged() throws Throwable {
+        addCollections();
+
+        assertThat(underTest.findAll("pages", null, null, 1, 2), contains((Object) pageOne, pageTwo));
+        assertThat(underTest.findAll("pages", null, null, 2, 2), contains((Object) pageThree));
+        assertThat(underTest.findAll("pages", null, null, 3, 2).isEmpty(), is(true));
+        assertThat(underTest.findAll(null, null, "Two", 2, 1), contains((Object) pageFour));
+    }
+
 }
@@ -0,0 +1,97 @@
+package com.eden.orchid.api.publication;
+
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import com.eden.orchid.utilities.OrchidUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public final class DeployManifestTest extends BaseOrchidTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DeployManifest underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        underTest = new DeployManifest(tempDir.toString());
+    }
+
+    private Path write(String name, String content) throws Throwable {
+        Path file = tempDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(Charset.forName("UTF-8")));
+        return file;
+    }
+
+    @Test
+    public void testManifestListsAllFiles() throws Throwable {
+        write("index.html", "home");
+        write("assets/css/styles.css", "a{color:red}");
+        write("assets/js/copy.js", "home");
+
+        Map<String, DeployManifest.Entry> entries = underTest.getEntries();
+
+        assertThat(entries.keySet(), contains("assets/css/styles.css", "assets/js/copy.js", "index.html"));
+        assertThat(entries.get("index.html").getSize(), is(equalTo(4L)));
+        assertThat(entries.get("index.html").getSha1(), is(equalTo(OrchidUtils.sha1("home"))));
+        assertThat(underTest.getEntriesByHash().get(OrchidUtils.sha1("home")), hasSize(2));
+
+        // computed once until it is invalidated
+        assertThat(underTest.getEntries(), is(sameInstance(entries)));
+    }
+
+    @Test
+    public void testOnlyChangedFilesAreHashedAgain() throws Throwable {
+        write("index.html", "home");
+        Path styles = write("assets/css/styles.css", "a{color:red}");
+
+        Map<String, DeployManifest.Entry> entries = underTest.getEntries();
+
+        write("assets/css/styles.css", "a{color:blue}");
+        Files.setLastModifiedTime(styles, FileTime.fromMillis(entries.get("assets/css/styles.css").getLastModified() + 1000));
+        write("about.html", "about");
+        underTest.invalidate();
+
+        Map<String, DeployManifest.Entry> newEntries = underTest.getEntries();
+        assertThat(newEntries.keySet(), contains("about.html", "assets/css/styles.css", "index.html"));
+        assertThat(newEntries.get("index.html"), is(sameInstance(entries.get("index.html"))));
+        assertThat(newEntries.get("assets/css/styles.css").getSha1(), is(equalTo(OrchidUtils.sha1("a{color:blue}"))));
+    }
+
+    @Test
+    public void testHashesArePersistedBetweenDeploys() throws Throwable {
+        underTest = new DeployManifest(tempDir.resolve("build").toString());
+        underTest.setPersistent(true);
+        write("build/index.html", "home");
+        write("build/about.html", "about");
+
+        DeployManifest.Entry entry = underTest.getEntries().get("about.html");
+        assertThat(Files.exists(tempDir.resolve("build-manifest.json")), is(true));
+
+        // files are only hashed again when their size or modification time changes
+        write("build/about.html", "ABOUT");
+        Files.setLastModifiedTime(tempDir.resolve("build/about.html"), FileTime.fromMillis(entry.getLastModified()));
+
+        DeployManifest nextDeploy = new DeployManifest(tempDir.resolve("build").toString());
+        nextDeploy.setPersistent(true);
+        assertThat(nextDeploy.getEntries().get("index.html").getSha1(), is(equalTo(OrchidUtils.sha1("home"))));
+        assertThat(nextDeploy.getEntries().get("about.html").getSha1(), is(equalTo(OrchidUtils.sha1("about"))));
+
+        write("build/about.html", "about page");
+        nextDeploy.invalidate();
+        assertThat(nextDeploy.getEntries().get("about.html").getSha1(), is(equalTo(OrchidUtils.sha1("about page"))));
+    }
+
+}
@@ -3,6 +3,8 @@ package com.eden.orchid.api.publication;
 import com.eden.orchid.api.OrchidContext;
 
 import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 public class MockPublisher extends OrchidPublisher {
 
@@ -19,6 +21,7 @@ public class MockPublisher extends OrchidPublisher {
     public void extractOptions(OrchidContext context, Map<String, Object> options) {
         setOrder(getPriority());
         setDry(options.get("dry") != null && Boolean.parseBoolean(options.get("dry").toString()));
+        setConcurrent(options.get("concurrent") != null && Boolean.parseBoolean(options.get("concurrent").toString()));
 
     }
 
@@ -51,4 +54,23 @@ public class MockPublisher extends OrchidPublisher {
             super(context, "crashing", 10, true, true);
         }
     }
+
+    public static class BarrierPublisher extends MockPublisher {
+        private final CyclicBarrier barrier = new CyclicBarrier(2);
+
+        public BarrierPublisher(OrchidContext context) {
+            super(context, "barrier", 500, true, false);
+        }
+
+        @Override
+        public void publish() {
+            // only completes when two publications are running at the same time
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            }
+            catch (Exception e) {
+                throw new RuntimeException("This MockPublisher was not published concurrently", e);
+            }
+        }
+    }
 }
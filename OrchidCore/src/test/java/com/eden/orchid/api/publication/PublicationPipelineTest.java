@@ -31,6 +31,7 @@ public final class PublicationPipelineTest extends BaseOrchidTest {
     private MockPublisher.CrashingPublisher crashingPublisher;
     private MockPublisher.InvalidPublisher invalidPublisher;
     private MockPublisher.ValidPublisher validPublisher;
+    private MockPublisher.BarrierPublisher barrierPublisher;
 
     private int progressUpdates;
 
@@ -59,20 +60,24 @@ public final class PublicationPipelineTest extends BaseOrchidTest {
         crashingPublisher = new MockPublisher.CrashingPublisher(context);
         invalidPublisher = new MockPublisher.InvalidPublisher(context);
         validPublisher = new MockPublisher.ValidPublisher(context);
+        barrierPublisher = new MockPublisher.BarrierPublisher(context);
 
         publishers.add(crashingPublisher);
         publishers.add(invalidPublisher);
         publishers.add(validPublisher);
+        publishers.add(barrierPublisher);
 
         when(context.resolveSet(OrchidPublisher.class)).thenReturn(publishers);
 
         crashingPublisher = spy(crashingPublisher);
         invalidPublisher = spy(invalidPublisher);
         validPublisher = spy(validPublisher);
+        barrierPublisher = spy(barrierPublisher);
 
         when(context.resolve(MockPublisher.CrashingPublisher.class)).thenReturn(crashingPublisher);
         when(context.resolve(MockPublisher.InvalidPublisher.class)).thenReturn(invalidPublisher);
         when(context.resolve(MockPublisher.ValidPublisher.class)).thenReturn(validPublisher);
+        when(context.resolve(MockPublisher.BarrierPublisher.class)).thenReturn(barrierPublisher);
 
         underTest = new PublicationPipeline(context);
     }
@@ -242,4 +247,21 @@ public final class PublicationPipelineTest extends BaseOrchidTest {
         assertThat(didProgressComplete, is(true));
     }
 
+    @Test
+    public void testConcurrentPublishersRunTogether() {
+        List<Map<String, Object>> stagesJson = new ArrayList<>();
+        stagesJson.add(new JSONObject("{\"type\": \"barrier\", \"concurrent\": true}").toMap());
+        stagesJson.add(new JSONObject("{\"type\": \"barrier\", \"concurrent\": true}").toMap());
+        stagesJson.add(new JSONObject("{\"type\": \"valid\"}").toMap());
+        underTest.initialize(stagesJson);
+
+        boolean success = underTest.publishAll(false, progressHandler);
+
+        verify(barrierPublisher, times(2)).publish();
+        verify(validPublisher, times(1)).publish();
+
+        assertThat(success, is(true));
+        assertThat(progressUpdates, is(equalTo(4)));
+    }
+
 }
@@ -0,0 +1,135 @@
+package com.eden.orchid.api.render;
+
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.generators.BuildDependencies;
+import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.resources.resource.FileResource;
+import com.eden.orchid.api.resources.resource.StringResource;
+import com.eden.orchid.api.theme.pages.OrchidPage;
+import com.eden.orchid.api.theme.pages.OrchidReference;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class BuildCacheTest extends BaseOrchidTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OrchidContext context;
+    private Path sourceFile;
+    private Path outputFile;
+    private OrchidPage page;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        context = mock(OrchidContext.class);
+        when(context.getConfig()).thenReturn(new HashMap<>());
+        when(context.getData()).thenReturn(new HashMap<>());
+        when(context.resolve(OptionsExtractor.class)).thenReturn(mock(OptionsExtractor.class));
+
+        sourceFile = tempDir.resolve("src/page1.md");
+        outputFile = tempDir.resolve("dest/page1");
+
+        OrchidReference reference = new OrchidReference(context, "page1.html");
+        page = new OrchidPage(new FileResource(sourceFile.toFile(), reference), "page1", "");
+    }
+
+    private BuildCache newBuildCache() {
+        BuildCache buildCache = new BuildCache(() -> context, new BuildDependencies(), tempDir.resolve("src").toString(), tempDir.resolve("dest").toString());
+        buildCache.setCacheDir(tempDir.resolve(".orchid-cache"));
+        return buildCache;
+    }
+
+    private void write(Path file, String content) throws Throwable {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(Charset.forName("UTF-8")));
+    }
+
+    @Test
+    public void testUnchangedPagesAreUpToDate() throws Throwable {
+        write(sourceFile, "content");
+        BuildCache underTest = newBuildCache();
+
+        assertThat(underTest.isUpToDate(page), is(false));
+
+        write(outputFile, "rendered content");
+        underTest.update(page);
+        assertThat(underTest.isUpToDate(page), is(true));
+
+        write(sourceFile, "changed content");
+        underTest.onClearCache(null);
+        assertThat(underTest.isUpToDate(page), is(false));
+    }
+
+    @Test
+    public void testMissingOutputIsNotUpToDate() throws Throwable {
+        write(sourceFile, "content");
+        BuildCache underTest = newBuildCache();
+
+        underTest.update(page);
+        assertThat(underTest.isUpToDate(page), is(false));
+    }
+
+    @Test
+    public void testCacheIsKeptBetweenBuilds() throws Throwable {
+        write(sourceFile, "content");
+        write(outputFile, "rendered content");
+
+        BuildCache firstBuild = newBuildCache();
+        firstBuild.update(page);
+        firstBuild.onBuildFinish(Orchid.Lifecycle.BuildFinish.fire(this));
+
+        BuildCache secondBuild = newBuildCache();
+        assertThat(secondBuild.isUpToDate(page), is(true));
+    }
+
+    @Test
+    public void testRemovedPagesArePruned() throws Throwable {
+        write(sourceFile, "content");
+        write(outputFile, "rendered content");
+        Path otherSourceFile = tempDir.resolve("src/page2.md");
+        write(otherSourceFile, "other content");
+        write(tempDir.resolve("dest/page2"), "rendered other content");
+        OrchidPage otherPage = new OrchidPage(new FileResource(otherSourceFile.toFile(), new OrchidReference(context, "page2.html")), "page2", "");
+
+        BuildCache firstBuild = newBuildCache();
+        firstBuild.onBuildStart(Orchid.Lifecycle.BuildStart.fire(this));
+        firstBuild.update(page);
+        firstBuild.update(otherPage);
+        firstBuild.onBuildFinish(Orchid.Lifecycle.BuildFinish.fire(this));
+
+        // the other page is no longer part of the site, so it is not rendered in the next build
+        BuildCache secondBuild = newBuildCache();
+        secondBuild.onBuildStart(Orchid.Lifecycle.BuildStart.fire(this));
+        assertThat(secondBuild.isUpToDate(page), is(true));
+        secondBuild.onBuildFinish(Orchid.Lifecycle.BuildFinish.fire(this));
+
+        BuildCache thirdBuild = newBuildCache();
+        assertThat(thirdBuild.isUpToDate(page), is(true));
+        assertThat(thirdBuild.isUpToDate(otherPage), is(false));
+    }
+
+    @Test
+    public void testPagesNotFromFilesAreNeverUpToDate() throws Throwable {
+        OrchidPage stringPage = new OrchidPage(new StringResource("content", new OrchidReference(context, "page1.html")), "page1", "");
+        write(outputFile, "rendered content");
+        BuildCache underTest = newBuildCache();
+
+        underTest.update(stringPage);
+        assertThat(underTest.isUpToDate(stringPage), is(false));
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.eden.orchid.api.render;
+
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.compilers.OrchidCompiler;
+import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.resources.resource.FileResource;
+import com.eden.orchid.api.theme.pages.OrchidPage;
+import com.eden.orchid.api.theme.pages.OrchidReference;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class FileRendererTest extends BaseOrchidTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path sourceFile;
+    private Path outputFile;
+    private OrchidPage page;
+    private FileRenderer underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        OrchidContext context = mock(OrchidContext.class);
+        when(context.resolve(OptionsExtractor.class)).thenReturn(mock(OptionsExtractor.class));
+        when(context.getOutputExtension("png")).thenReturn("png");
+
+        sourceFile = tempDir.resolve("src/image.png");
+        outputFile = tempDir.resolve("dest/image.png");
+
+        OrchidReference reference = new OrchidReference(context, "image.png");
+        page = new OrchidPage(new FileResource(sourceFile.toFile(), reference), "image", "");
+        underTest = new FileRenderer(tempDir.resolve("dest").toString());
+    }
+
+    private void write(Path file, String content) throws Throwable {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(Charset.forName("UTF-8")));
+    }
+
+    private String read(Path file) throws Throwable {
+        return new String(Files.readAllBytes(file), Charset.forName("UTF-8"));
+    }
+
+    @Test
+    public void testCopyKeepsModifiedTime() throws Throwable {
+        write(sourceFile, "image");
+
+        assertThat(underTest.copy(page, page.getResource()), is(true));
+        assertThat(read(outputFile), is(equalTo("image")));
+        assertThat(Files.getLastModifiedTime(outputFile), is(equalTo(Files.getLastModifiedTime(sourceFile))));
+    }
+
+    @Test
+    public void testUnchangedFilesAreNotCopiedAgain() throws Throwable {
+        write(sourceFile, "image");
+        underTest.copy(page, page.getResource());
+
+        // same size and modified time as the source, so it is assumed to be the same file
+        write(outputFile, "IMAGE");
+        Files.setLastModifiedTime(outputFile, Files.getLastModifiedTime(sourceFile));
+        assertThat(underTest.copy(page, page.getResource()), is(true));
+        assertThat(read(outputFile), is(equalTo("IMAGE")));
+
+        Files.setLastModifiedTime(sourceFile, FileTime.fromMillis(Files.getLastModifiedTime(sourceFile).toMillis() + 10000));
+        assertThat(underTest.copy(page, page.getResource()), is(true));
+        assertThat(read(outputFile), is(equalTo("image")));
+    }
+
+    @Test
+    public void testFailedRenderKeepsPreviousOutput() throws Throwable {
+        assertThat(underTest.render(page, writer -> writer.write("first")), is(true));
+        assertThat(read(outputFile), is(equalTo("first")));
+
+        assertThat(underTest.render(page, writer -> {
+            writer.write("sec");
+            throw new IllegalStateException("failed partway through rendering");
+        }), is(false));
+
+        assertThat(read(outputFile), is(equalTo("first")));
+        try (Stream<Path> files = Files.list(outputFile.getParent())) {
+            assertThat(files.collect(Collectors.toList()), contains(outputFile));
+        }
+    }
+
+    @Test
+    public void testFailedCompilationWritesSource() throws Throwable {
+        assertThat(underTest.render(page, writer -> {
+            writer.write("partial");
+            throw new OrchidCompiler.CompilationFailedException("{{ source }}", new IllegalStateException("failed partway through compiling"));
+        }), is(true));
+
+        assertThat(read(outputFile), is(equalTo("{{ source }}")));
+        try (Stream<Path> files = Files.list(outputFile.getParent())) {
+            assertThat(files.collect(Collectors.toList()), contains(outputFile));
+        }
+    }
+
+}
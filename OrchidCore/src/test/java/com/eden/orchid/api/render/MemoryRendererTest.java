@@ -0,0 +1,111 @@
+package com.eden.orchid.api.render;
+
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.generators.BuildDependencies;
+import com.eden.orchid.api.theme.Theme;
+import com.eden.orchid.api.theme.pages.OrchidPage;
+import com.eden.orchid.api.theme.pages.OrchidReference;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class MemoryRendererTest extends BaseOrchidTest {
+
+    private OrchidContext context;
+    private MemoryRenderer underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        context = mock(OrchidContext.class);
+        when(context.getTheme()).thenReturn(mock(Theme.class));
+        when(context.runOnBuildThread(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        underTest = new MemoryRenderer(() -> context, new BuildDependencies());
+    }
+
+    private OrchidPage page(String path, String fileName, String outputExtension) {
+        OrchidReference reference = mock(OrchidReference.class);
+        when(reference.getPath()).thenReturn(path);
+        when(reference.getFileName()).thenReturn(fileName);
+        when(reference.getOutputExtension()).thenReturn(outputExtension);
+        OrchidPage page = mock(OrchidPage.class);
+        when(page.getReference()).thenReturn(reference);
+        return page;
+    }
+
+    private String content(byte[] bytes) {
+        return new String(bytes, Charset.forName("UTF-8"));
+    }
+
+    @Test
+    public void testPagesAreRenderedWhenRequested() throws Throwable {
+        AtomicInteger renders = new AtomicInteger();
+        assertThat(underTest.render(page("about", "index", "html"), writer -> {
+            renders.incrementAndGet();
+            writer.write("about page");
+        }), is(true));
+
+        assertThat(renders.get(), is(0));
+        assertThat(underTest.hasPage("about/index.html"), is(true));
+        assertThat(underTest.getRendered("missing/index.html"), is(nullValue()));
+
+        assertThat(content(underTest.getRendered("about/index.html")), is(equalTo("about page")));
+        assertThat(content(underTest.getRendered("/about/index.html/")), is(equalTo("about page")));
+        assertThat(renders.get(), is(1));
+    }
+
+    @Test
+    public void testPagesFromTheLastBuildAreServedUntilTheNextBuildFinishes() throws Throwable {
+        AtomicInteger renders = new AtomicInteger();
+        underTest.render(page("", "index", "html"), writer -> writer.write("home " + renders.incrementAndGet()));
+
+        assertThat(content(underTest.getRendered("index.html")), is(equalTo("home 1")));
+
+        underTest.onBuildStart(Orchid.Lifecycle.BuildStart.fire(this));
+        underTest.render(page("", "index", "html"), writer -> writer.write("home " + renders.incrementAndGet()));
+        assertThat(content(underTest.getRendered("index.html")), is(equalTo("home 1")));
+
+        underTest.onBuildFinish(Orchid.Lifecycle.BuildFinish.fire(this));
+        assertThat(content(underTest.getRendered("index.html")), is(equalTo("home 2")));
+        assertThat(renders.get(), is(2));
+        verify(context, times(2)).runOnBuildThread(any());
+    }
+
+    @Test
+    public void testPagesNotRenderedByAFullBuildAreRemoved() throws Throwable {
+        underTest.render(page("", "index", "html"), writer -> writer.write("home"));
+        underTest.render(page("old", "index", "html"), writer -> writer.write("old page"));
+
+        underTest.onBuildStart(Orchid.Lifecycle.BuildStart.fire(this));
+        underTest.render(page("", "index", "html"), writer -> writer.write("home"));
+        underTest.onBuildFinish(Orchid.Lifecycle.BuildFinish.fire(this));
+
+        assertThat(underTest.hasPage("index.html"), is(true));
+        assertThat(underTest.hasPage("old/index.html"), is(false));
+        assertThat(underTest.getRendered("old/index.html"), is(nullValue()));
+    }
+
+    @Test
+    public void testPagesNotRenderedByAnIncrementalBuildAreKept() throws Throwable {
+        when(context.isIncrementalBuild()).thenReturn(true);
+        underTest.render(page("", "index", "html"), writer -> writer.write("home"));
+        underTest.render(page("other", "index", "html"), writer -> writer.write("other page"));
+
+        underTest.onBuildStart(Orchid.Lifecycle.BuildStart.fire(this));
+        underTest.render(page("", "index", "html"), writer -> writer.write("new home"));
+        underTest.onBuildFinish(Orchid.Lifecycle.BuildFinish.fire(this));
+
+        assertThat(content(underTest.getRendered("index.html")), is(equalTo("new home")));
+        assertThat(content(underTest.getRendered("other/index.html")), is(equalTo("other page")));
+    }
+
+}
@@ -4,18 +4,24 @@ import com.eden.common.util.EdenPair;
 import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.OrchidService;
 import com.eden.orchid.api.compilers.OrchidPrecompiler;
+import com.eden.orchid.api.generators.BuildDependencies;
 import com.eden.orchid.api.options.OptionsExtractor;
 import com.eden.orchid.api.resources.resource.OrchidResource;
 import com.eden.orchid.api.resources.resource.StringResource;
 import com.eden.orchid.api.theme.Theme;
+import com.eden.orchid.api.theme.assets.AssetPipeline;
+import com.eden.orchid.api.theme.assets.ThumbnailCache;
 import com.eden.orchid.api.theme.pages.OrchidPage;
 import com.eden.orchid.api.theme.pages.OrchidReference;
+import com.eden.orchid.api.theme.pages.PageContentCache;
 import com.eden.orchid.testhelpers.BaseOrchidTest;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -55,7 +61,11 @@ public final class RenderServiceTest extends BaseOrchidTest {
         precompiler = mock(OrchidPrecompiler.class);
         renderer = mock(OrchidRenderer.class);
         when(context.resolve(OptionsExtractor.class)).thenReturn(extractor);
-        when(renderer.render(any(), any())).thenReturn(true);
+        when(renderer.copy(any(), any())).thenReturn(true);
+        when(renderer.render(any(), any(OrchidRenderer.ContentWriter.class))).thenAnswer(invocation -> {
+            ((OrchidRenderer.ContentWriter) invocation.getArgument(1)).writeTo(new StringWriter());
+            return true;
+        });
         when(context.getTheme()).thenReturn(theme);
         when(theme.getPreferredTemplateExtension()).thenReturn("peb");
         when(context.getDefaultTemplateExtension()).thenReturn("peb");
@@ -88,7 +98,7 @@ public final class RenderServiceTest extends BaseOrchidTest {
         when(context.compile("peb", layoutContent, page)).thenReturn(layoutContent);
         when(context.compile("peb", resourceContent, page)).thenReturn(resourceContent);
 
-        service = new RenderServiceImpl(context, renderer);
+        service = new RenderServiceImpl(context, renderer, null, new BuildDependencies(), mock(BuildCache.class), mock(ThumbnailCache.class), mock(AssetPipeline.class), mock(PageContentCache.class));
         service.initialize(context);
         service = spy(service);
 
@@ -120,14 +130,28 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(page.isCurrent(), is(false));
 
         verify(page, times(2)).setCurrent(anyBoolean());
-        verify(renderer).render(any(), any());
+        verify(renderer).render(any(), any(OrchidRenderer.ContentWriter.class));
     }
 
     @Test
     public void testRenderTemplateNotCalledWhenSkipped() throws Throwable {
         page.setDraft(true);
         assertThat(underTest.renderTemplate(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).render(any(), any(OrchidRenderer.ContentWriter.class));
+    }
+
+    @Test
+    public void testRenderTemplateWritesLayout() throws Throwable {
+        doAnswer(invocation -> {
+            ((Writer) invocation.getArgument(3)).write(layoutContent);
+            return null;
+        }).when(context).compile(eq("html"), eq(layoutContent), eq(page), any(Writer.class));
+
+        StringWriter writer = new StringWriter();
+        service.writeRenderedTemplate(page, writer);
+
+        assertThat(writer.toString(), is(equalTo(layoutContent)));
+        assertThat(page.isCurrent(), is(false));
     }
 
 // Test Rendering Strings as Layouts
@@ -151,14 +175,14 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(page.isCurrent(), is(false));
 
         verify(page, times(2)).setCurrent(anyBoolean());
-        verify(renderer).render(any(), any());
+        verify(renderer).render(any(), any(OrchidRenderer.ContentWriter.class));
     }
 
     @Test
     public void testRenderStringNotCalledWhenSkipped() throws Throwable {
         page.setDraft(true);
         assertThat(underTest.renderString(page, "html", layoutContent), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).render(any(), any(OrchidRenderer.ContentWriter.class));
     }
 
 // Test Rending Raw Contents without Layout
@@ -182,14 +206,14 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(page.isCurrent(), is(false));
 
         verify(page, times(2)).setCurrent(anyBoolean());
-        verify(renderer).render(any(), any());
+        verify(renderer).render(any(), any(OrchidRenderer.ContentWriter.class));
     }
 
     @Test
     public void testRenderRawNotCalledWhenSkipped() throws Throwable {
         page.setDraft(true);
         assertThat(underTest.renderRaw(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).render(any(), any(OrchidRenderer.ContentWriter.class));
     }
 
 // Test Rendering raw contents as binary stream
@@ -213,14 +237,14 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(page.isCurrent(), is(false));
 
         verify(page, times(2)).setCurrent(anyBoolean());
-        verify(renderer).render(any(), any());
+        verify(renderer).copy(any(), any());
     }
 
     @Test
     public void testRenderBinaryNotCalledWhenSkipped() throws Throwable {
         page.setDraft(true);
         assertThat(underTest.renderBinary(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).copy(any(), any());
     }
 
 // Test RenderService utility methods
@@ -254,7 +278,7 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(service.skipPage(page), is(true));
 
         assertThat(underTest.renderBinary(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).copy(any(), any());
     }
 
     @Test
@@ -264,7 +288,7 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(service.skipPage(page), is(true));
 
         assertThat(underTest.renderBinary(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).copy(any(), any());
     }
 
     @Test
@@ -276,7 +300,7 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(service.skipPage(page), is(false));
 
         assertThat(underTest.renderBinary(page), is(true));
-        verify(renderer, times(1)).render(any(), any());
+        verify(renderer, times(1)).copy(any(), any());
     }
 
     @Test
@@ -286,7 +310,7 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(service.skipPage(page), is(true));
 
         assertThat(underTest.renderBinary(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).copy(any(), any());
     }
 
     @Test
@@ -296,7 +320,7 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(service.skipPage(page), is(true));
 
         assertThat(underTest.renderBinary(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).copy(any(), any());
     }
 
     @Test
@@ -306,7 +330,7 @@ public final class RenderServiceTest extends BaseOrchidTest {
         assertThat(service.skipPage(page), is(true));
 
         assertThat(underTest.renderBinary(page), is(false));
-        verify(renderer, never()).render(any(), any());
+        verify(renderer, never()).copy(any(), any());
     }
 
 
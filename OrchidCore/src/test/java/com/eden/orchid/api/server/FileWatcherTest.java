@@ -0,0 +1,92 @@
+package com.eden.orchid.api.server;
+
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.events.OrchidEvent;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class FileWatcherTest extends BaseOrchidTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path src;
+    private OrchidContext context;
+    private FileWatcher underTest;
+    private Thread watchThread;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        context = mock(OrchidContext.class);
+
+        try {
+            src = tempDir.resolve("src").toAbsolutePath().normalize();
+            Files.createDirectories(src.resolve("pages"));
+            Files.createDirectories(src.resolve("build"));
+
+            underTest = new FileWatcher(context, src.resolve("build").toString());
+            underTest.setQuietPeriod(200);
+            underTest.setIgnoredGlobs(Collections.singletonList("*.swp"));
+
+            watchThread = new Thread(() -> underTest.startWatching(src.toString()));
+            watchThread.start();
+
+            // give the watcher time to register the directories
+            Thread.sleep(500);
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Throwable {
+        underTest.stopWatching();
+        watchThread.join(5000);
+    }
+
+    private Path write(String name, String content) throws Throwable {
+        Path file = src.resolve(name);
+        Files.write(file, content.getBytes(Charset.forName("UTF-8")));
+        return file;
+    }
+
+    @Test
+    public void testChangesAreBroadcastTogether() throws Throwable {
+        Path one = write("pages/one.md", "one");
+        write("pages/one.md", "one, edited");
+        Path two = write("pages/two.md", "two");
+        Path swap = write("pages/.one.md.swp", "swap");
+        Path output = write("build/index.html", "output");
+
+        ArgumentCaptor<OrchidEvent> event = ArgumentCaptor.forClass(OrchidEvent.class);
+        verify(context, timeout(5000)).broadcast(event.capture());
+
+        // no further events once the quiet period has passed
+        Thread.sleep(500);
+        verify(context, times(1)).broadcast(any());
+
+        assertThat(event.getValue(), is(instanceOf(Orchid.Lifecycle.FilesChanged.class)));
+        Set<Path> changedFiles = ((Orchid.Lifecycle.FilesChanged) event.getValue()).getChangedFiles();
+        assertThat(changedFiles, hasItems(one, two));
+        assertThat(changedFiles, not(hasItem(swap)));
+        assertThat(changedFiles, not(hasItem(output)));
+    }
+
+}
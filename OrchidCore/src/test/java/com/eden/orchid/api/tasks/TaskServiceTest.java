@@ -1,13 +1,19 @@
 package com.eden.orchid.api.tasks;
 
+import com.copperleaf.krow.KrowTable;
 import com.eden.orchid.api.OrchidContext;
 import com.eden.orchid.api.OrchidService;
 import com.eden.orchid.api.server.FileWatcher;
 import com.eden.orchid.api.server.OrchidServer;
+import com.eden.orchid.api.theme.assets.AssetManager;
 import com.eden.orchid.testhelpers.BaseOrchidTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -62,6 +68,28 @@ public final class TaskServiceTest extends BaseOrchidTest {
         // test .build by testing individual objects
     }
 
+    @Test
+    public void testRapidChangesAreBuiltTogether() throws Throwable {
+        when(context.getAssetManager()).thenReturn(mock(AssetManager.class));
+        when(context.getBuildDetail()).thenReturn(new KrowTable());
+        service.setWatchDebounceTimeout(1);
+        service.setIncrementalBuilds(true);
+
+        Path first = Paths.get("pages/one.md");
+        Path second = Paths.get("pages/two.md");
+
+        // the first build runs immediately, and changes within the debounce timeout wait for a single trailing build
+        service.build();
+        verify(context, times(1)).clearThemes();
+        service.build(Collections.singleton(first));
+        service.build(Collections.singleton(second));
+        verify(context, times(1)).clearThemes();
+
+        verify(context, timeout(5000)).startIndexing(new HashSet<>(Arrays.asList(first, second)));
+        Thread.sleep(1500);
+        verify(context, times(2)).clearThemes();
+    }
+
     @Test
     public void watch() throws Throwable {
         // test .watch by testing FileWatcher
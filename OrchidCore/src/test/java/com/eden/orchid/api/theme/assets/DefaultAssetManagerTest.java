@@ -0,0 +1,121 @@
+package com.eden.orchid.api.theme.assets;
+
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.compilers.OrchidPrecompiler;
+import com.eden.orchid.api.generators.BuildMetrics;
+import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.resources.resource.StringResource;
+import com.eden.orchid.api.theme.pages.OrchidReference;
+import com.eden.orchid.impl.themes.assets.CssMinifier;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class DefaultAssetManagerTest extends BaseOrchidTest {
+
+    private OrchidContext context;
+    private BuildMetrics metrics;
+    private Set<String> renderThreads;
+    private AssetPipeline pipeline;
+    private DefaultAssetManager underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        context = mock(OrchidContext.class);
+        metrics = mock(BuildMetrics.class);
+        renderThreads = ConcurrentHashMap.newKeySet();
+        when(context.resolve(OptionsExtractor.class)).thenReturn(mock(OptionsExtractor.class));
+        when(context.resolve(OrchidPrecompiler.class)).thenReturn(mock(OrchidPrecompiler.class));
+        when(context.compile(anyString(), anyString(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(context.getOutputExtension(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(context.isBinaryExtension("png")).thenReturn(true);
+        when(context.renderAsset(any())).thenAnswer(invocation -> {
+            renderThreads.add(Thread.currentThread().getName());
+            return true;
+        });
+
+        pipeline = new AssetPipeline(() -> context, Collections.singleton(new CssMinifier()));
+        underTest = new DefaultAssetManager(() -> context, () -> metrics, new ThumbnailCache(), pipeline);
+    }
+
+    private AssetPage asset(String fileName) {
+        return new AssetPage(null, null, new StringResource("", new OrchidReference(context, fileName)), fileName, fileName);
+    }
+
+    private CssPage css(String fileName, String content) {
+        return new CssPage(null, null, new StringResource(content, new OrchidReference(context, fileName)), fileName, fileName);
+    }
+
+    @Test
+    public void testAssetsAreOnlyRenderedOnce() throws Throwable {
+        AssetPage asset = asset("image.png");
+
+        assertThat(underTest.addAsset(asset, true), is(sameInstance(asset)));
+        assertThat(underTest.addAsset(asset("image.png"), true), is(sameInstance(asset)));
+        assertThat(underTest.getActualAsset(asset("image.png")), is(sameInstance(asset)));
+
+        verify(context, times(1)).renderAsset(any());
+        verify(metrics, times(1)).onAssetRendered(anyLong());
+    }
+
+    @Test
+    public void testBinaryAssetsAreRenderedInBackground() throws Throwable {
+        underTest.setAssetThreads(2);
+
+        underTest.addAsset(asset("image.png"), true);
+        underTest.addAsset(asset("styles.css"), true);
+        underTest.awaitAssets();
+
+        verify(context, times(2)).renderAsset(any());
+        verify(metrics).stopRenderingAssets();
+        assertThat(renderThreads, hasItem(Thread.currentThread().getName()));
+        assertThat(renderThreads, hasItem(startsWith("orchid-assets-")));
+
+        // nothing is left to wait for, so the asset rendering time is not stopped again
+        underTest.awaitAssets();
+        verify(metrics, times(1)).stopRenderingAssets();
+    }
+
+    @Test
+    public void testStylesAreMinifiedAndFingerprinted() throws Throwable {
+        pipeline.configure(true, true, false);
+        CssPage style = css("assets/css/styles.css", "a {\n    color: red;\n}\n");
+
+        underTest.addAsset(style, true);
+
+        assertThat(style.getResource().getContent(), is(equalTo("a{color:red}")));
+        assertThat(style.getReference().getFileName(), startsWith("styles."));
+        assertThat(style.getReference().getFileName().length(), is(equalTo("styles.".length() + 10)));
+        assertThat(underTest.getActualAsset(style), is(sameInstance(style)));
+        assertThat(underTest.getActualAsset(css("assets/css/styles.css", "")), is(sameInstance(style)));
+    }
+
+    @Test
+    public void testStylesAreBundled() throws Throwable {
+        pipeline.configure(false, false, true);
+        CssPage first = (CssPage) underTest.addAsset(css("assets/css/first.css", "a { color: red; }"), true);
+        CssPage second = (CssPage) underTest.addAsset(css("assets/css/second.css", "b { color: blue; }"), true);
+        CssPage other = (CssPage) underTest.addAsset(css("assets/other/third.css", "i { color: green; }"), true);
+
+        List<CssPage> bundled = underTest.bundleStyles(Arrays.asList(first, second, other));
+        assertThat(bundled, hasSize(2));
+        assertThat(bundled.get(0).getResource().getContent(), is(equalTo("a { color: red; }\nb { color: blue; }")));
+        assertThat(bundled.get(0).getReference().getPath(), is(equalTo("assets/css")));
+        assertThat(bundled.get(1), is(sameInstance(other)));
+
+        // pages with the same styles share the same bundle
+        assertThat(underTest.bundleStyles(Arrays.asList(first, second)).get(0), is(sameInstance(bundled.get(0))));
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.eden.orchid.api.theme.assets;
+
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.resources.resource.FileResource;
+import com.eden.orchid.api.theme.pages.OrchidReference;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class ThumbnailCacheTest extends BaseOrchidTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OrchidContext context;
+    private AtomicInteger transformations;
+    private ThumbnailCache underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        context = mock(OrchidContext.class);
+        when(context.resolve(OptionsExtractor.class)).thenReturn(mock(OptionsExtractor.class));
+
+        transformations = new AtomicInteger();
+        underTest = new ThumbnailCache();
+        underTest.configure(tempDir.resolve("thumbnails"), 1024);
+    }
+
+    private FileResource image(String name, String content) throws Throwable {
+        Path file = tempDir.resolve("src/" + name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(Charset.forName("UTF-8")));
+        return new FileResource(file.toFile(), new OrchidReference(context, name));
+    }
+
+    private Supplier<InputStream> transform(String content) {
+        return () -> {
+            transformations.incrementAndGet();
+            return new ByteArrayInputStream(content.getBytes(Charset.forName("UTF-8")));
+        };
+    }
+
+    private String read(InputStream is) throws Throwable {
+        return IOUtils.toString(is, Charset.forName("UTF-8"));
+    }
+
+    @Test
+    public void testTransformedImagesAreCached() throws Throwable {
+        FileResource image = image("image.png", "image");
+
+        assertThat(read(underTest.get(image, "scale-0.5|png", transform("small image"))), is(equalTo("small image")));
+        assertThat(read(underTest.get(image, "scale-0.5|png", transform("small image"))), is(equalTo("small image")));
+        assertThat(transformations.get(), is(equalTo(1)));
+
+        underTest.get(image, "scale-0.25|png", transform("smaller image")).close();
+        assertThat(transformations.get(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testCacheIsKeptBetweenBuilds() throws Throwable {
+        FileResource image = image("image.png", "image");
+        underTest.get(image, "rotate-90.0|png", transform("rotated image")).close();
+
+        ThumbnailCache secondBuild = new ThumbnailCache();
+        secondBuild.configure(tempDir.resolve("thumbnails"), 1024);
+        assertThat(read(secondBuild.get(image, "rotate-90.0|png", transform("rotated image"))), is(equalTo("rotated image")));
+        assertThat(transformations.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedImagesAreRemoved() throws Throwable {
+        underTest.configure(tempDir.resolve("thumbnails"), 10);
+        FileResource image = image("image.png", "image");
+
+        underTest.get(image, "a", transform("aaaa")).close();
+        underTest.get(image, "b", transform("bbbb")).close();
+        underTest.get(image, "a", transform("aaaa")).close();
+        underTest.get(image, "c", transform("cccc")).close();
+        assertThat(transformations.get(), is(equalTo(3)));
+
+        // "b" was used least recently, so it was removed to make room for "c"
+        underTest.get(image, "a", transform("aaaa")).close();
+        assertThat(transformations.get(), is(equalTo(3)));
+        underTest.get(image, "b", transform("bbbb")).close();
+        assertThat(transformations.get(), is(equalTo(4)));
+    }
+
+}
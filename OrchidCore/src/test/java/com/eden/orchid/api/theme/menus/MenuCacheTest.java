@@ -0,0 +1,106 @@
+package com.eden.orchid.api.theme.menus;
+
+import com.eden.orchid.Orchid;
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.theme.pages.OrchidPage;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class MenuCacheTest extends BaseOrchidTest {
+
+    private OrchidContext context;
+    private MenuCache underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        context = mock(OrchidContext.class);
+        underTest = new MenuCache();
+    }
+
+    private CountingMenuFactory factory(boolean dependentOnPage, String title) {
+        CountingMenuFactory factory = new CountingMenuFactory(context, dependentOnPage);
+        factory.setAllData(Collections.singletonMap("title", title));
+        return factory;
+    }
+
+    @Test
+    public void testPageIndependentMenusAreSharedUntilCleared() throws Throwable {
+        CountingMenuFactory one = factory(false, "one");
+        CountingMenuFactory sameAsOne = factory(false, "one");
+        CountingMenuFactory two = factory(false, "two");
+
+        List<MenuItem> items = underTest.getMenuItems(one);
+        assertThat(underTest.getMenuItems(sameAsOne), is(sameInstance(items)));
+        assertThat(underTest.getMenuItems(two), is(not(sameInstance(items))));
+        assertThat(one.created + sameAsOne.created, is(1));
+        assertThat(underTest.size(), is(2));
+
+        underTest.onClearCache(Orchid.Lifecycle.ClearCache.fire(this));
+        assertThat(underTest.getMenuItems(sameAsOne), is(not(sameInstance(items))));
+        assertThat(sameAsOne.created, is(1));
+    }
+
+    @Test
+    public void testPageDependentMenusAreNotCached() throws Throwable {
+        CountingMenuFactory factory = factory(true, "one");
+
+        underTest.getMenuItems(factory);
+        underTest.getMenuItems(factory);
+
+        assertThat(factory.created, is(2));
+        assertThat(underTest.size(), is(0));
+    }
+
+    @Test
+    public void testActivePagesAreFoundInNestedMenus() throws Throwable {
+        OrchidPage active = mock(OrchidPage.class);
+        OrchidPage other = mock(OrchidPage.class);
+
+        MenuItem menu = new MenuItem.Builder(context)
+                .title("root")
+                .child(new MenuItem.Builder(context).title("inner")
+                        .child(new MenuItem.Builder(context).page(active))
+                )
+                .child(new MenuItem.Builder(context).page(other))
+                .build();
+        MenuItem inner = menu.getChildren().get(0);
+
+        assertThat(menu.hasActivePage(active), is(true));
+        assertThat(menu.isActive(other), is(true));
+        assertThat(inner.isActive(active), is(true));
+        assertThat(inner.isActive(other), is(false));
+        assertThat(inner.getChildren().get(0).isActivePage(active), is(true));
+        assertThat(menu.isActivePage(active), is(false));
+    }
+
+    private static final class CountingMenuFactory extends OrchidMenuFactory {
+        private final boolean dependentOnPage;
+        private int created;
+
+        private CountingMenuFactory(OrchidContext context, boolean dependentOnPage) {
+            super(context, "counting", 100);
+            this.dependentOnPage = dependentOnPage;
+        }
+
+        @Override
+        public List<MenuItem> getMenuItems() {
+            created++;
+            return Collections.singletonList(new MenuItem.Builder(context).title("item " + created).build());
+        }
+
+        @Override
+        public boolean isDependentOnPage() {
+            return dependentOnPage;
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.eden.orchid.api.theme.pages;
+
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.generators.BuildMetrics;
+import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.resources.resource.StringResource;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class PageContentCacheTest extends BaseOrchidTest {
+
+    private OrchidContext context;
+    private BuildMetrics metrics;
+    private AtomicInteger compilations;
+    private PageContentCache underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        context = mock(OrchidContext.class);
+        metrics = mock(BuildMetrics.class);
+        when(context.resolve(OptionsExtractor.class)).thenReturn(mock(OptionsExtractor.class));
+
+        compilations = new AtomicInteger();
+        underTest = new PageContentCache(() -> metrics);
+        when(context.resolve(PageContentCache.class)).thenReturn(underTest);
+    }
+
+    private OrchidPage page(String name) {
+        return new OrchidPage(new StringResource("", new OrchidReference(context, name + ".html")), name, name);
+    }
+
+    private Supplier<String> compile(String content) {
+        return () -> {
+            compilations.incrementAndGet();
+            return content;
+        };
+    }
+
+    @Test
+    public void testContentIsCached() throws Throwable {
+        underTest.setMaxSize(1024);
+        OrchidPage page = page("page1");
+
+        assertThat(underTest.get(page, compile("content")), is(equalTo("content")));
+        assertThat(underTest.get(page, compile("content")), is(equalTo("content")));
+        assertThat(compilations.get(), is(equalTo(1)));
+        verify(metrics, never()).onPageContentRecompiled();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedContentIsDropped() throws Throwable {
+        // each page's content takes 8 bytes, so only two fit
+        underTest.setMaxSize(16);
+        OrchidPage page1 = page("page1");
+        OrchidPage page2 = page("page2");
+        OrchidPage page3 = page("page3");
+
+        underTest.get(page1, compile("one!"));
+        underTest.get(page2, compile("two!"));
+        underTest.get(page1, compile("one!"));
+        underTest.get(page3, compile("tri!"));
+        assertThat(compilations.get(), is(equalTo(3)));
+
+        underTest.get(page1, compile("one!"));
+        assertThat(compilations.get(), is(equalTo(3)));
+        verify(metrics, never()).onPageContentRecompiled();
+
+        underTest.get(page2, compile("two!"));
+        assertThat(compilations.get(), is(equalTo(4)));
+        verify(metrics, times(1)).onPageContentRecompiled();
+    }
+
+    @Test
+    public void testClearingTheBudgetEmptiesTheCache() throws Throwable {
+        underTest.setMaxSize(1024);
+        OrchidPage page = page("page1");
+        underTest.get(page, compile("content"));
+
+        underTest.setMaxSize(0);
+        assertThat(underTest.isEnabled(), is(false));
+
+        underTest.setMaxSize(1024);
+        underTest.get(page, compile("content"));
+        assertThat(compilations.get(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testFreedPagesAreRemoved() throws Throwable {
+        underTest.setMaxSize(1024);
+        OrchidPage page = page("page1");
+        underTest.get(page, compile("content"));
+
+        page.free();
+        assertThat(underTest.get(page, compile("content")), is(equalTo("content")));
+        assertThat(compilations.get(), is(equalTo(2)));
+
+        // freeing a page is not the same as running out of memory for its content
+        verify(metrics, never()).onPageContentRecompiled();
+    }
+
+}
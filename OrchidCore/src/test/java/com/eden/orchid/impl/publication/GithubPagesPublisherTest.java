@@ -0,0 +1,111 @@
+package com.eden.orchid.impl.publication;
+
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.publication.DeployManifest;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public final class GithubPagesPublisherTest extends BaseOrchidTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path remote;
+    private GithubPagesPublisher underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        OrchidContext context = mock(OrchidContext.class);
+        when(context.resolve(OptionsExtractor.class)).thenReturn(mock(OptionsExtractor.class));
+
+        try {
+            // a local bare repository standing in for GitHub, with a previous deploy on the gh-pages branch
+            remote = tempDir.resolve("remote.git");
+            Files.createDirectories(remote);
+            git(remote, "init", "--bare");
+
+            Path seed = tempDir.resolve("seed");
+            Files.createDirectories(seed);
+            git(seed, "init");
+            git(seed, "checkout", "-b", "gh-pages");
+            write(seed, "index.html", "home");
+            write(seed, "old/page.html", "old");
+            git(seed, "add", "-A");
+            git(seed, "-c", "user.name=Test", "-c", "user.email=test@test", "commit", "-m", "Previous deploy");
+            git(seed, "push", remote.toString(), "gh-pages");
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        Path destination = tempDir.resolve("build");
+        underTest = new GithubPagesPublisher(context, destination.toString(), new DeployManifest(destination.toString()), "token");
+        underTest.setCommitMessage("Deploy");
+        underTest.setBranch("gh-pages");
+        underTest.setCommitUsername("Orchid");
+        underTest.setCommitEmail("orchid@orchid");
+        underTest.setPublishType(GithubPagesPublisher.PublishType.CleanBranchMaintainHistory);
+        underTest.setRemote("file://" + remote.toAbsolutePath());
+        underTest.setCloneDepth(1);
+    }
+
+    private void write(Path dir, String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(Charset.forName("UTF-8")));
+    }
+
+    private List<String> git(Path dir, String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).directory(dir.toFile()).redirectErrorStream(true).start();
+        String output = IOUtils.toString(process.getInputStream(), Charset.forName("UTF-8"));
+        if (process.waitFor() != 0) {
+            throw new IOException("git " + String.join(" ", args) + " failed: " + output);
+        }
+        return Arrays.asList(output.trim().split("\n"));
+    }
+
+    @Test
+    public void testSiteIsSyncedWithBranch() throws Throwable {
+        write(tempDir.resolve("build"), "index.html", "home");
+        write(tempDir.resolve("build"), "about/index.html", "about");
+
+        underTest.publish();
+
+        assertThat(git(remote, "ls-tree", "-r", "--name-only", "gh-pages"), contains("about/index.html", "index.html"));
+        assertThat(git(remote, "rev-list", "gh-pages"), hasSize(2));
+
+        // only the files which changed are part of the new commit
+        assertThat(git(remote, "diff", "--name-only", "gh-pages~1", "gh-pages"), containsInAnyOrder("about/index.html", "old/page.html"));
+    }
+
+    @Test
+    public void testNothingIsPushedWhenSiteIsUnchanged() throws Throwable {
+        write(tempDir.resolve("build"), "index.html", "home");
+        write(tempDir.resolve("build"), "old/page.html", "old");
+
+        underTest.publish();
+
+        assertThat(git(remote, "rev-list", "gh-pages"), hasSize(1));
+    }
+
+}
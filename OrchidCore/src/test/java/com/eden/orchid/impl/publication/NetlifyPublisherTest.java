@@ -0,0 +1,188 @@
+package com.eden.orchid.impl.publication;
+
+import com.eden.orchid.api.OrchidContext;
+import com.eden.orchid.api.options.OptionsExtractor;
+import com.eden.orchid.api.publication.DeployManifest;
+import com.eden.orchid.testhelpers.BaseOrchidTest;
+import com.eden.orchid.utilities.OrchidUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.apache.commons.io.IOUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public final class NetlifyPublisherTest extends BaseOrchidTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private AtomicReference<JSONObject> deployRequest;
+    private List<String> uploads;
+    private AtomicInteger failingUploads;
+    private AtomicLong rateLimitReset;
+    private List<Long> uploadTimes;
+
+    private DeployManifest manifest;
+    private NetlifyPublisher underTest;
+
+    @BeforeEach
+    public void setUp() {
+        super.setUp();
+        OrchidContext context = mock(OrchidContext.class);
+        when(context.resolve(OptionsExtractor.class)).thenReturn(mock(OptionsExtractor.class));
+
+        deployRequest = new AtomicReference<>();
+        uploads = new CopyOnWriteArrayList<>();
+        failingUploads = new AtomicInteger();
+        rateLimitReset = new AtomicLong();
+        uploadTimes = new CopyOnWriteArrayList<>();
+
+        // a local server standing in for the Netlify API
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        server.createContext("/api/v1/sites/site1/deploys", exchange -> {
+            deployRequest.set(new JSONObject(readBody(exchange)));
+            JSONObject response = new JSONObject();
+            response.put("id", "deploy1");
+            response.put("required", new JSONArray().put(sha1("a{}")));
+            if (rateLimitReset.get() > 0) {
+                exchange.getResponseHeaders().add("X-RateLimit-Limit", "100");
+                exchange.getResponseHeaders().add("X-RateLimit-Remaining", "0");
+                exchange.getResponseHeaders().add("X-RateLimit-Reset", Long.toString(rateLimitReset.get()));
+            }
+            respond(exchange, 200, response.toString());
+        });
+        server.createContext("/api/v1/deploys/deploy1/files/", exchange -> {
+            readBody(exchange);
+            uploads.add(exchange.getRequestURI().getPath());
+            uploadTimes.add(System.currentTimeMillis());
+            if (failingUploads.getAndDecrement() > 0) {
+                respond(exchange, 500, "{}");
+            }
+            else {
+                respond(exchange, 200, "{}");
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        manifest = new DeployManifest(tempDir.resolve("build").toString());
+        underTest = new NetlifyPublisher(context, new OkHttpClient(), manifest, "token");
+        underTest.setSiteId("site1");
+        underTest.setNetlifyUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1");
+        underTest.setUploadThreads(2);
+        underTest.setMaxRetries(2);
+        underTest.setRetryDelay(10);
+        underTest.setPersistManifest(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void write(String name, String content) throws Throwable {
+        Path file = tempDir.resolve("build/" + name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(Charset.forName("UTF-8")));
+    }
+
+    private static String sha1(String content) {
+        try {
+            return OrchidUtils.sha1(content);
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        return IOUtils.toString(exchange.getRequestBody(), Charset.forName("UTF-8"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(Charset.forName("UTF-8"));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @Test
+    public void testOnlyRequiredFilesAreUploaded() throws Throwable {
+        write("index.html", "home");
+        write("assets/styles.css", "a{}");
+
+        underTest.publish();
+
+        JSONObject files = deployRequest.get().getJSONObject("files");
+        assertThat(files.keySet(), containsInAnyOrder("index.html", "assets/styles.css"));
+        assertThat(files.getString("index.html"), is(equalTo(sha1("home"))));
+        assertThat(uploads, contains("/api/v1/deploys/deploy1/files/assets/styles.css"));
+        assertThat(Files.exists(manifest.getManifestFile()), is(true));
+    }
+
+    @Test
+    public void testFailedUploadsAreRetried() throws Throwable {
+        write("assets/styles.css", "a{}");
+        failingUploads.set(2);
+
+        underTest.publish();
+
+        assertThat(uploads, hasSize(3));
+    }
+
+    @Test
+    public void testPublishFailsWhenUploadsKeepFailing() throws Throwable {
+        write("assets/styles.css", "a{}");
+        failingUploads.set(3);
+
+        assertThrows(RuntimeException.class, () -> underTest.publish());
+        assertThat(uploads, hasSize(3));
+    }
+
+    @Test
+    public void testInitialUploadsWaitForRateLimitReset() throws Throwable {
+        write("assets/styles.css", "a{}");
+        write("assets/print.css", "a{}");
+        // the rate limit is used up by the deploy request, and resets in a couple of seconds
+        long resetSeconds = (System.currentTimeMillis() / 1000) + 2;
+        rateLimitReset.set(resetSeconds);
+
+        underTest.publish();
+
+        assertThat(uploadTimes, hasSize(2));
+        for (long uploadTime : uploadTimes) {
+            assertThat(uploadTime, is(greaterThanOrEqualTo(resetSeconds * 1000)));
+        }
+    }
+
+}
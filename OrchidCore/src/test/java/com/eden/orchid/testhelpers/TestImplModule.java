@@ -23,6 +23,7 @@ import com.eden.orchid.api.tasks.TaskServiceImpl;
 import com.eden.orchid.api.theme.AdminTheme;
 import com.eden.orchid.api.theme.Theme;
 import com.eden.orchid.api.theme.ThemeServiceImpl;
+import com.eden.orchid.api.theme.assets.AssetProcessor;
 import com.eden.orchid.api.theme.components.OrchidComponent;
 import com.eden.orchid.api.theme.menus.OrchidMenuFactory;
 import com.eden.orchid.impl.commands.BuildCommand;
@@ -55,6 +56,8 @@ import com.eden.orchid.impl.tasks.ServeTask;
 import com.eden.orchid.impl.tasks.ShellTask;
 import com.eden.orchid.impl.tasks.WatchTask;
 import com.eden.orchid.impl.themes.DefaultTheme;
+import com.eden.orchid.impl.themes.assets.CssMinifier;
+import com.eden.orchid.impl.themes.assets.JsMinifier;
 import com.eden.orchid.impl.themes.components.LicenseComponent;
 import com.eden.orchid.impl.themes.components.PageContentComponent;
 import com.eden.orchid.impl.themes.components.ReadmeComponent;
@@ -146,6 +149,11 @@ public final class TestImplModule extends OrchidModule {
                 TextCompiler.class,
                 HtmlCompiler.class);
 
+        // Asset Processors
+        addToSet(AssetProcessor.class,
+                CssMinifier.class,
+                JsMinifier.class);
+
         // Parsers
         addToSet(OrchidParser.class,
                 CSVParser.class,
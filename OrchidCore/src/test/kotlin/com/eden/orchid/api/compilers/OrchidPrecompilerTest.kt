@@ -190,6 +190,25 @@ class OrchidPrecompilerTest : BaseOrchidTest() {
                 .and { get { second }.isNull() }
     }
 
+    @Test
+    fun testFrontMatterMustStartInput() {
+        val input = """
+            |Page Content
+            |---
+            |title: Front Matter Title
+            |---
+            |More Content
+        """.trimMargin()
+
+        expectThat(underTest.shouldPrecompile("md", input)).isFalse()
+
+        val output = underTest.getEmbeddedData("md", input)
+
+        expectThat(output)
+                .and { get { first }.isEqualTo(input) }
+                .and { get { second }.isNull() }
+    }
+
     @Test
     fun parseEmptyFrontMatter() {
         val input = """
@@ -321,6 +340,34 @@ class OrchidPrecompilerTest : BaseOrchidTest() {
 
     }
 
+    @Test
+    fun parseFrontMatterAfterChangingCustomDelimiters() {
+        val input = """
+                |title=Weekly Links #2
+                |~~~~~~
+                |# Markdown content
+        """.trimMargin()
+
+        // custom delimiters are used as soon as they are set
+        expectThat(underTest.shouldPrecompile("md", input)).isFalse()
+
+        underTest.customDelimeters = listOf(
+                FrontMatterPrecompiler.CustomDelimiter().apply {
+                    regex = "^(.*?)\n~~~~~~\n"
+                    group = 1
+                    parser = "properties"
+                    fileExtensions = listOf("md")
+                }
+        )
+
+        expectThat(underTest.shouldPrecompile("md", input)).isTrue()
+        expectThat(underTest.shouldPrecompile("html", input)).isFalse()
+        val output = underTest.getEmbeddedData("md", input)
+        expectThat(output)
+                .and { get { first }.isEqualTo("# Markdown content") }
+                .and { get { second }["title"].isEqualTo("Weekly Links #2") }
+    }
+
     @Test
     fun parseYamlFrontMatterWithNoPageContent() {
         val input = """
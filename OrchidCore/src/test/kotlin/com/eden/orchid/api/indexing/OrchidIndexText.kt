@@ -17,7 +17,11 @@ import strikt.assertions.contains
 import strikt.assertions.containsExactlyInAnyOrder
 import strikt.assertions.get
 import strikt.assertions.isEqualTo
+import strikt.assertions.hasSize
+import strikt.assertions.isEmpty
 import strikt.assertions.isNotNull
+import strikt.assertions.isNull
+import strikt.assertions.isNotSameInstanceAs
 import strikt.assertions.isSameInstanceAs
 
 class OrchidIndexText : BaseOrchidTest() {
@@ -266,4 +270,62 @@ class OrchidIndexText : BaseOrchidTest() {
         )
     }
 
-}
\ No newline at end of file
+    @TestFactory
+    fun testPageListsAreCached(): List<DynamicTest> {
+        return listOf(
+                DynamicTest.dynamicTest("page lists are not built again until pages are added") {
+                    val wikiPages = wikiIndex.allPages
+                    val userManualPages = wikiIndex.findIndex("wiki/user-manual")!!.allPages
+                    val developersGuidePages = wikiIndex.findIndex("wiki/developers-guide")!!.allPages
+                    val rootPages = rootIndex.allPages
+
+                    expect {
+                        that(wikiIndex.allPages).isSameInstanceAs(wikiPages)
+                        that(rootIndex.allPages).isSameInstanceAs(rootPages)
+                    }
+
+                    val newPage = OrchidPage(StringResource(context, "wiki/user-manual/inner/overview4.md", ""), "", "")
+                    wikiIndex.addToIndex("$wikiKey/${newPage.reference.path}", newPage)
+
+                    expect {
+                        that(wikiIndex.allPages).isNotSameInstanceAs(wikiPages).contains(newPage).hasSize(wikiPages.size + 1)
+                        that(wikiIndex.findIndex("wiki/user-manual")!!.allPages).isNotSameInstanceAs(userManualPages).contains(newPage)
+                        that(wikiIndex.findIndex("wiki/developers-guide")!!.allPages).isSameInstanceAs(developersGuidePages)
+                        that(rootIndex.allPages).isNotSameInstanceAs(rootPages).contains(newPage)
+                        that(wikiIndex.size).isEqualTo(wikiPages.size + 1)
+                    }
+                }
+        )
+    }
+
+    @TestFactory
+    fun testFindMissingPaths(): List<DynamicTest> {
+        return listOf("wiki/missing", "wiki//user-manual", "wiki/user-manual/", "missing/user-manual", "").map { path ->
+            DynamicTest.dynamicTest("when looking up '$path', nothing is found") {
+                expect {
+                    that(rootIndex.findIndex(path)).isNull()
+                    that(rootIndex.findPage(path)).isNull()
+                    that(rootIndex.find(path)).isEmpty()
+                }
+            }
+        }
+    }
+
+    @TestFactory
+    fun testFindAfterIndexIsReplaced(): List<DynamicTest> {
+        return listOf(
+                DynamicTest.dynamicTest("pages of a replaced index can no longer be found") {
+                    val newPagesIndex = OrchidIndex(null, pagesKey)
+                    newPagesIndex.addToIndex("$pagesKey/${pages_page1.reference.path}", pages_page1)
+                    rootIndex.addChildIndex(pagesKey, newPagesIndex)
+
+                    expect {
+                        that(rootIndex.findPage(pages_page1.reference.path)).isSameInstanceAs(pages_page1)
+                        that(rootIndex.findPage(pages_page2.reference.path)).isNull()
+                        that(rootIndex.findPage(wiki_userManual_summary.reference.path)).isSameInstanceAs(wiki_userManual_summary)
+                    }
+                }
+        )
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.eden.orchid.impl.generators.collections
+
+import com.eden.orchid.Orchid
+import com.eden.orchid.api.OrchidContext
+import com.eden.orchid.api.theme.pages.OrchidPage
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.isEmpty
+import strikt.assertions.isNull
+import java.util.stream.Collectors
+
+class FrontMatterQueryTest {
+
+    private lateinit var news: OrchidPage
+    private lateinit var events: OrchidPage
+    private lateinit var draft: OrchidPage
+    private lateinit var about: OrchidPage
+    private lateinit var index: FrontMatterIndex
+
+    @BeforeEach
+    fun setUp() {
+        news = page("news", mapOf("title" to "Release news", "tags" to listOf("news", "release"), "publishDate" to "2018-03-01T10:00", "order" to 2))
+        events = page("events", mapOf("title" to "Upcoming events", "tags" to listOf("events"), "publishDate" to "2018-01-15", "order" to 10))
+        draft = page("draft", mapOf("title" to "Release draft", "tags" to listOf("news"), "draft" to true, "publishDate" to "2018-03-01T23:30"))
+        about = page("about", mapOf("title" to "About"))
+        index = FrontMatterIndex(listOf(news, events, draft, about))
+    }
+
+    private fun page(name: String, frontMatter: Map<String, Any>): OrchidPage {
+        val page = mock(OrchidPage::class.java)
+        `when`(page.get(anyString())).thenAnswer { frontMatter[it.getArgument(0)] }
+        `when`(page.toString()).thenReturn(name)
+        return page
+    }
+
+    private fun query(query: String): List<OrchidPage> {
+        return index.toPages(FrontMatterQuery.compile(query).evaluate(index))
+    }
+
+    @Test
+    fun testEquality() {
+        expectThat(query("title=About")).containsExactly(about)
+        expectThat(query("title == 'Release news'")).containsExactly(news)
+        expectThat(query("tags = news")).containsExactly(news, draft)
+        expectThat(query("draft != true")).containsExactly(news, events, about)
+        expectThat(query("tags=missing")).isEmpty()
+    }
+
+    @Test
+    fun testBooleanOperators() {
+        expectThat(query("tags = news & !draft = true")).containsExactly(news)
+        expectThat(query("tags = events | title = About")).containsExactly(events, about)
+        expectThat(query("(tags = news or tags = events) and not (draft = true)")).containsExactly(news, events)
+        expectThat(query("tags = news && (title ^= Release || order = 10)")).containsExactly(news, draft)
+    }
+
+    @Test
+    fun testInAndPrefix() {
+        expectThat(query("tags in (events, release)")).containsExactly(news, events)
+        expectThat(query("title ^= Release")).containsExactly(news, draft)
+        expectThat(query("title ^= \"Release n\"")).containsExactly(news)
+    }
+
+    @Test
+    fun testRanges() {
+        expectThat(query("publishDate >= 2018-02-01")).containsExactly(news, draft)
+        expectThat(query("publishDate < 2018-03-01")).containsExactly(events)
+        expectThat(query("publishDate <= 2018-03-01")).containsExactly(news, events, draft)
+        expectThat(query("publishDate > 2018-01-15")).containsExactly(news, draft)
+        expectThat(query("publishDate > 2018-03-01T12:00")).containsExactly(draft)
+        expectThat(query("order > 5")).containsExactly(events)
+        expectThat(query("order <= 2")).containsExactly(news)
+    }
+
+    @Test
+    fun testInvalidQueries() {
+        assertThrows<IllegalArgumentException> { FrontMatterQuery.compile("news") }
+        assertThrows<IllegalArgumentException> { FrontMatterQuery.compile("(tags = news") }
+        assertThrows<IllegalArgumentException> { FrontMatterQuery.compile("tags = news )") }
+        assertThrows<IllegalArgumentException> { FrontMatterQuery.compile("tags in news") }
+    }
+
+    @Test
+    fun testCollectionMatchesInvalidQueriesLiterally() {
+        val questions = page("questions", mapOf("title" to "Q&A"))
+        val collection = FrontMatterCollection(mock(OrchidContext::class.java))
+        collection.items = listOf(news, questions)
+
+        expectThat(collection.find("title=Q&A")!!.collect(Collectors.toList())).containsExactly(questions)
+        expectThat(collection.find("title ^= Release")!!.collect(Collectors.toList())).containsExactly(news)
+        expectThat(collection.find("Q&A")).isNull()
+
+        collection.onClearCache(Orchid.Lifecycle.ClearCache.fire(this))
+        expectThat(collection.find("title=Q&A")!!.collect(Collectors.toList())).containsExactly(questions)
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.eden.orchid.impl.themes.assets
+
+import com.eden.orchid.testhelpers.BaseOrchidTest
+import org.junit.jupiter.api.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+
+class AssetMinifierTest : BaseOrchidTest() {
+
+    @Test
+    fun testMinifyCss() {
+        val input = """
+            /* theme styles */
+            @media screen and (max-width: 600px) {
+                .nav > li  a:hover,
+                .nav .active {
+                    color: red;
+                    width: calc(100% - 2px);
+                    content: "a  ;  b";
+                }
+            }
+            /*! license */
+        """.trimIndent()
+
+        expectThat(CssMinifier.minify(input)).isEqualTo(
+            "@media screen and (max-width:600px){.nav>li a:hover,.nav .active{color:red;width:calc(100% - 2px);content:\"a  ;  b\"}}/*! license */"
+        )
+    }
+
+    @Test
+    fun testMinifyJs() {
+        val input = """
+            // a comment
+            function add(a,   b) {
+                /* add them */
+                return a + b // sum
+            }
+
+            var re = /\/\/ not a comment/g;
+            var s = "  // not a comment either  ";
+            var t = `  ${'$'}{ { a: 1 }.a }  // kept  `;
+            var d = a / b / c;
+        """.trimIndent()
+
+        expectThat(JsMinifier.minify(input)).isEqualTo(
+            """
+            function add(a, b) {
+            return a + b
+            }
+            var re = /\/\/ not a comment/g;
+            var s = "  // not a comment either  ";
+            var t = `  ${'$'}{ { a: 1 }.a }  // kept  `;
+            var d = a / b / c;
+            """.trimIndent()
+        )
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.eden.orchid.utilities
+
+import org.junit.jupiter.api.Test
+import strikt.api.expectThat
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFalse
+import strikt.assertions.isNull
+import strikt.assertions.isTrue
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.stream.IntStream
+
+class ConcurrentLRUCacheTest {
+
+    @Test
+    fun testGetAndSet() {
+        val underTest = ConcurrentLRUCache<String, String>()
+
+        underTest["one"] = "1"
+
+        expectThat(underTest["one"]).isEqualTo("1")
+        expectThat(underTest["two"]).isNull()
+        expectThat(underTest.hitCount).isEqualTo(1L)
+        expectThat(underTest.missCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun testNullValuesAreCached() {
+        val underTest = ConcurrentLRUCache<String, String?>()
+        val loads = AtomicInteger()
+
+        underTest.computeIfAbsent("missing") { loads.incrementAndGet(); null }
+        underTest.computeIfAbsent("missing") { loads.incrementAndGet(); null }
+
+        expectThat(loads.get()).isEqualTo(1)
+        expectThat(underTest.containsKey("missing")).isTrue()
+    }
+
+    @Test
+    fun testEvictsLeastRecentlyUsed() {
+        val underTest = ConcurrentLRUCache<String, String>(2, 1)
+
+        underTest["one"] = "1"
+        underTest["two"] = "2"
+        underTest["one"]
+        underTest["three"] = "3"
+
+        expectThat(underTest.containsKey("one")).isTrue()
+        expectThat(underTest.containsKey("two")).isFalse()
+        expectThat(underTest.containsKey("three")).isTrue()
+        expectThat(underTest.evictionCount).isEqualTo(1L)
+    }
+
+    @Test
+    fun testShrinkingMaxSizeEvicts() {
+        val underTest = ConcurrentLRUCache<Int, Int>(100, 4)
+        (0 until 100).forEach { underTest[it] = it }
+
+        underTest.maxSize = 8
+
+        expectThat(underTest.size <= 8).isTrue()
+    }
+
+    @Test
+    fun testComputeIfAbsentLoadsOncePerKeyInParallel() {
+        val underTest = ConcurrentLRUCache<Int, Int>(1000)
+        val loads = AtomicInteger()
+
+        IntStream.range(0, 10000).parallel().forEach {
+            underTest.computeIfAbsent(it % 100) { loads.incrementAndGet(); it % 100 }
+        }
+
+        expectThat(loads.get()).isEqualTo(100)
+        expectThat(underTest.size).isEqualTo(100)
+    }
+
+    @Test
+    fun testComputeIfAbsentIsReentrant() {
+        val underTest = ConcurrentLRUCache<String, String>()
+
+        // a loader which looks up its own key, like a template including itself, must not wait on its own load
+        fun load(depth: Int): String? {
+            return underTest.computeIfAbsent("template") {
+                if (depth < 2) "include(" + load(depth + 1) + ")" else "leaf"
+            }
+        }
+
+        expectThat(load(0)).isEqualTo("include(include(leaf))")
+        expectThat(underTest["template"]).isEqualTo("include(include(leaf))")
+    }
+
+}